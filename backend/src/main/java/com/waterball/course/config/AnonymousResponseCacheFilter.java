@@ -0,0 +1,193 @@
+package com.waterball.course.config;
+
+import com.waterball.course.service.catalog.AnonymousResponseCache;
+import com.waterball.course.service.catalog.AnonymousResponseCache.CachedResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class AnonymousResponseCacheFilter extends OncePerRequestFilter {
+    private static final List<String> CACHEABLE_PATHS = List.of(
+            "/api/journeys",
+            "/api/journeys/*",
+            "/api/gyms",
+            "/api/gyms/*");
+    private static final List<String> CACHED_HEADERS = List.of(
+            HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL, HttpHeaders.VARY);
+    /** Query parameters the cacheable endpoints read; anything else is left out of the cache key. */
+    private static final List<String> KEY_PARAMETERS = List.of("journeyId", "type");
+
+    private final AnonymousResponseCache anonymousResponseCache;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return CACHEABLE_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        if (isAuthenticated()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = cacheKey(request);
+        long version = anonymousResponseCache.currentVersion();
+
+        Optional<CachedResponse> cached = anonymousResponseCache.get(key, version);
+        if (cached.isEmpty()) {
+            cached = anonymousResponseCache.getOrRender(key, version, () -> renderThrough(request, response, chain, version));
+            if (cached.isEmpty() && response.isCommitted()) {
+                return;
+            }
+        }
+
+        if (cached.isPresent()) {
+            write(request, response, cached.get());
+        } else {
+            renderThrough(request, response, chain, version);
+        }
+    }
+
+    private static String cacheKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        char separator = '?';
+        for (String name : KEY_PARAMETERS) {
+            String[] values = request.getParameterValues(name);
+            if (values == null) {
+                continue;
+            }
+            String[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (String value : sorted) {
+                key.append(separator).append(name).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private Optional<CachedResponse> renderThrough(HttpServletRequest request, HttpServletResponse response,
+                                                   FilterChain chain, long version) {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+            Optional<CachedResponse> rendered = Optional.empty();
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (String name : CACHED_HEADERS) {
+                    String value = wrapper.getHeader(name);
+                    if (value != null) {
+                        headers.put(name, value);
+                    }
+                }
+                rendered = Optional.of(AnonymousResponseCache.render(
+                        version, wrapper.getStatus(), wrapper.getContentType(), headers, wrapper.getContentAsByteArray()));
+            }
+            wrapper.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            wrapper.copyBodyToResponse();
+            response.flushBuffer();
+            return rendered;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ServletException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cached) throws IOException {
+        cached.headers().forEach(response::setHeader);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = cached.headers().get(HttpHeaders.ETAG);
+        if (etag != null && gzip) {
+            etag = gzipTag(etag);
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+        if (etag != null && ConditionalGetInterceptor.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setStatus(cached.status());
+        response.setContentType(cached.contentType());
+        byte[] body = cached.body();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = cached.gzippedBody();
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /** The gzip body is a different representation, so it gets its own strong tag. */
+    static String gzipTag(String etag) {
+        return etag.endsWith("\"")
+                ? etag.substring(0, etag.length() - 1) + "-gzip\""
+                : etag + "-gzip";
+    }
+
+    /** RFC 9110 content-coding negotiation: an explicit {@code gzip} entry wins over {@code *}; q=0 refuses. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return quality > 0;
+            }
+            if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    private boolean isAuthenticated() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof UserPrincipal;
+    }
+}
@@ -0,0 +1,48 @@
+package com.waterball.course.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Attaches the ETag computed by {@link ConditionalGetInterceptor} to successful responses only,
+ * so error bodies are never served from a validator. {@code If-None-Match: *} is answered here
+ * with a 304, since only a successful handler proves the resource exists.
+ */
+@ControllerAdvice
+public class ConditionalGetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse) {
+            HttpServletRequest httpRequest = servletRequest.getServletRequest();
+            HttpServletResponse httpResponse = servletResponse.getServletResponse();
+            Object etag = httpRequest.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+            if (etag != null && httpResponse.getStatus() < 300) {
+                ConditionalGetInterceptor.applyValidatorHeaders(httpResponse, etag.toString());
+                if (ConditionalGetInterceptor.isWildcard(httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                    httpResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    return null;
+                }
+            }
+        }
+        return body;
+    }
+}
@@ -1,7 +1,9 @@
 package com.waterball.course.config;
 
-import com.waterball.course.service.UserService;
+import com.waterball.course.entity.UserRole;
+import com.waterball.course.service.auth.AccessTokenRevocationService;
 import com.waterball.course.service.auth.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -22,7 +24,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
-    private final UserService userService;
+    private final AccessTokenRevocationService revocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -30,10 +32,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         String accessToken = extractTokenFromCookie(request, "access_token");
 
-        if (accessToken != null && jwtService.validateToken(accessToken)) {
-            UUID userId = jwtService.getUserIdFromToken(accessToken);
-            userService.findById(userId).ifPresent(user -> {
-                UserPrincipal principal = new UserPrincipal(user);
+        if (accessToken != null) {
+            jwtService.verify(accessToken)
+                    .filter(claims -> !isRevoked(claims))
+                    .map(this::toPrincipal).ifPresent(principal -> {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -44,6 +46,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean isRevoked(Claims claims) {
+        return claims.getId() != null && revocationService.isRevoked(UUID.fromString(claims.getId()));
+    }
+
+    private UserPrincipal toPrincipal(Claims claims) {
+        String role = claims.get("role", String.class);
+        return new UserPrincipal(
+                UUID.fromString(claims.getSubject()),
+                claims.get("email", String.class),
+                role != null ? UserRole.valueOf(role) : null);
+    }
+
     private String extractTokenFromCookie(HttpServletRequest request, String cookieName) {
         if (request.getCookies() == null) {
             return null;
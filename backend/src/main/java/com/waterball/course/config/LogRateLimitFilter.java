@@ -0,0 +1,90 @@
+package com.waterball.course.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps DEBUG/INFO events from the configured hot-path loggers (and their children) at
+ * {@code maxPerSecond} per logger entry; WARN and above always pass. As a turbo filter it runs
+ * before the event is built, so a suppressed call costs a few comparisons and no formatting.
+ * The window's second and count share one {@link AtomicLong}, so a new second and its first
+ * event are claimed together and concurrent callers never reset each other's count.
+ *
+ * <pre>
+ * &lt;turboFilter class="com.waterball.course.config.LogRateLimitFilter"&gt;
+ *     &lt;loggerName&gt;com.waterball.course.config.LoggingFilter&lt;/loggerName&gt;
+ *     &lt;maxPerSecond&gt;100&lt;/maxPerSecond&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class LogRateLimitFilter extends TurboFilter {
+    private final List<Window> windows = new ArrayList<>();
+    private int maxPerSecond = 10;
+
+    public void addLoggerName(String name) {
+        windows.add(new Window(name));
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /** Events suppressed since startup, across all configured loggers. */
+    public long getDropped() {
+        return windows.stream().mapToLong(window -> window.dropped.get()).sum();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks, which must not consume the budget.
+        if (format == null || level.isGreaterOrEqual(Level.WARN)
+                || level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        for (Window window : windows) {
+            if (window.matches(logger.getName())) {
+                return window.tryAcquire(maxPerSecond) ? FilterReply.NEUTRAL : FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private static final class Window {
+        private final String name;
+        /** Epoch second in the high 32 bits, events passed in that second in the low 32. */
+        private final AtomicLong state = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private Window(String name) {
+            this.name = name;
+        }
+
+        private boolean matches(String loggerName) {
+            return loggerName.startsWith(name)
+                    && (loggerName.length() == name.length() || loggerName.charAt(name.length()) == '.');
+        }
+
+        private boolean tryAcquire(int maxPerSecond) {
+            long now = System.currentTimeMillis() / 1000;
+            while (true) {
+                long current = state.get();
+                boolean sameSecond = current >>> 32 == now;
+                if (sameSecond && (int) current >= maxPerSecond) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                long next = sameSecond ? current + 1 : now << 32 | 1;
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
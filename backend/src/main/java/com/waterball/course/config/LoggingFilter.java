@@ -1,25 +1,56 @@
 package com.waterball.course.config;
 
+import com.waterball.course.entity.UserRole;
+import com.waterball.course.util.LoggingConstants;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Locale;
 import java.util.UUID;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Logs one line per request with its SQL statistics. The line is INFO, which
+ * {@link LogRateLimitFilter} samples under load, except for 5xx responses and requests over
+ * {@code app.sql.statistics.slow-request-ms} or {@code app.sql.statistics.max-statements}: those
+ * are logged at WARN so they are never sampled away. The same figures are sent back as
+ * {@code Server-Timing} only to signed-in admins, or to everyone when
+ * {@code app.sql.statistics.server-timing} is on, which is meant for local development: they
+ * reveal how much database work an endpoint does.
+ */
+@Slf4j
 @Component
 public class LoggingFilter extends OncePerRequestFilter {
 
+    @Value("${app.sql.statistics.server-timing:false}")
+    private boolean serverTimingEnabled;
+
+    @Value("${app.sql.statistics.slow-request-ms:1000}")
+    private long slowRequestMs;
+
+    @Value("${app.sql.statistics.max-statements:30}")
+    private int maxStatements;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain chain) throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        SqlStatistics sql = SqlStatistics.begin();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, sql, startedAt);
+        boolean exposeTiming = serverTimingEnabled;
         try {
             MDC.put("requestId", UUID.randomUUID().toString());
             
@@ -27,13 +58,65 @@ public class LoggingFilter extends OncePerRequestFilter {
             if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
                 Object principal = auth.getPrincipal();
                 if (principal instanceof UserPrincipal userPrincipal) {
-                    MDC.put("userId", userPrincipal.getUser().getId().toString());
+                    MDC.put("userId", userPrincipal.getId().toString());
+                    exposeTiming = exposeTiming || userPrincipal.getRole() == UserRole.ADMIN;
                 }
             }
             
-            chain.doFilter(request, response);
+            chain.doFilter(request, exposeTiming ? timedResponse : response);
         } finally {
+            if (exposeTiming && !response.isCommitted()) {
+                timedResponse.addServerTiming();
+            }
+            long durationMs = (System.nanoTime() - startedAt) / 1_000_000;
+            Object[] fields = {
+                kv("event", LoggingConstants.HTTP_REQUEST_COMPLETED),
+                kv("method", request.getMethod()),
+                kv("path", request.getRequestURI()),
+                kv("status", response.getStatus()),
+                kv("durationMs", durationMs),
+                kv("sqlStatements", sql.getStatements()),
+                kv("sqlTimeMs", Math.round(sql.getMillis()))
+            };
+            if (response.getStatus() >= 500 || durationMs >= slowRequestMs || sql.getStatements() >= maxStatements) {
+                log.warn("Request completed", fields);
+            } else {
+                log.info("Request completed", fields);
+            }
+            SqlStatistics.end();
             MDC.clear();
         }
     }
+
+    /**
+     * Adds {@code Server-Timing} just before the response commits, reporting the database time
+     * and statement count seen so far plus total time spent in the application.
+     */
+    private static final class ServerTimingResponse extends OnCommittedResponseWrapper {
+        private final SqlStatistics sql;
+        private final long startedAt;
+        private boolean added;
+
+        private ServerTimingResponse(HttpServletResponse response, SqlStatistics sql, long startedAt) {
+            super(response);
+            this.sql = sql;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            addServerTiming();
+        }
+
+        private void addServerTiming() {
+            if (added) {
+                return;
+            }
+            added = true;
+            double appMillis = (System.nanoTime() - startedAt) / 1_000_000.0;
+            ((HttpServletResponse) getResponse()).addHeader("Server-Timing", String.format(Locale.ROOT,
+                    "db;dur=%.1f;desc=\"%d statements\", app;dur=%.1f",
+                    sql.getMillis(), sql.getStatements(), appMillis));
+        }
+    }
 }
@@ -2,15 +2,23 @@ package com.waterball.course.config;
 
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -26,6 +34,11 @@ import java.util.List;
 public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final LoggingFilter loggingFilter;
+    private final AnonymousResponseCacheFilter anonymousResponseCacheFilter;
+
+    /** Networks Prometheus scrapes from; everyone else needs an ADMIN login. */
+    @Value("${app.metrics.scrape-allowed-cidrs:}")
+    private List<String> scrapeAllowedCidrs;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -39,6 +52,11 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/google", "/api/auth/refresh", "/api/auth/logout").permitAll()
                 .requestMatchers("/api/health/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/prometheus").access(AuthorizationManagers.anyOf(
+                        scrapeNetworkAuthorizationManager(),
+                        AuthorityAuthorizationManager.hasRole("ADMIN")))
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/journeys").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/journeys/{journeyId}").permitAll()
@@ -53,14 +71,25 @@ public class SecurityConfig {
                 .requestMatchers("/mock-payment/**").permitAll()
                 .requestMatchers("/uploads/**").permitAll()
                 .requestMatchers("/api/purchases/**").authenticated()
+                .requestMatchers("/api/metrics/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
-            .addFilterAfter(loggingFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterAfter(loggingFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(anonymousResponseCacheFilter, AuthorizationFilter.class);
 
         return http.build();
     }
 
+    private AuthorizationManager<RequestAuthorizationContext> scrapeNetworkAuthorizationManager() {
+        List<IpAddressMatcher> networks = scrapeAllowedCidrs.stream()
+                .filter(cidr -> !cidr.isBlank())
+                .map(cidr -> new IpAddressMatcher(cidr.trim()))
+                .toList();
+        return (authentication, context) -> new AuthorizationDecision(
+                networks.stream().anyMatch(network -> network.matches(context.getRequest())));
+    }
+
     @Bean
     public AuthenticationEntryPoint authenticationEntryPoint() {
         return (request, response, authException) -> {
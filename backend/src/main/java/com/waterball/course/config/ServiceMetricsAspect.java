@@ -0,0 +1,54 @@
+package com.waterball.course.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times the public methods of beans annotated {@link TimedService}, and single methods carrying
+ * it, as {@code service.method}. Only the service entry points controllers call are annotated;
+ * hot helpers such as token verification, entitlement checks and catalog lookups run several
+ * times per request, and timing them would cost more than it tells. Controllers are already
+ * covered per endpoint by {@code http.server.requests}. Calls a bean makes on itself bypass the
+ * proxy and are not timed separately. Timers are looked up once per method and outcome.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    private final MeterRegistry meterRegistry;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * *(..)) && (@within(com.waterball.course.config.TimedService) " +
+            "|| @annotation(com.waterball.course.config.TimedService))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            sample.stop(timers.computeIfAbsent(new TimerKey(signature.getMethod(), exception),
+                    key -> Timer.builder("service.method")
+                            .tag("class", signature.getDeclaringType().getSimpleName())
+                            .tag("method", signature.getName())
+                            .tag("exception", key.exception())
+                            .register(meterRegistry)));
+        }
+    }
+
+    private record TimerKey(Method method, String exception) {}
+}
@@ -0,0 +1,46 @@
+package com.waterball.course.config;
+
+/**
+ * Statement count and database time accumulated by the current request thread. Only threads
+ * that called {@link #begin()} collect anything; background workers are not tracked.
+ */
+public final class SqlStatistics {
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+    private long queryStartedAt;
+
+    private SqlStatistics() {}
+
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void queryStarted() {
+        queryStartedAt = System.nanoTime();
+    }
+
+    void queryFinished() {
+        statements++;
+        nanos += System.nanoTime() - queryStartedAt;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+}
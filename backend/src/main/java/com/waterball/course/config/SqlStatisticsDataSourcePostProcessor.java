@@ -0,0 +1,39 @@
+package com.waterball.course.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource so every JDBC statement is seen by
+ * {@link SqlStatisticsListener}. The proxy still unwraps to the Hikari pool for its metrics.
+ */
+@Component
+public class SqlStatisticsDataSourcePostProcessor implements BeanPostProcessor {
+    private final boolean enabled;
+    private final long slowQueryThresholdMs;
+    private final boolean logParameters;
+
+    public SqlStatisticsDataSourcePostProcessor(
+            @Value("${app.sql.statistics.enabled:true}") boolean enabled,
+            @Value("${app.sql.slow-query.threshold-ms:200}") long slowQueryThresholdMs,
+            @Value("${app.sql.slow-query.log-parameters:false}") boolean logParameters) {
+        this.enabled = enabled;
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+        this.logParameters = logParameters;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        return ProxyDataSourceBuilder.create(beanName, dataSource)
+                .listener(new SqlStatisticsListener(slowQueryThresholdMs, logParameters))
+                .build();
+    }
+}
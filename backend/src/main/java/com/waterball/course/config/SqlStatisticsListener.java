@@ -0,0 +1,98 @@
+package com.waterball.course.config;
+
+import com.waterball.course.util.LoggingConstants;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Feeds {@link SqlStatistics} and logs statements slower than the threshold. The slow-query
+ * line carries the SQL, bind parameters and the first application frame that issued it; the
+ * {@code requestId} comes from the MDC set by {@link LoggingFilter}.
+ */
+@Slf4j
+class SqlStatisticsListener implements QueryExecutionListener {
+    private static final String APP_PACKAGE = "com.waterball.course.";
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final int MAX_BATCH_PARAMETERS = 5;
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final long slowQueryThresholdMs;
+    private final boolean logParameters;
+
+    SqlStatisticsListener(long slowQueryThresholdMs, boolean logParameters) {
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+        this.logParameters = logParameters;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.queryStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.queryFinished();
+        }
+
+        if (slowQueryThresholdMs > 0 && execInfo.getElapsedTime() >= slowQueryThresholdMs) {
+            log.warn("Slow query",
+                kv("event", LoggingConstants.SLOW_QUERY),
+                kv("elapsedMs", execInfo.getElapsedTime()),
+                kv("sql", queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "))),
+                kv("parameters", logParameters ? parameters(queryInfoList) : List.of()),
+                kv("batchSize", execInfo.isBatch() ? execInfo.getBatchSize() : 0),
+                kv("success", execInfo.isSuccess()),
+                kv("origin", origin()));
+        }
+    }
+
+    private static List<List<String>> parameters(List<QueryInfo> queryInfoList) {
+        List<List<String>> parameters = new ArrayList<>();
+        for (QueryInfo queryInfo : queryInfoList) {
+            for (List<ParameterSetOperation> operations : queryInfo.getParametersList()) {
+                if (parameters.size() == MAX_BATCH_PARAMETERS) {
+                    return parameters;
+                }
+                parameters.add(operations.stream()
+                        .map(SqlStatisticsListener::describe)
+                        .toList());
+            }
+        }
+        return parameters;
+    }
+
+    private static String describe(ParameterSetOperation operation) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+            return "null";
+        }
+        Object[] args = operation.getArgs();
+        String value = String.valueOf(args.length > 1 ? args[1] : null);
+        return value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value;
+    }
+
+    private static String origin() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE)
+                        && !frame.getClassName().startsWith(SqlStatisticsListener.class.getName())
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(APP_PACKAGE.length())
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+}
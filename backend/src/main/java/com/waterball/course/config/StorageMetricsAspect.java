@@ -0,0 +1,76 @@
+package com.waterball.course.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts bytes moved through {@code StorageService}. Downloads are counted as the returned
+ * stream is read, so a client that aborts halfway only counts what was actually served.
+ */
+@Aspect
+@Component
+public class StorageMetricsAspect {
+    private final Counter uploadBytes;
+    private final Counter downloadBytes;
+
+    public StorageMetricsAspect(MeterRegistry meterRegistry, @Value("${storage.type:local}") String storageType) {
+        this.uploadBytes = Counter.builder("storage.upload.bytes")
+                .baseUnit("bytes")
+                .tag("storage", storageType)
+                .register(meterRegistry);
+        this.downloadBytes = Counter.builder("storage.download.bytes")
+                .baseUnit("bytes")
+                .tag("storage", storageType)
+                .register(meterRegistry);
+    }
+
+    @Around("execution(* com.waterball.course.service.StorageService.uploadFile(..)) && args(path, file)")
+    public Object countUpload(ProceedingJoinPoint joinPoint, String path, MultipartFile file) throws Throwable {
+        Object result = joinPoint.proceed();
+        uploadBytes.increment(file.getSize());
+        return result;
+    }
+
+    @Around("execution(* com.waterball.course.service.StorageService.downloadFile(..))")
+    public Object countDownload(ProceedingJoinPoint joinPoint) throws Throwable {
+        InputStream stream = (InputStream) joinPoint.proceed();
+        return stream != null ? new CountingInputStream(stream, downloadBytes) : null;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final Counter counter;
+
+        private CountingInputStream(InputStream in, Counter counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.increment();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                counter.increment(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.waterball.course.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service whose public methods, or a single method, {@link ServiceMetricsAspect} times
+ * as {@code service.method}. Meant for the entry points controllers call; helpers invoked
+ * several times per request stay unannotated.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface TimedService {
+}
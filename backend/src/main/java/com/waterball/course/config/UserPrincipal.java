@@ -1,6 +1,6 @@
 package com.waterball.course.config;
 
-import com.waterball.course.entity.User;
+import com.waterball.course.entity.UserRole;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
@@ -9,19 +9,25 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.UUID;
 
+/**
+ * Authenticated user built from verified access-token claims; no database lookup involved.
+ */
 @Getter
 @RequiredArgsConstructor
 public class UserPrincipal implements UserDetails {
-    private final User user;
+    private final UUID id;
+    private final String email;
+    private final UserRole role;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        if (user.getRole() == null) {
+        if (role == null) {
             return Collections.emptyList();
         }
         return Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+                new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
     @Override
@@ -31,7 +37,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
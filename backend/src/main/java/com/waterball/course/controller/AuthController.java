@@ -6,6 +6,7 @@ import com.waterball.course.dto.response.AuthResponse;
 import com.waterball.course.dto.response.MessageResponse;
 import com.waterball.course.dto.response.UserResponse;
 import com.waterball.course.exception.InvalidCredentialException;
+import com.waterball.course.service.UserProfileCache;
 import com.waterball.course.service.auth.AuthService;
 import com.waterball.course.service.auth.CookieService;
 import jakarta.validation.Valid;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
     private final AuthService authService;
     private final CookieService cookieService;
+    private final UserProfileCache userProfileCache;
 
     @PostMapping("/google")
     public ResponseEntity<AuthResponse> loginWithGoogle(
@@ -52,8 +54,9 @@ public class AuthController {
 
     @PostMapping("/logout")
     public ResponseEntity<MessageResponse> logout(
-            @CookieValue(name = "refresh_token", required = false) String refreshToken) {
-        authService.logout(refreshToken);
+            @CookieValue(name = "refresh_token", required = false) String refreshToken,
+            @CookieValue(name = "access_token", required = false) String accessToken) {
+        authService.logout(refreshToken, accessToken);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.SET_COOKIE,
@@ -65,6 +68,8 @@ public class AuthController {
 
     @GetMapping("/me")
     public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal UserPrincipal principal) {
-        return ResponseEntity.ok(UserResponse.from(principal.getUser()));
+        return userProfileCache.get(principal.getId())
+                .map(profile -> ResponseEntity.ok(UserResponse.from(profile)))
+                .orElseThrow(() -> new InvalidCredentialException("User not found"));
     }
 }
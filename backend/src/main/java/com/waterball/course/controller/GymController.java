@@ -4,6 +4,10 @@ import com.waterball.course.config.UserPrincipal;
 import com.waterball.course.dto.gym.*;
 import com.waterball.course.entity.*;
 import com.waterball.course.exception.StageNotFoundException;
+import com.waterball.course.service.catalog.CatalogSnapshot.GymNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.JourneyNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.ProblemNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.StageNode;
 import com.waterball.course.service.gym.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -30,9 +34,9 @@ public class GymController {
             @RequestParam(required = false) UUID journeyId,
             @RequestParam(required = false) GymType type,
             @AuthenticationPrincipal UserPrincipal principal) {
-        UUID userId = principal != null ? principal.getUser().getId() : null;
+        UUID userId = principal != null ? principal.getId() : null;
         
-        List<Gym> gyms = gymService.getGyms(journeyId, type);
+        List<GymNode> gyms = gymService.getGyms(journeyId, type);
         List<GymListItemResponse> response = gyms.stream()
                 .map(gym -> toGymListItem(gym, userId))
                 .collect(Collectors.toList());
@@ -44,22 +48,23 @@ public class GymController {
     public ResponseEntity<GymDetailResponse> getGymDetail(
             @PathVariable UUID gymId,
             @AuthenticationPrincipal UserPrincipal principal) {
-        UUID userId = principal != null ? principal.getUser().getId() : null;
+        UUID userId = principal != null ? principal.getId() : null;
         
-        Gym gym = gymService.getGym(gymId);
-        List<Stage> stages = gymService.getGymStages(gymId);
-        List<Gym> relatedGyms = gymService.getRelatedGyms(gym.getJourney().getId(), gymId);
+        GymNode gym = gymService.getGym(gymId);
+        JourneyNode journey = gymService.getJourney(gym);
+        List<StageNode> stages = gymService.getGymStages(gymId);
+        List<GymNode> relatedGyms = gymService.getRelatedGyms(journey.id(), gymId);
         
         GymDetailResponse response = new GymDetailResponse(
-                gym.getId(),
-                gym.getJourney().getId(),
-                gym.getJourney().getTitle(),
-                gym.getTitle(),
-                gym.getDescription(),
-                gym.getThumbnailUrl(),
-                gym.getGymType(),
+                gym.id(),
+                journey.id(),
+                journey.title(),
+                gym.title(),
+                gym.description(),
+                gym.thumbnailUrl(),
+                gym.gymType(),
                 stages.stream().map(stage -> toStageSummary(stage, userId)).collect(Collectors.toList()),
-                gymService.isPurchased(userId, gym.getJourney().getId()),
+                gymService.isPurchased(userId, journey.id()),
                 relatedGyms.stream().map(this::toGymSummary).collect(Collectors.toList())
         );
         
@@ -71,12 +76,12 @@ public class GymController {
             @PathVariable UUID gymId,
             @PathVariable UUID stageId,
             @AuthenticationPrincipal UserPrincipal principal) {
-        UUID userId = principal != null ? principal.getUser().getId() : null;
+        UUID userId = principal != null ? principal.getId() : null;
         
-        Stage stage = stageService.getStageByGym(gymId, stageId);
-        Gym gym = stage.getGym();
+        StageNode stage = stageService.getStageByGym(gymId, stageId);
+        GymNode gym = stageService.getGym(stage);
         
-        boolean isPurchased = gymService.isPurchased(userId, gym.getJourney().getId());
+        boolean isPurchased = gymService.isPurchased(userId, gymService.getJourney(gym).id());
         boolean isUnlocked = isPurchased && stageService.isStageUnlocked(userId, stage);
         
         List<StageDetailResponse.ProblemSummaryResponse> problems = 
@@ -90,12 +95,12 @@ public class GymController {
                         .collect(Collectors.toList());
         
         StageDetailResponse response = new StageDetailResponse(
-                stage.getId(),
-                gym.getId(),
-                gym.getTitle(),
-                stage.getTitle(),
-                stage.getDescription(),
-                stage.getDifficulty(),
+                stage.id(),
+                gym.id(),
+                gym.title(),
+                stage.title(),
+                stage.description(),
+                stage.difficulty(),
                 problems,
                 isUnlocked,
                 isPurchased,
@@ -105,45 +110,46 @@ public class GymController {
         return ResponseEntity.ok(response);
     }
 
-    private GymListItemResponse toGymListItem(Gym gym, UUID userId) {
+    private GymListItemResponse toGymListItem(GymNode gym, UUID userId) {
+        JourneyNode journey = gymService.getJourney(gym);
         return new GymListItemResponse(
-                gym.getId(),
-                gym.getJourney().getId(),
-                gym.getJourney().getTitle(),
-                gym.getTitle(),
-                gym.getDescription(),
-                gym.getThumbnailUrl(),
-                gym.getGymType(),
-                gymService.getStageCount(gym.getId()),
-                gymService.getProblemCount(gym.getId()),
-                gymService.getCompletedProblemCount(userId, gym.getId()),
-                gymService.isPurchased(userId, gym.getJourney().getId())
+                gym.id(),
+                journey.id(),
+                journey.title(),
+                gym.title(),
+                gym.description(),
+                gym.thumbnailUrl(),
+                gym.gymType(),
+                gym.stages().size(),
+                gym.problemCount(),
+                gymService.getCompletedProblemCount(userId, gym.id()),
+                gymService.isPurchased(userId, journey.id())
         );
     }
 
-    private GymDetailResponse.StageSummaryResponse toStageSummary(Stage stage, UUID userId) {
+    private GymDetailResponse.StageSummaryResponse toStageSummary(StageNode stage, UUID userId) {
         List<GymDetailResponse.PrerequisiteInfoResponse> prerequisites = 
-                prerequisiteService.getStagePrerequisiteInfos(stage.getId(), userId).stream()
+                prerequisiteService.getStagePrerequisiteInfos(stage.id(), userId).stream()
                         .map(this::toGymPrerequisiteInfo)
                         .collect(Collectors.toList());
         
         return new GymDetailResponse.StageSummaryResponse(
-                stage.getId(),
-                stage.getTitle(),
-                stage.getDescription(),
-                stage.getDifficulty(),
-                stageService.getProblemCount(stage.getId()),
-                stageService.getCompletedProblemCount(userId, stage.getId()),
+                stage.id(),
+                stage.title(),
+                stage.description(),
+                stage.difficulty(),
+                stageService.getProblemCount(stage),
+                stageService.getCompletedProblemCount(userId, stage.id()),
                 stageService.isStageUnlocked(userId, stage),
                 prerequisites
         );
     }
 
-    private GymDetailResponse.GymSummaryResponse toGymSummary(Gym gym) {
+    private GymDetailResponse.GymSummaryResponse toGymSummary(GymNode gym) {
         return new GymDetailResponse.GymSummaryResponse(
-                gym.getId(),
-                gym.getTitle(),
-                gym.getGymType()
+                gym.id(),
+                gym.title(),
+                gym.gymType()
         );
     }
 
@@ -165,21 +171,21 @@ public class GymController {
         );
     }
 
-    private StageDetailResponse.ProblemSummaryResponse toProblemSummary(Problem problem, UUID userId, boolean isPurchased) {
+    private StageDetailResponse.ProblemSummaryResponse toProblemSummary(ProblemNode problem, UUID userId, boolean isPurchased) {
         List<StageDetailResponse.PrerequisiteInfoResponse> prerequisites = isPurchased
-                ? prerequisiteService.getProblemPrerequisiteInfos(problem.getId(), userId).stream()
+                ? prerequisiteService.getProblemPrerequisiteInfos(problem.id(), userId).stream()
                         .map(this::toStagePrerequisiteInfo)
                         .collect(Collectors.toList())
                 : List.of();
         
         return new StageDetailResponse.ProblemSummaryResponse(
-                problem.getId(),
-                problem.getTitle(),
-                problem.getDifficulty(),
-                problem.getSubmissionTypeList(),
-                isPurchased && problemService.isProblemCompleted(userId, problem.getId()),
+                problem.id(),
+                problem.title(),
+                problem.difficulty(),
+                problem.submissionTypes(),
+                isPurchased && problemService.isProblemCompleted(userId, problem.id()),
                 isPurchased && problemService.isProblemUnlocked(userId, problem),
-                isPurchased ? problemService.getLatestSubmissionStatus(userId, problem.getId()).orElse(null) : null,
+                isPurchased ? problemService.getLatestSubmissionStatus(userId, problem.id()).orElse(null) : null,
                 prerequisites
         );
     }
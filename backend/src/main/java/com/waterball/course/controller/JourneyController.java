@@ -30,7 +30,7 @@ public class JourneyController {
     public ResponseEntity<JourneyDetailResponse> getJourneyDetail(
             @PathVariable UUID journeyId,
             @AuthenticationPrincipal UserPrincipal principal) {
-        UUID userId = principal != null ? principal.getUser().getId() : null;
+        UUID userId = principal != null ? principal.getId() : null;
         return ResponseEntity.ok(journeyService.getJourneyDetail(journeyId, userId));
     }
 
@@ -39,6 +39,6 @@ public class JourneyController {
             @PathVariable UUID journeyId,
             @AuthenticationPrincipal UserPrincipal principal) {
         return ResponseEntity.ok(
-                lessonProgressService.getJourneyProgress(journeyId, principal.getUser().getId()));
+                lessonProgressService.getJourneyProgress(journeyId, principal.getId()));
     }
 }
@@ -27,7 +27,7 @@ public class LessonController {
             @PathVariable UUID lessonId,
             @AuthenticationPrincipal UserPrincipal principal) {
         return ResponseEntity.ok(
-                lessonService.getLessonDetail(lessonId, principal.getUser().getId()));
+                lessonService.getLessonDetail(lessonId, principal.getId()));
     }
 
     @PutMapping("/{lessonId}/progress")
@@ -38,7 +38,7 @@ public class LessonController {
         return ResponseEntity.ok(
                 lessonProgressService.updateProgress(
                         lessonId, 
-                        principal.getUser().getId(), 
+                        principal.getId(), 
                         request.getLastPositionSeconds()));
     }
 
@@ -47,6 +47,6 @@ public class LessonController {
             @PathVariable UUID lessonId,
             @AuthenticationPrincipal UserPrincipal principal) {
         return ResponseEntity.ok(
-                lessonProgressService.completeLesson(lessonId, principal.getUser().getId()));
+                lessonProgressService.completeLesson(lessonId, principal.getId()));
     }
 }
@@ -0,0 +1,21 @@
+package com.waterball.course.controller;
+
+import com.waterball.course.dto.response.PurchaseFunnelResponse;
+import com.waterball.course.service.purchase.PurchaseFunnelRecorder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+    private final PurchaseFunnelRecorder purchaseFunnelRecorder;
+
+    @GetMapping("/purchase-funnel")
+    public ResponseEntity<PurchaseFunnelResponse> getPurchaseFunnel() {
+        return ResponseEntity.ok(purchaseFunnelRecorder.snapshot());
+    }
+}
@@ -3,6 +3,7 @@ package com.waterball.course.controller;
 import com.waterball.course.entity.CheckoutSession;
 import com.waterball.course.entity.PaymentMethod;
 import com.waterball.course.exception.CheckoutSessionNotFoundException;
+import com.waterball.course.exception.PaymentGatewayTimeoutException;
 import com.waterball.course.exception.SessionExpiredException;
 import com.waterball.course.repository.CheckoutSessionRepository;
 import com.waterball.course.service.payment.*;
@@ -78,6 +79,9 @@ public class MockPaymentController {
             }
         } catch (SessionExpiredException e) {
             return "redirect:" + session.getCancelUrl() + "?error=session_expired";
+        } catch (PaymentGatewayTimeoutException e) {
+            return "redirect:" + session.getCancelUrl() +
+                    (session.getCancelUrl().contains("?") ? "&" : "?") + "error=gateway_timeout";
         }
     }
 
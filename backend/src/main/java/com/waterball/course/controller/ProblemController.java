@@ -5,6 +5,9 @@ import com.waterball.course.dto.gym.*;
 import com.waterball.course.entity.*;
 import com.waterball.course.exception.AccessDeniedException;
 import com.waterball.course.exception.ProblemLockedException;
+import com.waterball.course.service.catalog.CatalogSnapshot.GymNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.ProblemNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.StageNode;
 import com.waterball.course.service.gym.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -23,6 +26,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProblemController {
     private final ProblemService problemService;
+    private final StageService stageService;
+    private final GymService gymService;
     private final PrerequisiteService prerequisiteService;
     private final SubmissionService submissionService;
     private final GymAccessControlService gymAccessControlService;
@@ -35,11 +40,11 @@ public class ProblemController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        UUID userId = principal.getUser().getId();
-        Problem problem = problemService.getProblem(problemId);
-        Stage stage = problem.getStage();
-        Gym gym = stage.getGym();
-        UUID journeyId = gym.getJourney().getId();
+        UUID userId = principal.getId();
+        ProblemNode problem = problemService.getProblem(problemId);
+        StageNode stage = problemService.getStage(problem);
+        GymNode gym = stageService.getGym(stage);
+        UUID journeyId = gymService.getJourney(gym).id();
         
         if (!gymAccessControlService.hasPurchasedJourney(userId, journeyId)) {
             throw new AccessDeniedException("Course not purchased");
@@ -61,31 +66,31 @@ public class ProblemController {
                         .orElse(null);
         
         ProblemDetailResponse.ProblemNavResponse previousProblem = 
-                problemService.getPreviousProblem(stage.getId(), problem.getSortOrder())
-                        .map(p -> new ProblemDetailResponse.ProblemNavResponse(p.getId(), p.getTitle()))
+                problemService.getPreviousProblem(problem)
+                        .map(p -> new ProblemDetailResponse.ProblemNavResponse(p.id(), p.title()))
                         .orElse(null);
         
         ProblemDetailResponse.ProblemNavResponse nextProblem = 
-                problemService.getNextProblem(stage.getId(), problem.getSortOrder())
-                        .map(p -> new ProblemDetailResponse.ProblemNavResponse(p.getId(), p.getTitle()))
+                problemService.getNextProblem(problem)
+                        .map(p -> new ProblemDetailResponse.ProblemNavResponse(p.id(), p.title()))
                         .orElse(null);
         
-        List<ProblemDetailResponse.HintResponse> hints = problem.getHints().stream()
+        List<ProblemDetailResponse.HintResponse> hints = problem.hints().stream()
                 .map(h -> new ProblemDetailResponse.HintResponse(h.order(), h.content()))
                 .collect(Collectors.toList());
         
         ProblemDetailResponse response = new ProblemDetailResponse(
-                problem.getId(),
-                stage.getId(),
-                stage.getTitle(),
-                gym.getId(),
-                gym.getTitle(),
-                problem.getTitle(),
-                problem.getDescription(),
-                problem.getDifficulty(),
-                problem.getSubmissionTypeList(),
+                problem.id(),
+                stage.id(),
+                stage.title(),
+                gym.id(),
+                gym.title(),
+                problem.title(),
+                problem.description(),
+                problem.difficulty(),
+                problem.submissionTypes(),
                 hints,
-                problem.getExpReward(),
+                problem.expReward(),
                 isUnlocked,
                 prerequisites,
                 latestSubmission,
@@ -106,7 +111,7 @@ public class ProblemController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        UUID userId = principal.getUser().getId();
+        UUID userId = principal.getId();
         Submission submission = submissionService.createSubmission(userId, problemId, file, isPublic);
         
         SubmissionResponse response = new SubmissionResponse(
@@ -132,7 +137,7 @@ public class ProblemController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        UUID userId = principal.getUser().getId();
+        UUID userId = principal.getId();
         List<Submission> submissions = submissionService.getSubmissionHistory(userId, problemId);
         
         List<SubmissionHistoryItemResponse> response = submissions.stream()
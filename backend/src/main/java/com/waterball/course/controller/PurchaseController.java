@@ -2,21 +2,25 @@ package com.waterball.course.controller;
 
 import com.waterball.course.config.UserPrincipal;
 import com.waterball.course.dto.request.CreatePurchaseRequest;
+import com.waterball.course.dto.response.PurchaseHistoryResponse;
 import com.waterball.course.dto.response.PurchaseOrderDetailResponse;
 import com.waterball.course.dto.response.PurchaseOrderResponse;
+import com.waterball.course.dto.response.WaitingRoomResponse;
 import com.waterball.course.entity.PurchaseStatus;
+import com.waterball.course.service.purchase.PurchaseAdmissionService;
 import com.waterball.course.service.purchase.PurchaseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -24,13 +28,28 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PurchaseController {
     private final PurchaseService purchaseService;
+    private final PurchaseAdmissionService purchaseAdmissionService;
 
     @PostMapping
-    public ResponseEntity<PurchaseOrderResponse> createPurchase(
+    public ResponseEntity<?> createPurchase(
             @AuthenticationPrincipal UserPrincipal principal,
             @Valid @RequestBody CreatePurchaseRequest request) {
+        Optional<PurchaseOrderResponse> resumable = purchaseService.findResumableOrder(
+                principal.getId(), request.getJourneyId());
+        if (resumable.isPresent()) {
+            return ResponseEntity.ok(resumable.get());
+        }
+
+        PurchaseAdmissionService.Decision admission = purchaseAdmissionService.admit(
+                principal.getId(), request.getJourneyId());
+        if (!admission.admitted()) {
+            return ResponseEntity.status(admission.full() ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()))
+                    .body(WaitingRoomResponse.from(admission));
+        }
+
         PurchaseOrderResponse response = purchaseService.createPurchaseOrder(
-                principal.getUser().getId(), request);
+                principal.getId(), request);
 
         HttpStatus status = response.isResumed() ? HttpStatus.OK : HttpStatus.CREATED;
 
@@ -43,9 +62,19 @@ public class PurchaseController {
             @RequestParam(required = false) PurchaseStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<PurchaseOrderResponse> purchases = purchaseService.getPurchaseHistory(
-                principal.getUser().getId(), status, pageRequest);
+                principal.getId(), status, PageRequest.of(page, size));
+        return ResponseEntity.ok(purchases);
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<PurchaseHistoryResponse> getPurchaseHistoryPage(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) PurchaseStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PurchaseHistoryResponse purchases = purchaseService.getPurchaseHistoryPage(
+                principal.getId(), status, cursor, Math.max(1, Math.min(size, 100)));
         return ResponseEntity.ok(purchases);
     }
 
@@ -53,7 +82,7 @@ public class PurchaseController {
     public ResponseEntity<List<PurchaseOrderResponse>> getPendingPurchases(
             @AuthenticationPrincipal UserPrincipal principal) {
         List<PurchaseOrderResponse> purchases = purchaseService.getPendingPurchases(
-                principal.getUser().getId());
+                principal.getId());
         return ResponseEntity.ok(purchases);
     }
 
@@ -62,7 +91,7 @@ public class PurchaseController {
             @AuthenticationPrincipal UserPrincipal principal,
             @PathVariable UUID journeyId) {
         PurchaseOrderResponse response = purchaseService.getPendingPurchaseByJourney(
-                principal.getUser().getId(), journeyId);
+                principal.getId(), journeyId);
         return ResponseEntity.ok(response);
     }
 
@@ -71,7 +100,7 @@ public class PurchaseController {
             @AuthenticationPrincipal UserPrincipal principal,
             @PathVariable UUID purchaseId) {
         PurchaseOrderDetailResponse response = purchaseService.getPurchaseOrder(
-                principal.getUser().getId(), purchaseId);
+                principal.getId(), purchaseId);
         return ResponseEntity.ok(response);
     }
 
@@ -79,7 +108,7 @@ public class PurchaseController {
     public ResponseEntity<Void> cancelPurchase(
             @AuthenticationPrincipal UserPrincipal principal,
             @PathVariable UUID purchaseId) {
-        purchaseService.cancelPurchase(principal.getUser().getId(), purchaseId);
+        purchaseService.cancelPurchase(principal.getId(), purchaseId);
         return ResponseEntity.noContent().build();
     }
 }
@@ -34,7 +34,7 @@ public class SubmissionController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        UUID userId = principal.getUser().getId();
+        UUID userId = principal.getId();
         Submission submission = submissionService.getSubmission(submissionId);
         
         if (!submissionService.canAccessSubmission(userId, submission)) {
@@ -80,7 +80,7 @@ public class SubmissionController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        UUID userId = principal.getUser().getId();
+        UUID userId = principal.getId();
         Submission submission = submissionService.updateVisibility(userId, submissionId, request.isPublic());
         
         VisibilityUpdateResponse response = new VisibilityUpdateResponse(
@@ -134,7 +134,7 @@ public class SubmissionController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        UUID userId = principal.getUser().getId();
+        UUID userId = principal.getId();
         GymProgressResponse response = submissionService.getUserProgress(userId);
         
         return ResponseEntity.ok(response);
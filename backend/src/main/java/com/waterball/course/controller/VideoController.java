@@ -21,6 +21,6 @@ public class VideoController {
             @PathVariable UUID videoId,
             @AuthenticationPrincipal UserPrincipal principal) {
         return ResponseEntity.ok(
-                videoService.getVideoStream(videoId, principal.getUser().getId()));
+                videoService.getVideoStream(videoId, principal.getId()));
     }
 }
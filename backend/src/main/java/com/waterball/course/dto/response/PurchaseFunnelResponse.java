@@ -0,0 +1,41 @@
+package com.waterball.course.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseFunnelResponse {
+    private Map<String, Long> stages;
+    private Map<String, Latency> latencies;
+    private List<JourneyFunnel> journeys;
+
+    @Getter @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Latency {
+        private long count;
+        private long meanMs;
+        private long p50Ms;
+        private long p90Ms;
+        private long p99Ms;
+        private long maxMs;
+    }
+
+    @Getter @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class JourneyFunnel {
+        private UUID journeyId;
+        private Map<String, Long> stages;
+        private double conversionRate;
+        private Latency createdToPaid;
+    }
+}
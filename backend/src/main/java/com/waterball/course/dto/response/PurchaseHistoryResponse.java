@@ -0,0 +1,16 @@
+package com.waterball.course.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseHistoryResponse {
+    private List<PurchaseOrderResponse> content;
+    private String nextCursor;
+}
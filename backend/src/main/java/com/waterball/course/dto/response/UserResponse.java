@@ -2,6 +2,7 @@ package com.waterball.course.dto.response;
 
 import com.waterball.course.entity.User;
 import com.waterball.course.entity.UserRole;
+import com.waterball.course.service.UserProfileCache.UserProfile;
 import lombok.*;
 
 import java.util.UUID;
@@ -26,4 +27,14 @@ public class UserResponse {
                 .role(user.getRole())
                 .build();
     }
+
+    public static UserResponse from(UserProfile profile) {
+        return UserResponse.builder()
+                .id(profile.id())
+                .email(profile.email())
+                .name(profile.name())
+                .pictureUrl(profile.pictureUrl())
+                .role(profile.role())
+                .build();
+    }
 }
@@ -0,0 +1,25 @@
+package com.waterball.course.dto.response;
+
+import com.waterball.course.service.purchase.PurchaseAdmissionService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingRoomResponse {
+    private String status;
+    private long position;
+    private long etaSeconds;
+    private long retryAfterSeconds;
+
+    public static WaitingRoomResponse from(PurchaseAdmissionService.Decision decision) {
+        return new WaitingRoomResponse(
+                decision.full() ? "FULL" : "WAITING",
+                decision.position(),
+                decision.etaSeconds(),
+                decision.retryAfterSeconds());
+    }
+}
@@ -1,5 +1,6 @@
 package com.waterball.course.entity;
 
+import com.waterball.course.service.catalog.ContentChangeListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ContentChangeListener.class)
 @Table(name = "journeys")
 @Getter @Setter
 @NoArgsConstructor
@@ -1,5 +1,6 @@
 package com.waterball.course.entity;
 
+import com.waterball.course.service.catalog.ContentChangeListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ContentChangeListener.class)
 @Table(name = "lessons")
 @Getter @Setter
 @NoArgsConstructor
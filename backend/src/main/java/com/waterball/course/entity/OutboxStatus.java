@@ -0,0 +1,7 @@
+package com.waterball.course.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    DELIVERED,
+    DEAD
+}
@@ -1,5 +1,6 @@
 package com.waterball.course.entity;
 
+import com.waterball.course.service.catalog.ContentChangeListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ContentChangeListener.class)
 @Table(name = "problems")
 @Getter @Setter
 @NoArgsConstructor
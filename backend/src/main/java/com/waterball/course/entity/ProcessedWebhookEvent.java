@@ -0,0 +1,24 @@
+package com.waterball.course.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "processed_webhook_events")
+@Getter @Setter
+@NoArgsConstructor
+public class ProcessedWebhookEvent {
+    @Id
+    @Column(name = "event_key")
+    private String eventKey;
+
+    @Column(name = "session_id", nullable = false)
+    private String sessionId;
+
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+}
@@ -1,9 +1,28 @@
 package com.waterball.course.entity;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum PurchaseStatus {
     PENDING,
     COMPLETED,
     FAILED,
     CANCELLED,
-    EXPIRED
+    EXPIRED;
+
+    /**
+     * Statuses an order may move into this one from. Everything starts at PENDING; a declined
+     * payment (FAILED) can still be retried on the checkout page and complete.
+     */
+    public Set<PurchaseStatus> allowedSources() {
+        return switch (this) {
+            case PENDING -> EnumSet.noneOf(PurchaseStatus.class);
+            case COMPLETED -> EnumSet.of(PENDING, FAILED);
+            case FAILED, CANCELLED, EXPIRED -> EnumSet.of(PENDING);
+        };
+    }
+
+    public boolean canTransitionTo(PurchaseStatus target) {
+        return target.allowedSources().contains(this);
+    }
 }
@@ -21,6 +21,7 @@ public class RefreshToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /** Unique per expires_at in the partitioned table; globally unique through the token's random jti. */
     @Column(name = "token_hash", nullable = false, unique = true)
     private String tokenHash;
 
@@ -0,0 +1,33 @@
+package com.waterball.course.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "revoked_access_tokens")
+@Getter @Setter
+@NoArgsConstructor
+public class RevokedAccessToken {
+    @Id
+    @Column(name = "token_id")
+    private UUID tokenId;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        revokedAt = Instant.now();
+    }
+}
@@ -0,0 +1,45 @@
+package com.waterball.course.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/** A successful payment whose order was already closed; awaits a refund or manual resolution. */
+@Entity
+@Table(name = "unmatched_payments")
+@Getter @Setter
+@NoArgsConstructor
+public class UnmatchedPayment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "purchase_order_id", nullable = false)
+    private UUID purchaseOrderId;
+
+    @Column(name = "session_id", nullable = false, unique = true)
+    private String sessionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status", nullable = false)
+    private PurchaseStatus orderStatus;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Column(name = "resolved_at")
+    private Instant resolvedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        receivedAt = Instant.now();
+    }
+}
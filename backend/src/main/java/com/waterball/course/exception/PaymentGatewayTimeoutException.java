@@ -0,0 +1,11 @@
+package com.waterball.course.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class PaymentGatewayTimeoutException extends RuntimeException {
+    public PaymentGatewayTimeoutException(String message) {
+        super(message);
+    }
+}
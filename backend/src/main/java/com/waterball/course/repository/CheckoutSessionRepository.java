@@ -3,6 +3,9 @@ package com.waterball.course.repository;
 import com.waterball.course.entity.CheckoutSession;
 import com.waterball.course.entity.CheckoutSessionStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -16,4 +19,23 @@ public interface CheckoutSessionRepository extends JpaRepository<CheckoutSession
     Optional<CheckoutSession> findByPurchaseOrderId(UUID purchaseOrderId);
 
     List<CheckoutSession> findByStatusAndExpiresAtBefore(CheckoutSessionStatus status, Instant time);
+
+    /** Locks up to {@code limit} overdue PENDING sessions, skipping rows another node holds. */
+    @Query(value = "SELECT id FROM checkout_sessions " +
+            "WHERE status = 'PENDING' AND expires_at < :now " +
+            "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<String> lockExpiredPendingIds(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Query("SELECT s.purchaseOrderId FROM CheckoutSession s WHERE s.id IN :ids")
+    List<UUID> findPurchaseOrderIdsByIdIn(@Param("ids") List<String> ids);
+
+    @Modifying
+    @Query("UPDATE CheckoutSession s SET s.status = com.waterball.course.entity.CheckoutSessionStatus.EXPIRED WHERE s.id IN :ids AND s.status = 'PENDING'")
+    int markExpired(@Param("ids") List<String> ids);
+
+    @Modifying
+    @Query("UPDATE CheckoutSession s SET s.status = com.waterball.course.entity.CheckoutSessionStatus.EXPIRED " +
+            "WHERE s.purchaseOrderId IN :orderIds AND s.status = 'PENDING'")
+    int markExpiredByPurchaseOrderIdIn(@Param("orderIds") List<UUID> orderIds);
 }
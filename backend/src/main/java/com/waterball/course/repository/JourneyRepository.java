@@ -2,6 +2,7 @@ package com.waterball.course.repository;
 
 import com.waterball.course.entity.Journey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,6 +11,30 @@ import java.util.UUID;
 
 @Repository
 public interface JourneyRepository extends JpaRepository<Journey, UUID> {
+    String ROW_VERSIONS = "(SELECT CONCAT_WS('/', COUNT(*), SUM(hashtext(CAST(xmin AS text)))) FROM ";
+
     List<Journey> findByIsPublishedTrue();
     Optional<Journey> findByIdAndIsPublishedTrue(UUID id);
+    boolean existsByIdAndIsPublishedTrue(UUID id);
+
+    /**
+     * Changes whenever a row the catalog snapshot is built from is inserted, updated or deleted.
+     * Row versions ({@code xmin}) are hashed instead of relying on {@code updated_at}, which plain
+     * SQL edits do not have to bump. Instructors are hashed by the fields the snapshot renders,
+     * so logins and unrelated profile writes do not invalidate the catalog.
+     */
+    @Query(value = "SELECT CONCAT_WS(':', " +
+                   ROW_VERSIONS + "journeys), " +
+                   ROW_VERSIONS + "chapters), " +
+                   ROW_VERSIONS + "lessons), " +
+                   ROW_VERSIONS + "gyms), " +
+                   ROW_VERSIONS + "stages), " +
+                   ROW_VERSIONS + "problems), " +
+                   ROW_VERSIONS + "stage_prerequisites), " +
+                   ROW_VERSIONS + "problem_prerequisites), " +
+                   ROW_VERSIONS + "videos WHERE id IN (SELECT video_id FROM lessons)), " +
+                   "(SELECT CONCAT_WS('/', COUNT(*), SUM(hashtext(CONCAT_WS('|', u.id, u.name, u.picture_url)))) " +
+                   "FROM users u WHERE u.id IN (SELECT instructor_id FROM lessons)))",
+           nativeQuery = true)
+    String findContentFingerprint();
 }
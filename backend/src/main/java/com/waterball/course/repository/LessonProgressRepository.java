@@ -1,6 +1,7 @@
 package com.waterball.course.repository;
 
 import com.waterball.course.entity.LessonProgress;
+import com.waterball.course.repository.projection.ChapterProgressProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -20,4 +22,14 @@ public interface LessonProgressRepository extends JpaRepository<LessonProgress,
     
     @Query("SELECT COUNT(lp) FROM LessonProgress lp JOIN lp.lesson l JOIN l.chapter c WHERE lp.user.id = :userId AND c.journey.id = :journeyId AND lp.isCompleted = true")
     int countCompletedByUserIdAndJourneyId(@Param("userId") UUID userId, @Param("journeyId") UUID journeyId);
+
+    @Query("SELECT l.id FROM LessonProgress lp JOIN lp.lesson l JOIN l.chapter c WHERE lp.user.id = :userId AND c.journey.id = :journeyId AND lp.isCompleted = true")
+    Set<UUID> findCompletedLessonIdsByUserIdAndJourneyId(@Param("userId") UUID userId, @Param("journeyId") UUID journeyId);
+
+    @Query("SELECT c.id AS chapterId, c.title AS title, COUNT(l.id) AS totalLessons, COUNT(lp.id) AS completedLessons " +
+           "FROM Chapter c LEFT JOIN c.lessons l " +
+           "LEFT JOIN LessonProgress lp ON lp.lesson = l AND lp.user.id = :userId AND lp.isCompleted = true " +
+           "WHERE c.journey.id = :journeyId " +
+           "GROUP BY c.id, c.title, c.sortOrder ORDER BY c.sortOrder")
+    List<ChapterProgressProjection> findChapterProgressByUserIdAndJourneyId(@Param("userId") UUID userId, @Param("journeyId") UUID journeyId);
 }
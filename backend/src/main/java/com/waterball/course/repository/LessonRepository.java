@@ -15,6 +15,9 @@ public interface LessonRepository extends JpaRepository<Lesson, UUID> {
     
     @Query("SELECT l FROM Lesson l JOIN l.chapter c WHERE c.journey.id = :journeyId ORDER BY c.sortOrder, l.sortOrder")
     List<Lesson> findByJourneyIdOrdered(@Param("journeyId") UUID journeyId);
+
+    @Query("SELECT l FROM Lesson l LEFT JOIN FETCH l.instructor ORDER BY l.sortOrder, l.id")
+    List<Lesson> findAllWithInstructor();
     
     @Query("SELECT COUNT(l) FROM Lesson l JOIN l.chapter c WHERE c.journey.id = :journeyId")
     int countByJourneyId(@Param("journeyId") UUID journeyId);
@@ -0,0 +1,48 @@
+package com.waterball.course.repository;
+
+import com.waterball.course.entity.PaymentOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutboxEvent, UUID> {
+
+    /** Locks up to {@code limit} due PENDING events, skipping rows another worker holds. */
+    @Query(value = "SELECT * FROM payment_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<PaymentOutboxEvent> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutboxEvent e SET e.status = com.waterball.course.entity.OutboxStatus.DELIVERED, " +
+            "e.deliveredAt = :now, e.lastError = null WHERE e.id = :id")
+    int markDelivered(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutboxEvent e SET e.nextAttemptAt = :nextAttemptAt, e.lastError = :error WHERE e.id = :id")
+    int scheduleRetry(@Param("id") UUID id, @Param("nextAttemptAt") Instant nextAttemptAt,
+                      @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutboxEvent e SET e.status = com.waterball.course.entity.OutboxStatus.DEAD, " +
+            "e.lastError = :error WHERE e.id = :id")
+    int markDead(@Param("id") UUID id, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PaymentOutboxEvent e " +
+            "WHERE e.status = com.waterball.course.entity.OutboxStatus.DELIVERED AND e.deliveredAt < :before")
+    int deleteDeliveredBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,29 @@
+package com.waterball.course.repository;
+
+import com.waterball.course.entity.ProcessedWebhookEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface ProcessedWebhookEventRepository extends JpaRepository<ProcessedWebhookEvent, String> {
+
+    /** Returns 1 if the event was recorded now, 0 if it had already been processed. */
+    @Modifying
+    @Query(value = "INSERT INTO processed_webhook_events (event_key, session_id, processed_at) " +
+            "VALUES (:eventKey, :sessionId, :processedAt) ON CONFLICT (event_key) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("eventKey") String eventKey,
+                       @Param("sessionId") String sessionId,
+                       @Param("processedAt") Instant processedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProcessedWebhookEvent e WHERE e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") Instant cutoff);
+}
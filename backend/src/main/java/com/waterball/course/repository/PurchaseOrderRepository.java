@@ -2,32 +2,120 @@ package com.waterball.course.repository;
 
 import com.waterball.course.entity.PurchaseOrder;
 import com.waterball.course.entity.PurchaseStatus;
+import com.waterball.course.repository.projection.PurchaseOrderSummaryProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, UUID> {
+    String SUMMARY_SELECT = "SELECT po.id AS id, j.id AS journeyId, j.title AS journeyTitle, " +
+            "j.thumbnailUrl AS journeyThumbnailUrl, po.amount AS amount, po.paymentMethod AS paymentMethod, " +
+            "po.status AS status, po.checkoutSessionId AS checkoutSessionId, po.failureReason AS failureReason, " +
+            "po.expiresAt AS expiresAt, po.createdAt AS createdAt, po.completedAt AS completedAt " +
+            "FROM PurchaseOrder po JOIN po.journey j ";
+
     Optional<PurchaseOrder> findByUserIdAndJourneyIdAndStatus(UUID userId, UUID journeyId, PurchaseStatus status);
 
     Optional<PurchaseOrder> findByCheckoutSessionId(String checkoutSessionId);
 
     List<PurchaseOrder> findByUserIdAndStatus(UUID userId, PurchaseStatus status);
 
-    Page<PurchaseOrder> findByUserIdAndStatus(UUID userId, PurchaseStatus status, Pageable pageable);
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.user.id = :userId AND po.journey.id = :journeyId AND po.status = 'PENDING'")
+    Optional<PurchaseOrder> findPendingByUserIdAndJourneyId(@Param("userId") UUID userId, @Param("journeyId") UUID journeyId);
 
-    Page<PurchaseOrder> findByUserId(UUID userId, Pageable pageable);
+    // Separate queries per filter: an optional ":status IS NULL OR ..." predicate is planned once
+    // for both cases and keeps PostgreSQL from using the (user_id, status, created_at, id) index.
+    @Query(value = SUMMARY_SELECT + "WHERE po.user.id = :userId ORDER BY po.createdAt DESC, po.id DESC",
+            countQuery = "SELECT COUNT(po) FROM PurchaseOrder po WHERE po.user.id = :userId")
+    Page<PurchaseOrderSummaryProjection> findSummaries(@Param("userId") UUID userId, Pageable pageable);
 
-    @Query("SELECT po FROM PurchaseOrder po WHERE po.user.id = :userId AND po.status = 'PENDING'")
-    List<PurchaseOrder> findPendingByUserId(@Param("userId") UUID userId);
+    @Query(value = SUMMARY_SELECT +
+            "WHERE po.user.id = :userId AND po.status = :status ORDER BY po.createdAt DESC, po.id DESC",
+            countQuery = "SELECT COUNT(po) FROM PurchaseOrder po WHERE po.user.id = :userId AND po.status = :status")
+    Page<PurchaseOrderSummaryProjection> findSummariesByStatus(@Param("userId") UUID userId,
+                                                               @Param("status") PurchaseStatus status,
+                                                               Pageable pageable);
 
-    @Query("SELECT po FROM PurchaseOrder po WHERE po.user.id = :userId AND po.journey.id = :journeyId AND po.status = 'PENDING'")
-    Optional<PurchaseOrder> findPendingByUserIdAndJourneyId(@Param("userId") UUID userId, @Param("journeyId") UUID journeyId);
+    /** Ids of the first keyset page in history order; hydrate with {@link #findSummariesByIds}. */
+    @Query(value = "SELECT id FROM purchase_orders WHERE user_id = :userId " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findHistoryIds(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    /** Ids strictly after {@code (createdAt, id)} in history order, as a row-value range scan. */
+    @Query(value = "SELECT id FROM purchase_orders WHERE user_id = :userId " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findHistoryIdsAfter(@Param("userId") UUID userId,
+                                   @Param("createdAt") Instant createdAt,
+                                   @Param("id") UUID id,
+                                   @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM purchase_orders WHERE user_id = :userId AND status = :status " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findHistoryIdsByStatus(@Param("userId") UUID userId,
+                                      @Param("status") String status,
+                                      @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM purchase_orders WHERE user_id = :userId AND status = :status " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findHistoryIdsByStatusAfter(@Param("userId") UUID userId,
+                                           @Param("status") String status,
+                                           @Param("createdAt") Instant createdAt,
+                                           @Param("id") UUID id,
+                                           @Param("limit") int limit);
+
+    @Query(SUMMARY_SELECT + "WHERE po.id IN :ids ORDER BY po.createdAt DESC, po.id DESC")
+    List<PurchaseOrderSummaryProjection> findSummariesByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE po.user.id = :userId AND po.status = 'PENDING' ORDER BY po.createdAt DESC, po.id DESC")
+    List<PurchaseOrderSummaryProjection> findPendingSummaries(@Param("userId") UUID userId);
+
+    /**
+     * Moves the order to {@code target} only if it is still in one of {@code sources}, bumping
+     * the version so concurrent entity writes fail instead of overwriting. Returns 0 when another
+     * transition got there first.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE PurchaseOrder po SET po.status = :target, po.version = po.version + 1, po.updatedAt = :now, " +
+            "po.completedAt = COALESCE(:completedAt, po.completedAt), " +
+            "po.failureReason = COALESCE(:failureReason, po.failureReason) " +
+            "WHERE po.id = :id AND po.status IN :sources")
+    int transition(@Param("id") UUID id,
+                   @Param("sources") Collection<PurchaseStatus> sources,
+                   @Param("target") PurchaseStatus target,
+                   @Param("now") Instant now,
+                   @Param("completedAt") Instant completedAt,
+                   @Param("failureReason") String failureReason);
+
+    @Query("SELECT po.status FROM PurchaseOrder po WHERE po.id = :id")
+    Optional<PurchaseStatus> findStatusById(@Param("id") UUID id);
+
+    /** Locks up to {@code limit} overdue PENDING orders, skipping rows another node holds. */
+    @Query(value = "SELECT id FROM purchase_orders " +
+            "WHERE status = 'PENDING' AND expires_at < :now " +
+            "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<UUID> lockExpiredPendingIds(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE PurchaseOrder po SET po.status = com.waterball.course.entity.PurchaseStatus.EXPIRED, " +
+            "po.version = po.version + 1, po.updatedAt = :now " +
+            "WHERE po.id IN :ids AND po.status = 'PENDING'")
+    int markExpired(@Param("ids") List<UUID> ids, @Param("now") Instant now);
 }
@@ -2,7 +2,11 @@ package com.waterball.course.repository;
 
 import com.waterball.course.entity.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -13,5 +17,20 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
     Optional<RefreshToken> findByTokenHash(String tokenHash);
     void deleteByUserId(UUID userId);
     void deleteByTokenHash(String tokenHash);
-    void deleteAllByExpiresAtBefore(LocalDateTime dateTime);
+
+    /**
+     * Deletes at most {@code batchSize} tokens that expired before {@code cutoff}, in its own
+     * short transaction so purging never holds long locks.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE (id, expires_at) IN (" +
+            "SELECT id, expires_at FROM refresh_tokens WHERE expires_at < :cutoff LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    /** Creates upcoming monthly partitions and drops fully expired ones; see the V20251201000001 migration. */
+    @Transactional
+    @Query(value = "SELECT maintain_refresh_token_partitions(:monthsAhead)", nativeQuery = true)
+    int maintainPartitions(@Param("monthsAhead") int monthsAhead);
 }
@@ -0,0 +1,11 @@
+package com.waterball.course.repository;
+
+import com.waterball.course.entity.UnmatchedPayment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface UnmatchedPaymentRepository extends JpaRepository<UnmatchedPayment, UUID> {
+}
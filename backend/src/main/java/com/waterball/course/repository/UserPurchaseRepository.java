@@ -2,10 +2,16 @@ package com.waterball.course.repository;
 
 import com.waterball.course.entity.UserPurchase;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -13,4 +19,18 @@ public interface UserPurchaseRepository extends JpaRepository<UserPurchase, UUID
     boolean existsByUserIdAndJourneyId(UUID userId, UUID journeyId);
     Optional<UserPurchase> findByUserIdAndJourneyId(UUID userId, UUID journeyId);
     List<UserPurchase> findByUserId(UUID userId);
+
+    @Query("SELECT up.journey.id FROM UserPurchase up WHERE up.user.id = :userId")
+    Set<UUID> findJourneyIdsByUserId(@Param("userId") UUID userId);
+
+    /** Grants the journey unless the user already owns it; returns the number of rows inserted. */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_purchases (id, user_id, journey_id, purchased_at) " +
+            "VALUES (gen_random_uuid(), :userId, :journeyId, :purchasedAt) " +
+            "ON CONFLICT (user_id, journey_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId,
+                       @Param("journeyId") UUID journeyId,
+                       @Param("purchasedAt") LocalDateTime purchasedAt);
 }
@@ -2,6 +2,8 @@ package com.waterball.course.repository;
 
 import com.waterball.course.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +13,16 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query(value = "SELECT CONCAT_WS(':', " +
+                   "(SELECT COUNT(*) FROM user_purchases WHERE user_id = :userId), " +
+                   "(SELECT MAX(purchased_at) FROM user_purchases WHERE user_id = :userId), " +
+                   "(SELECT COUNT(*) FROM lesson_progress WHERE user_id = :userId AND is_completed), " +
+                   "(SELECT MAX(completed_at) FROM lesson_progress WHERE user_id = :userId AND is_completed), " +
+                   "(SELECT COUNT(*) FROM submissions WHERE user_id = :userId), " +
+                   "(SELECT MAX(updated_at) FROM submissions WHERE user_id = :userId), " +
+                   "(SELECT COUNT(*) FROM reviews r JOIN submissions s ON s.id = r.submission_id WHERE s.user_id = :userId), " +
+                   "(SELECT MAX(r.reviewed_at) FROM reviews r JOIN submissions s ON s.id = r.submission_id WHERE s.user_id = :userId))",
+           nativeQuery = true)
+    String findUserStateFingerprint(@Param("userId") UUID userId);
 }
@@ -0,0 +1,10 @@
+package com.waterball.course.repository.projection;
+
+import java.util.UUID;
+
+public interface ChapterProgressProjection {
+    UUID getChapterId();
+    String getTitle();
+    long getTotalLessons();
+    long getCompletedLessons();
+}
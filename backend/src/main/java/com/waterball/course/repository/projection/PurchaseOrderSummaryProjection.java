@@ -0,0 +1,23 @@
+package com.waterball.course.repository.projection;
+
+import com.waterball.course.entity.PaymentMethod;
+import com.waterball.course.entity.PurchaseStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public interface PurchaseOrderSummaryProjection {
+    UUID getId();
+    UUID getJourneyId();
+    String getJourneyTitle();
+    String getJourneyThumbnailUrl();
+    BigDecimal getAmount();
+    PaymentMethod getPaymentMethod();
+    PurchaseStatus getStatus();
+    String getCheckoutSessionId();
+    String getFailureReason();
+    Instant getExpiresAt();
+    Instant getCreatedAt();
+    Instant getCompletedAt();
+}
@@ -0,0 +1,109 @@
+package com.waterball.course.service;
+
+import com.waterball.course.repository.UserPurchaseRepository;
+import com.waterball.course.service.invalidation.InvalidationBus;
+import com.waterball.course.service.invalidation.InvalidationEvent;
+import com.waterball.course.service.invalidation.InvalidationHandler;
+import com.waterball.course.service.invalidation.InvalidationType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user set of purchased journey ids. Each user's set is loaded with one query on first
+ * use and kept as an immutable set, so repeated entitlement checks within and across requests
+ * are memory lookups. Entries are evicted cluster-wide when a purchase is granted and expire
+ * after {@code app.entitlements.cache.ttl-ms} as a backstop; a TTL of 0 disables caching.
+ */
+@Service
+@RequiredArgsConstructor
+public class EntitlementCache implements InvalidationHandler {
+    private final UserPurchaseRepository userPurchaseRepository;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${app.entitlements.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${app.entitlements.cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Bumped on every eviction so a load that raced with one is not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void registerInvalidationHandler() {
+        invalidationBus.register(InvalidationType.ENTITLEMENT, this);
+    }
+
+    public boolean hasPurchased(UUID userId, UUID journeyId) {
+        if (userId == null) {
+            return false;
+        }
+        return purchasedJourneys(userId).contains(journeyId);
+    }
+
+    public Set<UUID> purchasedJourneys(UUID userId) {
+        if (ttlMs <= 0) {
+            return Set.copyOf(userPurchaseRepository.findJourneyIdsByUserId(userId));
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt() > now) {
+                return entry.journeyIds();
+            }
+        }
+
+        long loadedAt = generation.get();
+        Set<UUID> journeyIds = Set.copyOf(userPurchaseRepository.findJourneyIdsByUserId(userId));
+        synchronized (entries) {
+            if (generation.get() == loadedAt) {
+                entries.put(userId, new Entry(journeyIds, now + ttlMs));
+                if (entries.size() > maxEntries) {
+                    entries.remove(entries.keySet().iterator().next());
+                }
+            }
+        }
+        return journeyIds;
+    }
+
+    /**
+     * Drops the user's entitlements on this node and, after the surrounding transaction
+     * commits, on every peer.
+     */
+    public void evict(UUID userId) {
+        invalidationBus.publish(InvalidationType.ENTITLEMENT, userId.toString(), 0L);
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.entityId() == null) {
+            onResync();
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(UUID.fromString(event.entityId()));
+        }
+    }
+
+    @Override
+    public void onResync() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private record Entry(Set<UUID> journeyIds, long expiresAt) {}
+}
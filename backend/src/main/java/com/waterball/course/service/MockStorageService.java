@@ -1,5 +1,6 @@
 package com.waterball.course.service;
 
+import com.waterball.course.config.TimedService;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -8,6 +9,7 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 
 @Service
+@TimedService
 @ConditionalOnProperty(name = "storage.type", havingValue = "mock")
 public class MockStorageService implements StorageService {
     
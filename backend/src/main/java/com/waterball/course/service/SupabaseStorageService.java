@@ -1,5 +1,6 @@
 package com.waterball.course.service;
 
+import com.waterball.course.config.TimedService;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -7,6 +8,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.InputStream;
 
 @Service
+@TimedService
 @ConditionalOnProperty(name = "storage.type", havingValue = "supabase")
 public class SupabaseStorageService implements StorageService {
     
@@ -0,0 +1,103 @@
+package com.waterball.course.service;
+
+import com.waterball.course.entity.User;
+import com.waterball.course.entity.UserRole;
+import com.waterball.course.repository.UserRepository;
+import com.waterball.course.service.invalidation.InvalidationBus;
+import com.waterball.course.service.invalidation.InvalidationEvent;
+import com.waterball.course.service.invalidation.InvalidationHandler;
+import com.waterball.course.service.invalidation.InvalidationType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Short-lived, size-bounded cache of the user fields controllers render (profile header,
+ * /me). Entries expire after {@code app.auth.user-cache.ttl-ms}; a TTL of 0 disables caching.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserProfileCache implements InvalidationHandler {
+    private final UserRepository userRepository;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${app.auth.user-cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${app.auth.user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    @PostConstruct
+    void registerInvalidationHandler() {
+        invalidationBus.register(InvalidationType.USER, this);
+    }
+
+    public Optional<UserProfile> get(UUID userId) {
+        if (ttlMs <= 0) {
+            return userRepository.findById(userId).map(UserProfile::from);
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt() > now) {
+                return Optional.of(entry.profile());
+            }
+        }
+
+        Optional<UserProfile> loaded = userRepository.findById(userId).map(UserProfile::from);
+        loaded.ifPresent(profile -> put(userId, profile, now + ttlMs));
+        return loaded;
+    }
+
+    /**
+     * Drops the cached profile on this node and, after the surrounding transaction commits,
+     * on every peer.
+     */
+    public void evict(UUID userId) {
+        invalidationBus.publish(InvalidationType.USER, userId.toString(), 0L);
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.entityId() == null) {
+            onResync();
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(UUID.fromString(event.entityId()));
+        }
+    }
+
+    @Override
+    public void onResync() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private void put(UUID userId, UserProfile profile, long expiresAt) {
+        synchronized (entries) {
+            entries.put(userId, new Entry(profile, expiresAt));
+            if (entries.size() > maxEntries) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+    }
+
+    private record Entry(UserProfile profile, long expiresAt) {}
+
+    public record UserProfile(UUID id, String email, String name, String pictureUrl, UserRole role) {
+        static UserProfile from(User user) {
+            return new UserProfile(user.getId(), user.getEmail(), user.getName(), user.getPictureUrl(), user.getRole());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.waterball.course.service;
+
+import com.waterball.course.repository.UserRepository;
+import com.waterball.course.service.invalidation.InvalidationBus;
+import com.waterball.course.service.invalidation.InvalidationEvent;
+import com.waterball.course.service.invalidation.InvalidationHandler;
+import com.waterball.course.service.invalidation.InvalidationType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user fingerprint of purchases, lesson completions, submissions and reviews, used to build
+ * ETags. Playback position is left out: no conditional endpoint returns it, so progress
+ * heartbeats neither change the fingerprint nor evict it. Services that change the state it
+ * covers evict the user cluster-wide; entries also expire after
+ * {@code app.user-state.cache.ttl-ms} to pick up rows written outside the application
+ * (reviews). A TTL of 0 disables caching.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserStateCache implements InvalidationHandler {
+    private final UserRepository userRepository;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${app.user-state.cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${app.user-state.cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Bumped on every eviction so a load that raced with one is not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void registerInvalidationHandler() {
+        invalidationBus.register(InvalidationType.USER_STATE, this);
+    }
+
+    public String fingerprint(UUID userId) {
+        if (ttlMs <= 0) {
+            return userRepository.findUserStateFingerprint(userId);
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt() > now) {
+                return entry.fingerprint();
+            }
+        }
+
+        long loadedAt = generation.get();
+        String fingerprint = userRepository.findUserStateFingerprint(userId);
+        synchronized (entries) {
+            if (generation.get() == loadedAt) {
+                entries.put(userId, new Entry(fingerprint, now + ttlMs));
+                if (entries.size() > maxEntries) {
+                    entries.remove(entries.keySet().iterator().next());
+                }
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Drops the user's fingerprint on this node and, after the surrounding transaction
+     * commits, on every peer.
+     */
+    public void evict(UUID userId) {
+        invalidationBus.publish(InvalidationType.USER_STATE, userId.toString(), 0L);
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.entityId() == null) {
+            onResync();
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(UUID.fromString(event.entityId()));
+        }
+    }
+
+    @Override
+    public void onResync() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private record Entry(String fingerprint, long expiresAt) {}
+}
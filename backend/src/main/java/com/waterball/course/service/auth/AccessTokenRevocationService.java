@@ -0,0 +1,140 @@
+package com.waterball.course.service.auth;
+
+import com.waterball.course.entity.RevokedAccessToken;
+import com.waterball.course.repository.RevokedAccessTokenRepository;
+import com.waterball.course.service.invalidation.InvalidationBus;
+import com.waterball.course.service.invalidation.InvalidationEvent;
+import com.waterball.course.service.invalidation.InvalidationHandler;
+import com.waterball.course.service.invalidation.InvalidationType;
+import com.waterball.course.util.UuidBloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deny-list of revoked access-token ids, checked on every authenticated request without
+ * touching the database. Ids live in two generations, each spanning one access-token
+ * lifetime: a revoked token has expired by the time its generation is dropped. A Bloom
+ * filter answers the common "not revoked" case; the exact set rules out false positives.
+ * Revocations are persisted once and broadcast over the {@link InvalidationBus}; nodes
+ * reload the persisted list on startup and after a listener reconnect.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AccessTokenRevocationService implements InvalidationHandler {
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final InvalidationBus invalidationBus;
+    private final JwtService jwtService;
+
+    @Value("${app.auth.revocation.expected-per-window:100000}")
+    private int expectedPerWindow;
+
+    @Value("${app.auth.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    @PostConstruct
+    void init() {
+        long now = System.currentTimeMillis();
+        current = newGeneration(now);
+        previous = newGeneration(now - jwtService.getAccessExpiration());
+        invalidationBus.register(InvalidationType.ACCESS_TOKEN_REVOKED, this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPersisted() {
+        onResync();
+    }
+
+    public boolean isRevoked(UUID tokenId) {
+        rotateIfDue(System.currentTimeMillis());
+        return current.contains(tokenId) || previous.contains(tokenId);
+    }
+
+    @Transactional
+    public void revoke(UUID tokenId, UUID userId, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        remember(tokenId);
+
+        RevokedAccessToken revoked = new RevokedAccessToken();
+        revoked.setTokenId(tokenId);
+        revoked.setUserId(userId);
+        revoked.setExpiresAt(expiresAt);
+        revokedAccessTokenRepository.save(revoked);
+
+        invalidationBus.publish(InvalidationType.ACCESS_TOKEN_REVOKED, tokenId, expiresAt.toEpochMilli());
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.entityId() != null && event.version() > System.currentTimeMillis()) {
+            remember(UUID.fromString(event.entityId()));
+        }
+    }
+
+    @Override
+    public void onResync() {
+        int loaded = 0;
+        for (RevokedAccessToken revoked : revokedAccessTokenRepository.findByExpiresAtAfter(Instant.now())) {
+            remember(revoked.getTokenId());
+            loaded++;
+        }
+        log.info("Revoked access tokens loaded: count={}", loaded);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        revokedAccessTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private void remember(UUID tokenId) {
+        rotateIfDue(System.currentTimeMillis());
+        current.add(tokenId);
+    }
+
+    private void rotateIfDue(long now) {
+        if (now - current.startedAt() < jwtService.getAccessExpiration()) {
+            return;
+        }
+        synchronized (this) {
+            long lifetime = jwtService.getAccessExpiration();
+            if (now - current.startedAt() < lifetime) {
+                return;
+            }
+            previous = now - current.startedAt() < 2 * lifetime ? current : newGeneration(now - lifetime);
+            current = newGeneration(now);
+        }
+    }
+
+    private Generation newGeneration(long startedAt) {
+        return new Generation(startedAt, new UuidBloomFilter(expectedPerWindow, falsePositiveRate),
+                ConcurrentHashMap.newKeySet());
+    }
+
+    private record Generation(long startedAt, UuidBloomFilter filter, Set<UUID> revoked) {
+        void add(UUID tokenId) {
+            revoked.add(tokenId);
+            filter.add(tokenId);
+        }
+
+        boolean contains(UUID tokenId) {
+            return filter.mightContain(tokenId) && revoked.contains(tokenId);
+        }
+    }
+}
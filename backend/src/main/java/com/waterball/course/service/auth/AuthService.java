@@ -1,5 +1,6 @@
 package com.waterball.course.service.auth;
 
+import com.waterball.course.config.TimedService;
 import com.waterball.course.entity.AuthProvider;
 import com.waterball.course.entity.RefreshToken;
 import com.waterball.course.entity.User;
@@ -8,15 +9,23 @@ import com.waterball.course.exception.InvalidCredentialException;
 import com.waterball.course.repository.RefreshTokenRepository;
 import com.waterball.course.repository.UserAuthProviderRepository;
 import com.waterball.course.repository.UserRepository;
+import com.waterball.course.service.UserProfileCache;
+import com.waterball.course.util.LoggingConstants;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @Service
+@TimedService
+@Slf4j
 @RequiredArgsConstructor
 @Transactional
 public class AuthService {
@@ -25,8 +34,11 @@ public class AuthService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final GoogleAuthService googleAuthService;
     private final JwtService jwtService;
+    private final UserProfileCache userProfileCache;
+    private final AccessTokenRevocationService revocationService;
 
     public AuthResult loginWithGoogle(String credential) {
+        long startedAt = System.nanoTime();
         GoogleAuthService.GoogleUserInfo googleUser = googleAuthService.verifyIdToken(credential);
 
         User user = authProviderRepository
@@ -34,7 +46,13 @@ public class AuthService {
                 .map(UserAuthProvider::getUser)
                 .orElseGet(() -> createUserFromGoogle(googleUser));
 
-        return createAuthResult(user);
+        AuthResult result = createAuthResult(user);
+        log.info("User logged in",
+            kv("event", LoggingConstants.USER_LOGGED_IN),
+            kv("userId", user.getId()),
+            kv("provider", AuthProvider.GOOGLE),
+            kv("durationMs", (System.nanoTime() - startedAt) / 1_000_000));
+        return result;
     }
 
     private User createUserFromGoogle(GoogleAuthService.GoogleUserInfo googleUser) {
@@ -70,12 +88,13 @@ public class AuthService {
         refreshTokenEntity.setExpiresAt(LocalDateTime.now()
                 .plusSeconds(jwtService.getRefreshExpiration() / 1000));
         refreshTokenRepository.save(refreshTokenEntity);
+        userProfileCache.evict(user.getId());
 
         return new AuthResult(user, accessToken, refreshToken);
     }
 
     public AuthResult refreshToken(String refreshToken) {
-        if (!jwtService.validateToken(refreshToken)) {
+        if (!jwtService.validateRefreshToken(refreshToken)) {
             throw new InvalidCredentialException("Invalid refresh token");
         }
 
@@ -94,11 +113,19 @@ public class AuthService {
         return new AuthResult(user, newAccessToken, null);
     }
 
-    public void logout(String refreshToken) {
+    public void logout(String refreshToken, String accessToken) {
         if (refreshToken != null) {
             String tokenHash = jwtService.hashToken(refreshToken);
             refreshTokenRepository.deleteByTokenHash(tokenHash);
         }
+        if (accessToken != null) {
+            jwtService.verify(accessToken)
+                    .filter(claims -> claims.getId() != null)
+                    .ifPresent(claims -> revocationService.revoke(
+                            UUID.fromString(claims.getId()),
+                            UUID.fromString(claims.getSubject()),
+                            claims.getExpiration().toInstant()));
+        }
     }
 
     @Getter
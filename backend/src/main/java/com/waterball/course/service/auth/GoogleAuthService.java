@@ -1,38 +1,99 @@
 package com.waterball.course.service.auth;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import com.waterball.course.exception.InvalidCredentialException;
+import com.waterball.course.util.LoggingConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.security.PublicKey;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Verifies Google ID tokens against a shared, pre-fetched key set. Keys are refreshed in the
+ * background ahead of their expiry, so logins never wait on Google's certificate endpoint
+ * except on a cold start or an unknown signing key.
+ */
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class GoogleAuthService {
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    private static final List<String> ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+    private static final long CLOCK_SKEW_SECONDS = 300;
+
+    private final GoogleKeySource keySource;
+    private final MeterRegistry meterRegistry;
+
     @Value("${google.client-id}")
     private String googleClientId;
 
+    @Value("${google.key-refresh-ahead-ms:300000}")
+    private long refreshAheadMs;
+
+    @Value("${google.key-min-refresh-interval-ms:60000}")
+    private long minRefreshIntervalMs;
+
+    @Value("${google.key-retry-delay-ms:30000}")
+    private long retryDelayMs;
+
+    private final AtomicReference<LoadedKeys> current = new AtomicReference<>();
+    private ScheduledExecutorService refresher;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+
+    @PostConstruct
+    void startRefresher() {
+        verifiedTimer = verifyTimer("verified");
+        rejectedTimer = verifyTimer("rejected");
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "google-key-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (googleClientId != null && !googleClientId.isBlank()) {
+            refresher.execute(this::scheduledRefresh);
+        }
+    }
+
+    @PreDestroy
+    void stopRefresher() {
+        refresher.shutdownNow();
+    }
+
     public GoogleUserInfo verifyIdToken(String idToken) {
+        long startedAt = System.nanoTime();
         try {
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(),
-                    GsonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
-
-            GoogleIdToken token = verifier.verify(idToken);
-            if (token == null) {
+            GoogleIdToken token = GoogleIdToken.parse(JSON_FACTORY, idToken);
+            if (!verifySignature(token)
+                    || !token.verifyAudience(Collections.singletonList(googleClientId))
+                    || !token.verifyIssuer(ISSUERS)
+                    || !token.verifyTime(System.currentTimeMillis(), CLOCK_SKEW_SECONDS)) {
                 throw new InvalidCredentialException("Invalid Google ID token");
             }
 
             GoogleIdToken.Payload payload = token.getPayload();
+            verifiedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            log.info("Google ID token verified",
+                kv("event", LoggingConstants.GOOGLE_ID_TOKEN_VERIFIED),
+                kv("durationMs", elapsedMs(startedAt)));
             return new GoogleUserInfo(
                     payload.getSubject(),
                     payload.getEmail(),
@@ -40,10 +101,91 @@ public class GoogleAuthService {
                     (String) payload.get("picture")
             );
         } catch (Exception e) {
+            rejectedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            log.warn("Google ID token rejected",
+                kv("event", LoggingConstants.GOOGLE_ID_TOKEN_REJECTED),
+                kv("durationMs", elapsedMs(startedAt)),
+                kv("reason", e.getMessage()));
             throw new InvalidCredentialException("Failed to verify Google ID token: " + e.getMessage());
         }
     }
 
+    private boolean verifySignature(GoogleIdToken token) throws Exception {
+        LoadedKeys keys = current.get();
+        if (keys == null) {
+            keys = refresh(null);
+        }
+        if (signedByAny(token, keys.keys())) {
+            return true;
+        }
+        // An unknown key usually means Google rotated before our next scheduled refresh.
+        if (System.currentTimeMillis() - keys.loadedAt() >= minRefreshIntervalMs) {
+            return signedByAny(token, refresh(keys).keys());
+        }
+        return false;
+    }
+
+    private static boolean signedByAny(GoogleIdToken token, List<PublicKey> keys) throws Exception {
+        for (PublicKey key : keys) {
+            if (token.verifySignature(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fetches a new key set unless another caller already replaced {@code seen}.
+     */
+    private synchronized LoadedKeys refresh(LoadedKeys seen) throws Exception {
+        LoadedKeys latest = current.get();
+        if (latest != null && latest != seen) {
+            return latest;
+        }
+
+        long startedAt = System.nanoTime();
+        GoogleKeySource.KeySet keySet = keySource.fetch();
+        LoadedKeys loaded = new LoadedKeys(keySet.keys(), keySet.expiresAtMillis(), System.currentTimeMillis());
+        current.set(loaded);
+        log.info("Google signing keys refreshed",
+            kv("event", LoggingConstants.GOOGLE_KEYS_REFRESHED),
+            kv("keyCount", loaded.keys().size()),
+            kv("expiresInMs", loaded.expiresAt() - loaded.loadedAt()),
+            kv("durationMs", elapsedMs(startedAt)));
+        return loaded;
+    }
+
+    private void scheduledRefresh() {
+        long delayMs;
+        try {
+            LoadedKeys loaded = refresh(current.get());
+            delayMs = Math.max(loaded.expiresAt() - refreshAheadMs - System.currentTimeMillis(), minRefreshIntervalMs);
+        } catch (Exception e) {
+            log.warn("Google signing key refresh failed",
+                kv("event", LoggingConstants.EXTERNAL_SERVICE_ERROR),
+                kv("service", "google-certs"),
+                kv("reason", e.getMessage()));
+            delayMs = retryDelayMs;
+        }
+        if (!refresher.isShutdown()) {
+            refresher.schedule(this::scheduledRefresh, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("google.idtoken.verify")
+                .description("Google ID token verification, including any key refresh it triggered")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static long elapsedMs(long startedAt) {
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    private record LoadedKeys(List<PublicKey> keys, long expiresAt, long loadedAt) {}
+
     @Getter
     @AllArgsConstructor
     public static class GoogleUserInfo {
@@ -0,0 +1,27 @@
+package com.waterball.course.service.auth;
+
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+/**
+ * Google's published signing certificates; expiry follows the endpoint's Cache-Control max-age.
+ */
+@Component
+@ConditionalOnProperty(name = "google.key-source", havingValue = "google-certs", matchIfMissing = true)
+public class GoogleCertsKeySource implements GoogleKeySource {
+    private final GooglePublicKeysManager keysManager =
+            new GooglePublicKeysManager(new NetHttpTransport(), GsonFactory.getDefaultInstance());
+
+    @Override
+    public KeySet fetch() throws IOException, GeneralSecurityException {
+        keysManager.refresh();
+        return new KeySet(List.copyOf(keysManager.getPublicKeys()), keysManager.getExpirationTimeMilliseconds());
+    }
+}
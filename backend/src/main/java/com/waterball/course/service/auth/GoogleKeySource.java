@@ -0,0 +1,19 @@
+package com.waterball.course.service.auth;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.List;
+
+/**
+ * Where Google ID token signing keys come from. Selected by {@code google.key-source}.
+ */
+public interface GoogleKeySource {
+
+    KeySet fetch() throws IOException, GeneralSecurityException;
+
+    /**
+     * Public keys together with the time the source says they stop being authoritative.
+     */
+    record KeySet(List<PublicKey> keys, long expiresAtMillis) {}
+}
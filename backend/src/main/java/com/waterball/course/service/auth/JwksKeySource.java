@@ -0,0 +1,45 @@
+package com.waterball.course.service.auth;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keys from a JWKS document at {@code google.jwks-location}; a local stand-in for Google's
+ * endpoint in tests and offline environments.
+ */
+@Component
+@ConditionalOnProperty(name = "google.key-source", havingValue = "jwks")
+public class JwksKeySource implements GoogleKeySource {
+    @Value("${google.jwks-location}")
+    private Resource jwksLocation;
+
+    @Value("${google.jwks-max-age-ms:3600000}")
+    private long maxAgeMs;
+
+    @Override
+    public KeySet fetch() throws IOException {
+        String json = jwksLocation.getContentAsString(StandardCharsets.UTF_8);
+        JwkSet jwkSet = Jwks.setParser().build().parse(json);
+
+        List<PublicKey> keys = new ArrayList<>();
+        for (Jwk<?> jwk : jwkSet.getKeys()) {
+            Key key = jwk.toKey();
+            if (key instanceof PublicKey publicKey) {
+                keys.add(publicKey);
+            }
+        }
+        return new KeySet(List.copyOf(keys), System.currentTimeMillis() + maxAgeMs);
+    }
+}
@@ -3,9 +3,11 @@ package com.waterball.course.service.auth;
 import com.waterball.course.entity.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -15,10 +17,20 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class JwtService {
+    /** Tells access and refresh tokens apart; a refresh token must never authenticate a request. */
+    private static final String TOKEN_USE_CLAIM = "token_use";
+    private static final String ACCESS_TOKEN_USE = "access";
+    private static final String REFRESH_TOKEN_USE = "refresh";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -28,25 +40,48 @@ public class JwtService {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * SHA-256 digest of an already verified token → its claims, kept until the token expires.
+     * Every request thread reads it, so lookups take no lock. Past
+     * {@code jwt.verified-cache.max-entries} one thread drops the expired tokens and, if that is
+     * not enough, a tenth of the rest in hash order, which is effectively random.
+     */
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     public String generateAccessToken(User user) {
-        return generateToken(user, accessExpiration);
+        return generateToken(user, accessExpiration, ACCESS_TOKEN_USE);
     }
 
     public String generateRefreshToken(User user) {
-        return generateToken(user, refreshExpiration);
+        return generateToken(user, refreshExpiration, REFRESH_TOKEN_USE);
     }
 
-    private String generateToken(User user, long expiration) {
+    private String generateToken(User user, long expiration, String tokenUse) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getId().toString())
                 .claim("email", user.getEmail())
                 .claim("role", user.getRole() != null ? user.getRole().name() : null)
+                .claim(TOKEN_USE_CLAIM, tokenUse)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -55,26 +90,84 @@ public class JwtService {
         return UUID.fromString(claims.getSubject());
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Refresh tokens issued before {@code token_use} existed carry no claim; they are still
+     * accepted here because the caller also requires the token's digest in {@code refresh_tokens}.
+     */
+    public boolean validateRefreshToken(String token) {
+        return verifySignature(token)
+                .filter(claims -> !ACCESS_TOKEN_USE.equals(claims.get(TOKEN_USE_CLAIM)))
+                .isPresent();
+    }
+
+    /**
+     * Verifies signature and expiry in a single parse and returns the claims of an access
+     * token, or empty when the token is malformed, tampered with, expired or not an access
+     * token. Tokens seen before are answered from a bounded cache keyed by their digest until
+     * their {@code exp}.
+     */
+    public Optional<Claims> verify(String token) {
+        return verifySignature(token)
+                .filter(claims -> ACCESS_TOKEN_USE.equals(claims.get(TOKEN_USE_CLAIM)));
+    }
+
+    private Optional<Claims> verifySignature(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        String digest = verifiedCacheMaxEntries > 0 ? hashToken(token) : null;
+        if (digest != null) {
+            VerifiedToken cached = verifiedTokens.get(digest);
+            if (cached != null) {
+                if (cached.expiresAt() > now) {
+                    return Optional.of(cached.claims());
+                }
+                verifiedTokens.remove(digest, cached);
+            }
+        }
+
+        Claims claims;
         try {
-            parseToken(token);
-            return true;
+            claims = parseToken(token);
+            if (claims.getSubject() == null) {
+                return Optional.empty();
+            }
+            UUID.fromString(claims.getSubject());
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
+        }
+
+        if (digest != null && claims.getExpiration() != null) {
+            remember(digest, new VerifiedToken(claims, claims.getExpiration().getTime()), now);
         }
+        return Optional.of(claims);
     }
 
-    private Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private void remember(String digest, VerifiedToken verified, long now) {
+        verifiedTokens.put(digest, verified);
+        if (verifiedTokens.size() <= verifiedCacheMaxEntries || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            verifiedTokens.values().removeIf(entry -> entry.expiresAt() <= now);
+            int excess = verifiedTokens.size() - verifiedCacheMaxEntries;
+            if (excess > 0) {
+                int toRemove = Math.max(excess, verifiedCacheMaxEntries / 10);
+                Iterator<String> keys = verifiedTokens.keySet().iterator();
+                while (toRemove-- > 0 && keys.hasNext()) {
+                    keys.next();
+                    keys.remove();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private Claims parseToken(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String hashToken(String token) {
@@ -94,4 +187,6 @@ public class JwtService {
     public long getRefreshExpiration() {
         return refreshExpiration;
     }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {}
 }
@@ -0,0 +1,72 @@
+package com.waterball.course.service.auth;
+
+import com.waterball.course.repository.RefreshTokenRepository;
+import com.waterball.course.util.LoggingConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Removes expired refresh tokens in bounded batches and keeps the monthly partitions of
+ * {@code refresh_tokens} rolling. Safe to run on every node.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RefreshTokenPurgeJob {
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.auth.refresh-token-purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.auth.refresh-token-purge.max-batches:100}")
+    private int maxBatches;
+
+    @Value("${app.auth.refresh-token-purge.partition-months-ahead:3}")
+    private int partitionMonthsAhead;
+
+    @Value("${app.auth.refresh-token-purge.partitioned:true}")
+    private boolean partitioned;
+
+    @Scheduled(initialDelayString = "${app.auth.refresh-token-purge.initial-delay-ms:60000}",
+            fixedDelayString = "${app.auth.refresh-token-purge.interval-ms:3600000}")
+    public void run() {
+        long startedAt = System.nanoTime();
+        int dropped = partitioned ? maintainPartitions() : 0;
+        int deleted = purgeExpired(LocalDateTime.now());
+
+        log.info("Refresh token purge finished",
+            kv("event", LoggingConstants.REFRESH_TOKENS_PURGED),
+            kv("deleted", deleted),
+            kv("droppedPartitions", dropped),
+            kv("durationMs", (System.nanoTime() - startedAt) / 1_000_000));
+    }
+
+    int purgeExpired(LocalDateTime cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = refreshTokenRepository.deleteExpiredBatch(cutoff, batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int maintainPartitions() {
+        try {
+            return refreshTokenRepository.maintainPartitions(partitionMonthsAhead);
+        } catch (DataAccessException e) {
+            log.warn("Refresh token partition maintenance failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
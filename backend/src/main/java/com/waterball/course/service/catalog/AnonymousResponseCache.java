@@ -0,0 +1,153 @@
+package com.waterball.course.service.catalog;
+
+import com.waterball.course.service.invalidation.InvalidationBus;
+import com.waterball.course.service.invalidation.InvalidationEvent;
+import com.waterball.course.service.invalidation.InvalidationHandler;
+import com.waterball.course.service.invalidation.InvalidationType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully rendered, pre-gzipped responses for anonymous catalog requests, keyed by path and
+ * the query parameters the endpoints read. Entries are tagged with the content version they
+ * were rendered under and are ignored (and eventually cleared) once the catalog moves on;
+ * beyond {@code app.catalog.anonymous-cache.max-entries} the least recently used entry is evicted.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AnonymousResponseCache implements InvalidationHandler {
+    private final ContentVersionService contentVersionService;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${app.catalog.anonymous-cache.max-entries:512}")
+    private int maxEntries;
+
+    @Value("${app.catalog.anonymous-cache.render-wait-ms:2000}")
+    private long renderWaitMs;
+
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Optional<CachedResponse>>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerInvalidationHandler() {
+        invalidationBus.register(InvalidationType.CATALOG, this);
+    }
+
+    public long currentVersion() {
+        return contentVersionService.currentVersion();
+    }
+
+    public Optional<CachedResponse> get(String key, long version) {
+        CachedResponse cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && cached.version() == version) {
+            return Optional.of(cached);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Renders the response for {@code key} at most once per concurrent burst; callers that
+     * arrive while a render is in flight wait up to {@code render-wait-ms} for it instead of
+     * rendering again. Returns empty to the leader so it keeps the response it produced itself,
+     * and to a waiter whose leader failed or took too long, which then renders on its own.
+     */
+    public Optional<CachedResponse> getOrRender(String key, long version, Supplier<Optional<CachedResponse>> renderer) {
+        CompletableFuture<Optional<CachedResponse>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<CachedResponse>> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return awaitRender(key, existing);
+        }
+
+        try {
+            Optional<CachedResponse> rendered = renderer.get();
+            rendered.ifPresent(response -> put(key, response));
+            created.complete(rendered);
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            created.complete(Optional.empty());
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private Optional<CachedResponse> awaitRender(String key, CompletableFuture<Optional<CachedResponse>> render) {
+        try {
+            return render.get(renderWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Gave up waiting for in-flight render, rendering directly: key={}, waitMs={}", key, renderWaitMs);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void put(String key, CachedResponse response) {
+        synchronized (entries) {
+            entries.put(key, response);
+            while (entries.size() > maxEntries) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+    }
+
+    public static CachedResponse render(long version, int status, String contentType,
+                                        Map<String, String> headers, byte[] body) {
+        return new CachedResponse(version, status, contentType, Map.copyOf(headers), body, gzip(body));
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        onResync();
+    }
+
+    @Override
+    public void onResync() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public record CachedResponse(
+            long version,
+            int status,
+            String contentType,
+            Map<String, String> headers,
+            byte[] body,
+            byte[] gzippedBody
+    ) {}
+}
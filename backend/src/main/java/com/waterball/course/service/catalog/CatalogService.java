@@ -0,0 +1,48 @@
+package com.waterball.course.service.catalog;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogService {
+    private final CatalogSnapshotLoader catalogSnapshotLoader;
+    private final ContentVersionService contentVersionService;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        snapshot();
+    }
+
+    public CatalogSnapshot snapshot() {
+        long version = contentVersionService.currentVersion();
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot != null && snapshot.version() == version) {
+            return snapshot;
+        }
+        return rebuild(version);
+    }
+
+    private synchronized CatalogSnapshot rebuild(long version) {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot != null && snapshot.version() >= version) {
+            return snapshot;
+        }
+
+        long startedAt = System.nanoTime();
+        CatalogSnapshot rebuilt = catalogSnapshotLoader.load(version);
+        current.set(rebuilt);
+        log.info("Catalog snapshot rebuilt: version={}, journeys={}, lessons={}, gyms={}, problems={}, tookMs={}",
+                version, rebuilt.journeys().size(), rebuilt.totalLessons(), rebuilt.gyms().size(),
+                rebuilt.totalProblems(), (System.nanoTime() - startedAt) / 1_000_000);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,279 @@
+package com.waterball.course.service.catalog;
+
+import com.waterball.course.entity.AccessType;
+import com.waterball.course.entity.GymType;
+import com.waterball.course.entity.LessonType;
+import com.waterball.course.entity.PrerequisiteType;
+import com.waterball.course.entity.Problem;
+import com.waterball.course.entity.SubmissionType;
+import com.waterball.course.service.course.JourneyLessonIndex;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Immutable, read-only view of all course content. Every node is addressed by a dense
+ * int index into its array; UUIDs are resolved once through the index maps and child
+ * references are pre-sorted, unmodifiable index lists, so reads never copy.
+ */
+public final class CatalogSnapshot {
+    private final long version;
+    private final JourneyNode[] journeys;
+    private final ChapterNode[] chapters;
+    private final LessonNode[] lessons;
+    private final GymNode[] gyms;
+    private final StageNode[] stages;
+    private final ProblemNode[] problems;
+    private final Map<UUID, Integer> journeyIndex;
+    private final Map<UUID, Integer> lessonIndex;
+    private final Map<UUID, Integer> gymIndex;
+    private final Map<UUID, Integer> stageIndex;
+    private final Map<UUID, Integer> problemIndex;
+
+    CatalogSnapshot(long version, JourneyNode[] journeys, ChapterNode[] chapters, LessonNode[] lessons,
+                    GymNode[] gyms, StageNode[] stages, ProblemNode[] problems) {
+        this.version = version;
+        this.journeys = journeys;
+        this.chapters = chapters;
+        this.lessons = lessons;
+        this.gyms = gyms;
+        this.stages = stages;
+        this.problems = problems;
+        this.journeyIndex = indexById(Arrays.stream(journeys).map(JourneyNode::id).toList());
+        this.lessonIndex = indexById(Arrays.stream(lessons).map(LessonNode::id).toList());
+        this.gymIndex = indexById(Arrays.stream(gyms).map(GymNode::id).toList());
+        this.stageIndex = indexById(Arrays.stream(stages).map(StageNode::id).toList());
+        this.problemIndex = indexById(Arrays.stream(problems).map(ProblemNode::id).toList());
+    }
+
+    private static Map<UUID, Integer> indexById(List<UUID> ids) {
+        Map<UUID, Integer> index = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            index.put(ids.get(i), i);
+        }
+        return Map.copyOf(index);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Optional<JourneyNode> findJourney(UUID id) {
+        return Optional.ofNullable(journeyIndex.get(id)).map(i -> journeys[i]);
+    }
+
+    public Optional<LessonNode> findLesson(UUID id) {
+        return Optional.ofNullable(lessonIndex.get(id)).map(i -> lessons[i]);
+    }
+
+    public Optional<GymNode> findGym(UUID id) {
+        return Optional.ofNullable(gymIndex.get(id)).map(i -> gyms[i]);
+    }
+
+    public Optional<StageNode> findStage(UUID id) {
+        return Optional.ofNullable(stageIndex.get(id)).map(i -> stages[i]);
+    }
+
+    public Optional<ProblemNode> findProblem(UUID id) {
+        return Optional.ofNullable(problemIndex.get(id)).map(i -> problems[i]);
+    }
+
+    public List<JourneyNode> journeys() {
+        return List.of(journeys);
+    }
+
+    public List<GymNode> gyms() {
+        return List.of(gyms);
+    }
+
+    public JourneyNode journey(int index) {
+        return journeys[index];
+    }
+
+    public LessonNode lesson(int index) {
+        return lessons[index];
+    }
+
+    public GymNode gym(int index) {
+        return gyms[index];
+    }
+
+    public StageNode stage(int index) {
+        return stages[index];
+    }
+
+    public ProblemNode problem(int index) {
+        return problems[index];
+    }
+
+    public List<ChapterNode> chaptersOf(JourneyNode journey) {
+        return select(journey.chapters(), chapters);
+    }
+
+    public List<LessonNode> lessonsOf(ChapterNode chapter) {
+        return select(chapter.lessons(), lessons);
+    }
+
+    public List<StageNode> stagesOf(GymNode gym) {
+        return select(gym.stages(), stages);
+    }
+
+    public List<ProblemNode> problemsOf(StageNode stage) {
+        return select(stage.problems(), problems);
+    }
+
+    public JourneyNode journeyOf(GymNode gym) {
+        return journeys[gym.journey()];
+    }
+
+    public GymNode gymOf(StageNode stage) {
+        return gyms[stage.gym()];
+    }
+
+    public StageNode stageOf(ProblemNode problem) {
+        return stages[problem.stage()];
+    }
+
+    public int totalLessons() {
+        return lessons.length;
+    }
+
+    public int totalProblems() {
+        return problems.length;
+    }
+
+    /** A read-only view of {@code nodes} at {@code indexes}; nothing is copied. */
+    private static <T> List<T> select(List<Integer> indexes, T[] nodes) {
+        return new AbstractList<>() {
+            @Override
+            public T get(int i) {
+                return nodes[indexes.get(i)];
+            }
+
+            @Override
+            public int size() {
+                return indexes.size();
+            }
+        };
+    }
+
+    public record JourneyNode(
+            int index,
+            UUID id,
+            String title,
+            String description,
+            String thumbnailUrl,
+            BigDecimal price,
+            boolean published,
+            List<Integer> chapters,
+            List<Integer> gyms,
+            JourneyLessonIndex lessonIndex,
+            int totalDurationSeconds
+    ) {
+        public JourneyNode {
+            chapters = List.copyOf(chapters);
+            gyms = List.copyOf(gyms);
+        }
+    }
+
+    public record ChapterNode(
+            int index,
+            UUID id,
+            int journey,
+            String title,
+            String description,
+            int sortOrder,
+            AccessType accessType,
+            List<Integer> lessons
+    ) {
+        public ChapterNode {
+            lessons = List.copyOf(lessons);
+        }
+    }
+
+    public record LessonNode(
+            int index,
+            UUID id,
+            int chapter,
+            int journey,
+            String title,
+            String description,
+            LessonType lessonType,
+            String contentUrl,
+            UUID videoId,
+            Integer durationSeconds,
+            int sortOrder,
+            AccessType accessType,
+            InstructorNode instructor
+    ) {}
+
+    public record InstructorNode(UUID id, String name, String pictureUrl) {}
+
+    public record GymNode(
+            int index,
+            UUID id,
+            int journey,
+            String title,
+            String description,
+            String thumbnailUrl,
+            GymType gymType,
+            int sortOrder,
+            boolean published,
+            List<Integer> stages,
+            int problemCount
+    ) {
+        public GymNode {
+            stages = List.copyOf(stages);
+        }
+    }
+
+    public record StageNode(
+            int index,
+            UUID id,
+            int gym,
+            String title,
+            String description,
+            int difficulty,
+            int sortOrder,
+            List<Integer> problems,
+            List<PrerequisiteRef> prerequisites
+    ) {
+        public StageNode {
+            problems = List.copyOf(problems);
+        }
+    }
+
+    public record ProblemNode(
+            int index,
+            UUID id,
+            int stage,
+            String title,
+            String description,
+            int difficulty,
+            List<SubmissionType> submissionTypes,
+            List<Problem.Hint> hints,
+            int expReward,
+            int sortOrder,
+            List<PrerequisiteRef> prerequisites
+    ) {}
+
+    /**
+     * A prerequisite on a lesson or problem. A prerequisite row that references neither is kept as
+     * an unsatisfiable ref ({@code type == null}) so the stage or problem it guards stays locked.
+     */
+    public record PrerequisiteRef(PrerequisiteType type, UUID id, String title) {
+        public static PrerequisiteRef unsatisfiable() {
+            return new PrerequisiteRef(null, null, null);
+        }
+
+        public boolean isSatisfiable() {
+            return type != null;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.waterball.course.service.catalog;
+
+import com.waterball.course.entity.*;
+import com.waterball.course.repository.*;
+import com.waterball.course.service.catalog.CatalogSnapshot.*;
+import com.waterball.course.service.course.JourneyLessonIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogSnapshotLoader {
+    private static final Sort BY_SORT_ORDER = Sort.by("sortOrder", "id");
+
+    private final JourneyRepository journeyRepository;
+    private final ChapterRepository chapterRepository;
+    private final LessonRepository lessonRepository;
+    private final GymRepository gymRepository;
+    private final StageRepository stageRepository;
+    private final ProblemRepository problemRepository;
+    private final StagePrerequisiteRepository stagePrerequisiteRepository;
+    private final ProblemPrerequisiteRepository problemPrerequisiteRepository;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public CatalogSnapshot load(long version) {
+        List<Journey> journeys = journeyRepository.findAll(Sort.by("createdAt", "id"));
+        List<Chapter> chapters = chapterRepository.findAll(BY_SORT_ORDER);
+        List<Lesson> lessons = lessonRepository.findAllWithInstructor();
+        List<Gym> gyms = gymRepository.findAll(BY_SORT_ORDER);
+        List<Stage> stages = stageRepository.findAll(BY_SORT_ORDER);
+        List<Problem> problems = problemRepository.findAll(BY_SORT_ORDER);
+
+        Map<UUID, Integer> journeyIndex = positions(journeys.stream().map(Journey::getId).toList());
+        Map<UUID, Integer> chapterIndex = positions(chapters.stream().map(Chapter::getId).toList());
+        Map<UUID, Integer> lessonIndex = positions(lessons.stream().map(Lesson::getId).toList());
+        Map<UUID, Integer> gymIndex = positions(gyms.stream().map(Gym::getId).toList());
+        Map<UUID, Integer> stageIndex = positions(stages.stream().map(Stage::getId).toList());
+        Map<UUID, Integer> problemIndex = positions(problems.stream().map(Problem::getId).toList());
+
+        List<List<Integer>> chaptersByJourney = buckets(journeys.size());
+        for (int i = 0; i < chapters.size(); i++) {
+            chaptersByJourney.get(journeyIndex.get(chapters.get(i).getJourney().getId())).add(i);
+        }
+        List<List<Integer>> lessonsByChapter = buckets(chapters.size());
+        for (int i = 0; i < lessons.size(); i++) {
+            lessonsByChapter.get(chapterIndex.get(lessons.get(i).getChapter().getId())).add(i);
+        }
+        List<List<Integer>> gymsByJourney = buckets(journeys.size());
+        for (int i = 0; i < gyms.size(); i++) {
+            gymsByJourney.get(journeyIndex.get(gyms.get(i).getJourney().getId())).add(i);
+        }
+        List<List<Integer>> stagesByGym = buckets(gyms.size());
+        for (int i = 0; i < stages.size(); i++) {
+            stagesByGym.get(gymIndex.get(stages.get(i).getGym().getId())).add(i);
+        }
+        List<List<Integer>> problemsByStage = buckets(stages.size());
+        for (int i = 0; i < problems.size(); i++) {
+            problemsByStage.get(stageIndex.get(problems.get(i).getStage().getId())).add(i);
+        }
+
+        List<List<PrerequisiteRef>> stagePrerequisites = buckets(stages.size());
+        for (StagePrerequisite prereq : stagePrerequisiteRepository.findAll()) {
+            stagePrerequisites.get(stageIndex.get(prereq.getStage().getId())).add(
+                    toRef(prereq.getPrerequisiteLesson(), prereq.getPrerequisiteProblem(), lessons, problems,
+                            lessonIndex, problemIndex));
+        }
+        List<List<PrerequisiteRef>> problemPrerequisites = buckets(problems.size());
+        for (ProblemPrerequisite prereq : problemPrerequisiteRepository.findAll()) {
+            problemPrerequisites.get(problemIndex.get(prereq.getProblem().getId())).add(
+                    toRef(prereq.getPrerequisiteLesson(), prereq.getPrerequisiteProblem(), lessons, problems,
+                            lessonIndex, problemIndex));
+        }
+
+        LessonNode[] lessonNodes = new LessonNode[lessons.size()];
+        for (int i = 0; i < lessons.size(); i++) {
+            Lesson lesson = lessons.get(i);
+            int chapter = chapterIndex.get(lesson.getChapter().getId());
+            User instructor = lesson.getInstructor();
+            lessonNodes[i] = new LessonNode(
+                    i,
+                    lesson.getId(),
+                    chapter,
+                    journeyIndex.get(chapters.get(chapter).getJourney().getId()),
+                    lesson.getTitle(),
+                    lesson.getDescription(),
+                    lesson.getLessonType(),
+                    lesson.getContentUrl(),
+                    lesson.getVideo() != null ? lesson.getVideo().getId() : null,
+                    lesson.getDurationSeconds(),
+                    lesson.getSortOrder(),
+                    lesson.getAccessType(),
+                    instructor != null
+                            ? new InstructorNode(instructor.getId(), instructor.getName(), instructor.getPictureUrl())
+                            : null
+            );
+        }
+
+        ChapterNode[] chapterNodes = new ChapterNode[chapters.size()];
+        for (int i = 0; i < chapters.size(); i++) {
+            Chapter chapter = chapters.get(i);
+            chapterNodes[i] = new ChapterNode(
+                    i,
+                    chapter.getId(),
+                    journeyIndex.get(chapter.getJourney().getId()),
+                    chapter.getTitle(),
+                    chapter.getDescription(),
+                    chapter.getSortOrder(),
+                    chapter.getAccessType(),
+                    lessonsByChapter.get(i)
+            );
+        }
+
+        JourneyNode[] journeyNodes = new JourneyNode[journeys.size()];
+        for (int i = 0; i < journeys.size(); i++) {
+            Journey journey = journeys.get(i);
+            List<UUID> lessonIds = new ArrayList<>();
+            List<String> lessonTitles = new ArrayList<>();
+            int totalDurationSeconds = 0;
+            for (int chapter : chaptersByJourney.get(i)) {
+                for (int lesson : chapterNodes[chapter].lessons()) {
+                    LessonNode node = lessonNodes[lesson];
+                    lessonIds.add(node.id());
+                    lessonTitles.add(node.title());
+                    totalDurationSeconds += node.durationSeconds() != null ? node.durationSeconds() : 0;
+                }
+            }
+            journeyNodes[i] = new JourneyNode(
+                    i,
+                    journey.getId(),
+                    journey.getTitle(),
+                    journey.getDescription(),
+                    journey.getThumbnailUrl(),
+                    journey.getPrice(),
+                    Boolean.TRUE.equals(journey.getIsPublished()),
+                    chaptersByJourney.get(i),
+                    gymsByJourney.get(i),
+                    JourneyLessonIndex.of(lessonIds, lessonTitles),
+                    totalDurationSeconds
+            );
+        }
+
+        ProblemNode[] problemNodes = new ProblemNode[problems.size()];
+        for (int i = 0; i < problems.size(); i++) {
+            Problem problem = problems.get(i);
+            problemNodes[i] = new ProblemNode(
+                    i,
+                    problem.getId(),
+                    stageIndex.get(problem.getStage().getId()),
+                    problem.getTitle(),
+                    problem.getDescription(),
+                    problem.getDifficulty(),
+                    List.copyOf(problem.getSubmissionTypeList()),
+                    problem.getHints() != null ? List.copyOf(problem.getHints()) : List.of(),
+                    problem.getExpReward(),
+                    problem.getSortOrder(),
+                    List.copyOf(problemPrerequisites.get(i))
+            );
+        }
+
+        StageNode[] stageNodes = new StageNode[stages.size()];
+        for (int i = 0; i < stages.size(); i++) {
+            Stage stage = stages.get(i);
+            stageNodes[i] = new StageNode(
+                    i,
+                    stage.getId(),
+                    gymIndex.get(stage.getGym().getId()),
+                    stage.getTitle(),
+                    stage.getDescription(),
+                    stage.getDifficulty(),
+                    stage.getSortOrder(),
+                    problemsByStage.get(i),
+                    List.copyOf(stagePrerequisites.get(i))
+            );
+        }
+
+        GymNode[] gymNodes = new GymNode[gyms.size()];
+        for (int i = 0; i < gyms.size(); i++) {
+            Gym gym = gyms.get(i);
+            List<Integer> gymStages = stagesByGym.get(i);
+            int problemCount = 0;
+            for (int stage : gymStages) {
+                problemCount += stageNodes[stage].problems().size();
+            }
+            gymNodes[i] = new GymNode(
+                    i,
+                    gym.getId(),
+                    journeyIndex.get(gym.getJourney().getId()),
+                    gym.getTitle(),
+                    gym.getDescription(),
+                    gym.getThumbnailUrl(),
+                    gym.getGymType(),
+                    gym.getSortOrder(),
+                    Boolean.TRUE.equals(gym.getIsPublished()),
+                    gymStages,
+                    problemCount
+            );
+        }
+
+        return new CatalogSnapshot(version, journeyNodes, chapterNodes, lessonNodes, gymNodes, stageNodes, problemNodes);
+    }
+
+    private static PrerequisiteRef toRef(Lesson lesson, Problem problem, List<Lesson> lessons,
+                                         List<Problem> problems, Map<UUID, Integer> lessonIndex,
+                                         Map<UUID, Integer> problemIndex) {
+        if (lesson != null) {
+            String title = lessons.get(lessonIndex.get(lesson.getId())).getTitle();
+            return new PrerequisiteRef(PrerequisiteType.LESSON, lesson.getId(), title);
+        }
+        if (problem != null) {
+            String title = problems.get(problemIndex.get(problem.getId())).getTitle();
+            return new PrerequisiteRef(PrerequisiteType.PROBLEM, problem.getId(), title);
+        }
+        return PrerequisiteRef.unsatisfiable();
+    }
+
+    private static Map<UUID, Integer> positions(List<UUID> ids) {
+        Map<UUID, Integer> positions = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        return positions;
+    }
+
+    private static <T> List<List<T>> buckets(int size) {
+        List<List<T>> buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        return buckets;
+    }
+}
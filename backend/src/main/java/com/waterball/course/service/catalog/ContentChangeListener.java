@@ -0,0 +1,20 @@
+package com.waterball.course.service.catalog;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ContentChangeListener {
+    private final ContentVersionService contentVersionService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onContentChanged(Object entity) {
+        contentVersionService.markChanged();
+    }
+}
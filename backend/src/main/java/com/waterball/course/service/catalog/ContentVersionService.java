@@ -0,0 +1,110 @@
+package com.waterball.course.service.catalog;
+
+import com.waterball.course.repository.JourneyRepository;
+import com.waterball.course.service.invalidation.InvalidationBus;
+import com.waterball.course.service.invalidation.InvalidationEvent;
+import com.waterball.course.service.invalidation.InvalidationHandler;
+import com.waterball.course.service.invalidation.InvalidationType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks a monotonically increasing version of course and gym content.
+ * Content is also edited with plain SQL (seed migrations, admin scripts), so the version
+ * is derived from a database fingerprint of row versions of every table the snapshot reads
+ * (see {@link JourneyRepository#findContentFingerprint}), revalidated at most once per
+ * {@code app.catalog.revalidate-interval-ms}. JPA writes on any node force an immediate
+ * revalidation through the {@link InvalidationBus}. Once a fingerprint is loaded, only one
+ * thread refreshes a stale version while concurrent readers keep serving the current one.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ContentVersionService implements InvalidationHandler {
+    private final JourneyRepository journeyRepository;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${app.catalog.revalidate-interval-ms:5000}")
+    private long revalidateIntervalMs;
+
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock revalidateLock = new ReentrantLock();
+    private volatile String fingerprint;
+    private volatile long lastCheckedAt;
+
+    @PostConstruct
+    void registerInvalidationHandler() {
+        invalidationBus.register(InvalidationType.CATALOG, this);
+    }
+
+    public long currentVersion() {
+        if (isStale()) {
+            revalidateIfStale();
+        }
+        return version.get();
+    }
+
+    public String currentFingerprint() {
+        currentVersion();
+        return fingerprint;
+    }
+
+    public void revalidate() {
+        revalidateLock.lock();
+        try {
+            loadFingerprint();
+        } finally {
+            revalidateLock.unlock();
+        }
+    }
+
+    private void revalidateIfStale() {
+        if (fingerprint == null) {
+            revalidateLock.lock();
+        } else if (!revalidateLock.tryLock()) {
+            return;
+        }
+        try {
+            if (isStale()) {
+                loadFingerprint();
+            }
+        } finally {
+            revalidateLock.unlock();
+        }
+    }
+
+    private boolean isStale() {
+        return System.currentTimeMillis() - lastCheckedAt >= revalidateIntervalMs;
+    }
+
+    private void loadFingerprint() {
+        String latest = journeyRepository.findContentFingerprint();
+        lastCheckedAt = System.currentTimeMillis();
+        if (!Objects.equals(latest, fingerprint)) {
+            fingerprint = latest;
+            long newVersion = version.incrementAndGet();
+            log.debug("Content fingerprint changed: version={}", newVersion);
+        }
+    }
+
+    public void markChanged() {
+        invalidationBus.publish(InvalidationType.CATALOG, null, version.get());
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        lastCheckedAt = 0;
+    }
+
+    @Override
+    public void onResync() {
+        lastCheckedAt = 0;
+    }
+}
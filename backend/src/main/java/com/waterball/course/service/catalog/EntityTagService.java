@@ -0,0 +1,48 @@
+package com.waterball.course.service.catalog;
+
+import com.waterball.course.service.UserStateCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Builds strong ETags from the content fingerprint and, for signed-in users, a fingerprint
+ * of their purchases, lesson completions and submissions. Both are derived from the database, so
+ * every node hands out the same tag for the same state. The user fingerprint is read through
+ * {@link UserStateCache}, so a warm tag costs no query.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class EntityTagService {
+    private final ContentVersionService contentVersionService;
+    private final UserStateCache userStateCache;
+
+    public String currentTag(UUID userId) {
+        String content = contentVersionService.currentFingerprint();
+        if (userId == null) {
+            return quote(hash("anonymous|" + content));
+        }
+        String userState = userStateCache.fingerprint(userId);
+        return quote(hash(userId + "|" + content + "|" + userState));
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
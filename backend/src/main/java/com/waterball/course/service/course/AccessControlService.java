@@ -2,7 +2,7 @@ package com.waterball.course.service.course;
 
 import com.waterball.course.entity.AccessType;
 import com.waterball.course.entity.Lesson;
-import com.waterball.course.repository.UserPurchaseRepository;
+import com.waterball.course.service.EntitlementCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,7 +15,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class AccessControlService {
-    private final UserPurchaseRepository userPurchaseRepository;
+    private final EntitlementCache entitlementCache;
 
     public boolean canAccessLesson(Lesson lesson, UUID userId) {
         AccessType accessType = lesson.getAccessType();
@@ -40,8 +40,8 @@ public class AccessControlService {
             return true;
         }
         
-        boolean hasPurchase = userPurchaseRepository.existsByUserIdAndJourneyId(userId, journeyId);
-        log.info("Purchase check: userId={}, journeyId={}, hasPurchase={}", userId, journeyId, hasPurchase);
+        boolean hasPurchase = entitlementCache.hasPurchased(userId, journeyId);
+        log.debug("Purchase check: userId={}, journeyId={}, hasPurchase={}", userId, journeyId, hasPurchase);
         return hasPurchase;
     }
 
@@ -50,8 +50,8 @@ public class AccessControlService {
             log.debug("hasPurchasedJourney: userId is null, returning false");
             return false;
         }
-        boolean result = userPurchaseRepository.existsByUserIdAndJourneyId(userId, journeyId);
-        log.info("hasPurchasedJourney: userId={}, journeyId={}, result={}", userId, journeyId, result);
+        boolean result = entitlementCache.hasPurchased(userId, journeyId);
+        log.debug("hasPurchasedJourney: userId={}, journeyId={}, result={}", userId, journeyId, result);
         return result;
     }
 
@@ -70,8 +70,18 @@ public class AccessControlService {
             log.debug("isAccessible: granted - TRIAL access for authenticated user");
             return true;
         }
-        boolean result = userPurchaseRepository.existsByUserIdAndJourneyId(userId, journeyId);
-        log.info("isAccessible purchase check: userId={}, journeyId={}, result={}", userId, journeyId, result);
+        boolean result = entitlementCache.hasPurchased(userId, journeyId);
+        log.debug("isAccessible purchase check: userId={}, journeyId={}, result={}", userId, journeyId, result);
         return result;
     }
+
+    public boolean isAccessible(AccessType accessType, UUID userId, boolean isPurchased) {
+        if (accessType == AccessType.PUBLIC) {
+            return true;
+        }
+        if (userId == null) {
+            return false;
+        }
+        return accessType == AccessType.TRIAL || isPurchased;
+    }
 }
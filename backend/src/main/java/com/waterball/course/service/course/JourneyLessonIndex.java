@@ -0,0 +1,47 @@
+package com.waterball.course.service.course;
+
+import com.waterball.course.dto.response.LessonNavResponse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public final class JourneyLessonIndex {
+    private final UUID[] ids;
+    private final String[] titles;
+    private final Map<UUID, Integer> positions;
+
+    private JourneyLessonIndex(UUID[] ids, String[] titles) {
+        this.ids = ids;
+        this.titles = titles;
+        this.positions = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            positions.put(ids[i], i);
+        }
+    }
+
+    public static JourneyLessonIndex of(List<UUID> orderedIds, List<String> orderedTitles) {
+        return new JourneyLessonIndex(orderedIds.toArray(new UUID[0]), orderedTitles.toArray(new String[0]));
+    }
+
+    public LessonNavResponse previous(UUID lessonId) {
+        Integer position = positions.get(lessonId);
+        if (position == null || position == 0) {
+            return null;
+        }
+        return new LessonNavResponse(ids[position - 1], titles[position - 1]);
+    }
+
+    public LessonNavResponse next(UUID lessonId) {
+        Integer position = positions.get(lessonId);
+        if (position == null || position == ids.length - 1) {
+            return null;
+        }
+        return new LessonNavResponse(ids[position + 1], titles[position + 1]);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+}
@@ -1,142 +1,133 @@
 package com.waterball.course.service.course;
 
+import com.waterball.course.config.TimedService;
 import com.waterball.course.dto.response.*;
-import com.waterball.course.entity.*;
-import com.waterball.course.repository.JourneyRepository;
 import com.waterball.course.repository.LessonProgressRepository;
-import com.waterball.course.repository.LessonRepository;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot;
+import com.waterball.course.service.catalog.CatalogSnapshot.ChapterNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.JourneyNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.LessonNode;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@TimedService
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class JourneyService {
-    private final JourneyRepository journeyRepository;
-    private final LessonRepository lessonRepository;
     private final LessonProgressRepository lessonProgressRepository;
     private final AccessControlService accessControlService;
+    private final CatalogService catalogService;
 
     public List<JourneyListResponse> getPublishedJourneys() {
-        List<Journey> journeys = journeyRepository.findByIsPublishedTrue();
-        return journeys.stream()
+        CatalogSnapshot catalog = catalogService.snapshot();
+        return catalog.journeys().stream()
+                .filter(JourneyNode::published)
                 .map(this::toJourneyListResponse)
                 .collect(Collectors.toList());
     }
 
     public JourneyDetailResponse getJourneyDetail(UUID journeyId, UUID userId) {
-        Journey journey = journeyRepository.findByIdAndIsPublishedTrue(journeyId)
+        CatalogSnapshot catalog = catalogService.snapshot();
+        JourneyNode journey = catalog.findJourney(journeyId)
+                .filter(JourneyNode::published)
                 .orElseThrow(() -> new EntityNotFoundException("Journey not found: " + journeyId));
 
         boolean isPurchased = accessControlService.hasPurchasedJourney(userId, journeyId);
-        
-        List<UUID> lessonIds = journey.getChapters().stream()
-                .flatMap(c -> c.getLessons().stream())
-                .map(Lesson::getId)
-                .collect(Collectors.toList());
-        
-        Map<UUID, LessonProgress> progressMap = new HashMap<>();
-        if (userId != null && !lessonIds.isEmpty()) {
-            lessonProgressRepository.findByUserIdAndLessonIds(userId, lessonIds)
-                    .forEach(p -> progressMap.put(p.getLesson().getId(), p));
-        }
-
-        return toJourneyDetailResponse(journey, userId, isPurchased, progressMap);
-    }
 
-    private JourneyListResponse toJourneyListResponse(Journey journey) {
-        int chapterCount = journey.getChapters().size();
-        int lessonCount = lessonRepository.countByJourneyId(journey.getId());
-        int totalDuration = lessonRepository.sumDurationByJourneyId(journey.getId());
+        Set<UUID> completedLessonIds = userId != null
+                ? lessonProgressRepository.findCompletedLessonIdsByUserIdAndJourneyId(userId, journeyId)
+                : Set.of();
 
-        Integer priceValue = journey.getPrice() != null 
-                ? journey.getPrice().intValue() 
-                : 1990;
+        return toJourneyDetailResponse(catalog, journey, userId, isPurchased, completedLessonIds);
+    }
 
+    private JourneyListResponse toJourneyListResponse(JourneyNode journey) {
         return JourneyListResponse.builder()
-                .id(journey.getId())
-                .title(journey.getTitle())
-                .description(journey.getDescription())
-                .thumbnailUrl(journey.getThumbnailUrl())
-                .chapterCount(chapterCount)
-                .lessonCount(lessonCount)
-                .totalDurationSeconds(totalDuration)
-                .price(priceValue)
+                .id(journey.id())
+                .title(journey.title())
+                .description(journey.description())
+                .thumbnailUrl(journey.thumbnailUrl())
+                .chapterCount(journey.chapters().size())
+                .lessonCount(journey.lessonIndex().size())
+                .totalDurationSeconds(journey.totalDurationSeconds())
+                .price(toPriceValue(journey.price()))
                 .currency("TWD")
                 .originalPrice(null)
                 .discountPercentage(null)
                 .build();
     }
 
-    private JourneyDetailResponse toJourneyDetailResponse(Journey journey, UUID userId, 
-            boolean isPurchased, Map<UUID, LessonProgress> progressMap) {
-        List<ChapterResponse> chapters = journey.getChapters().stream()
-                .map(chapter -> toChapterResponse(chapter, userId, journey.getId(), progressMap))
+    private JourneyDetailResponse toJourneyDetailResponse(CatalogSnapshot catalog, JourneyNode journey, UUID userId,
+            boolean isPurchased, Set<UUID> completedLessonIds) {
+        List<ChapterResponse> chapters = catalog.chaptersOf(journey).stream()
+                .map(chapter -> toChapterResponse(catalog, chapter, userId, isPurchased, completedLessonIds))
                 .collect(Collectors.toList());
 
-        Integer priceValue = journey.getPrice() != null 
-                ? journey.getPrice().intValue() 
-                : 1990;
-
         return JourneyDetailResponse.builder()
-                .id(journey.getId())
-                .title(journey.getTitle())
-                .description(journey.getDescription())
-                .thumbnailUrl(journey.getThumbnailUrl())
+                .id(journey.id())
+                .title(journey.title())
+                .description(journey.description())
+                .thumbnailUrl(journey.thumbnailUrl())
                 .chapters(chapters)
                 .isPurchased(isPurchased)
-                .price(priceValue)
+                .price(toPriceValue(journey.price()))
                 .currency("TWD")
                 .originalPrice(null)
                 .discountPercentage(null)
                 .build();
     }
 
-    private ChapterResponse toChapterResponse(Chapter chapter, UUID userId, UUID journeyId,
-            Map<UUID, LessonProgress> progressMap) {
-        List<LessonSummaryResponse> lessons = chapter.getLessons().stream()
-                .map(lesson -> toLessonSummaryResponse(lesson, userId, journeyId, progressMap))
+    private ChapterResponse toChapterResponse(CatalogSnapshot catalog, ChapterNode chapter, UUID userId,
+            boolean isPurchased, Set<UUID> completedLessonIds) {
+        List<LessonSummaryResponse> lessons = catalog.lessonsOf(chapter).stream()
+                .map(lesson -> toLessonSummaryResponse(lesson, userId, isPurchased, completedLessonIds))
                 .collect(Collectors.toList());
 
         return ChapterResponse.builder()
-                .id(chapter.getId())
-                .title(chapter.getTitle())
-                .description(chapter.getDescription())
-                .sortOrder(chapter.getSortOrder())
-                .accessType(chapter.getAccessType())
+                .id(chapter.id())
+                .title(chapter.title())
+                .description(chapter.description())
+                .sortOrder(chapter.sortOrder())
+                .accessType(chapter.accessType())
                 .lessons(lessons)
                 .build();
     }
 
-    private LessonSummaryResponse toLessonSummaryResponse(Lesson lesson, UUID userId, 
-            UUID journeyId, Map<UUID, LessonProgress> progressMap) {
-        boolean isAccessible = accessControlService.isAccessible(lesson.getAccessType(), userId, journeyId);
-        LessonProgress progress = progressMap.get(lesson.getId());
-        boolean isCompleted = progress != null && Boolean.TRUE.equals(progress.getIsCompleted());
+    private LessonSummaryResponse toLessonSummaryResponse(LessonNode lesson, UUID userId,
+            boolean isPurchased, Set<UUID> completedLessonIds) {
+        boolean isAccessible = accessControlService.isAccessible(lesson.accessType(), userId, isPurchased);
+        boolean isCompleted = completedLessonIds.contains(lesson.id());
 
         InstructorResponse instructor = null;
-        if (lesson.getInstructor() != null) {
+        if (lesson.instructor() != null) {
             instructor = InstructorResponse.builder()
-                    .id(lesson.getInstructor().getId())
-                    .name(lesson.getInstructor().getName())
-                    .pictureUrl(lesson.getInstructor().getPictureUrl())
+                    .id(lesson.instructor().id())
+                    .name(lesson.instructor().name())
+                    .pictureUrl(lesson.instructor().pictureUrl())
                     .build();
         }
 
         return LessonSummaryResponse.builder()
-                .id(lesson.getId())
-                .title(lesson.getTitle())
-                .lessonType(lesson.getLessonType())
-                .durationSeconds(lesson.getDurationSeconds())
-                .accessType(lesson.getAccessType())
+                .id(lesson.id())
+                .title(lesson.title())
+                .lessonType(lesson.lessonType())
+                .durationSeconds(lesson.durationSeconds())
+                .accessType(lesson.accessType())
                 .isAccessible(isAccessible)
                 .isCompleted(isCompleted)
                 .instructor(instructor)
                 .build();
     }
+
+    private Integer toPriceValue(BigDecimal price) {
+        return price != null ? price.intValue() : 1990;
+    }
 }
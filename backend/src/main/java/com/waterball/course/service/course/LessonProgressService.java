@@ -1,5 +1,6 @@
 package com.waterball.course.service.course;
 
+import com.waterball.course.config.TimedService;
 import com.waterball.course.dto.response.*;
 import com.waterball.course.entity.*;
 import com.waterball.course.exception.AccessDeniedException;
@@ -7,6 +8,8 @@ import com.waterball.course.repository.JourneyRepository;
 import com.waterball.course.repository.LessonProgressRepository;
 import com.waterball.course.repository.LessonRepository;
 import com.waterball.course.repository.UserRepository;
+import com.waterball.course.repository.projection.ChapterProgressProjection;
+import com.waterball.course.service.UserStateCache;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,6 +21,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@TimedService
 @RequiredArgsConstructor
 public class LessonProgressService {
     private final LessonRepository lessonRepository;
@@ -25,6 +29,7 @@ public class LessonProgressService {
     private final AccessControlService accessControlService;
     private final JourneyRepository journeyRepository;
     private final UserRepository userRepository;
+    private final UserStateCache userStateCache;
 
     @Transactional
     public UpdateProgressResponse updateProgress(UUID lessonId, UUID userId, int lastPositionSeconds) {
@@ -80,6 +85,7 @@ public class LessonProgressService {
         progress.setIsCompleted(true);
         progress.setCompletedAt(LocalDateTime.now());
         lessonProgressRepository.save(progress);
+        userStateCache.evict(userId);
 
         return CompleteResponse.builder()
                 .lessonId(lessonId)
@@ -90,17 +96,19 @@ public class LessonProgressService {
 
     @Transactional(readOnly = true)
     public JourneyProgressResponse getJourneyProgress(UUID journeyId, UUID userId) {
-        Journey journey = journeyRepository.findByIdAndIsPublishedTrue(journeyId)
-                .orElseThrow(() -> new EntityNotFoundException("Journey not found: " + journeyId));
-
-        int totalLessons = lessonRepository.countByJourneyId(journeyId);
-        int completedLessons = lessonProgressRepository.countCompletedByUserIdAndJourneyId(userId, journeyId);
-        int progressPercentage = totalLessons > 0 ? (completedLessons * 100) / totalLessons : 0;
+        if (!journeyRepository.existsByIdAndIsPublishedTrue(journeyId)) {
+            throw new EntityNotFoundException("Journey not found: " + journeyId);
+        }
 
-        List<ChapterProgressResponse> chapters = journey.getChapters().stream()
-                .map(chapter -> toChapterProgressResponse(chapter, userId))
+        List<ChapterProgressResponse> chapters = lessonProgressRepository
+                .findChapterProgressByUserIdAndJourneyId(userId, journeyId).stream()
+                .map(this::toChapterProgressResponse)
                 .collect(Collectors.toList());
 
+        int totalLessons = chapters.stream().mapToInt(ChapterProgressResponse::getTotalLessons).sum();
+        int completedLessons = chapters.stream().mapToInt(ChapterProgressResponse::getCompletedLessons).sum();
+        int progressPercentage = totalLessons > 0 ? (completedLessons * 100) / totalLessons : 0;
+
         return JourneyProgressResponse.builder()
                 .journeyId(journeyId)
                 .totalLessons(totalLessons)
@@ -110,25 +118,15 @@ public class LessonProgressService {
                 .build();
     }
 
-    private ChapterProgressResponse toChapterProgressResponse(Chapter chapter, UUID userId) {
-        List<UUID> lessonIds = chapter.getLessons().stream()
-                .map(Lesson::getId)
-                .collect(Collectors.toList());
-
-        int totalLessons = lessonIds.size();
-        long completedLessons = 0;
-        
-        if (!lessonIds.isEmpty()) {
-            completedLessons = lessonProgressRepository.findByUserIdAndLessonIds(userId, lessonIds).stream()
-                    .filter(p -> Boolean.TRUE.equals(p.getIsCompleted()))
-                    .count();
-        }
+    private ChapterProgressResponse toChapterProgressResponse(ChapterProgressProjection chapter) {
+        int totalLessons = (int) chapter.getTotalLessons();
+        int completedLessons = (int) chapter.getCompletedLessons();
 
         return ChapterProgressResponse.builder()
-                .chapterId(chapter.getId())
+                .chapterId(chapter.getChapterId())
                 .title(chapter.getTitle())
                 .totalLessons(totalLessons)
-                .completedLessons((int) completedLessons)
+                .completedLessons(completedLessons)
                 .isCompleted(totalLessons > 0 && completedLessons == totalLessons)
                 .build();
     }
@@ -1,39 +1,42 @@
 package com.waterball.course.service.course;
 
+import com.waterball.course.config.TimedService;
 import com.waterball.course.dto.response.*;
 import com.waterball.course.entity.*;
 import com.waterball.course.exception.AccessDeniedException;
 import com.waterball.course.repository.LessonProgressRepository;
-import com.waterball.course.repository.LessonRepository;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot;
+import com.waterball.course.service.catalog.CatalogSnapshot.JourneyNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.LessonNode;
 import com.waterball.course.service.video.VideoService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.UUID;
 
 @Service
+@TimedService
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class LessonService {
-    private final LessonRepository lessonRepository;
     private final LessonProgressRepository lessonProgressRepository;
     private final AccessControlService accessControlService;
     private final VideoService videoService;
+    private final CatalogService catalogService;
 
     public LessonDetailResponse getLessonDetail(UUID lessonId, UUID userId) {
-        Lesson lesson = lessonRepository.findById(lessonId)
+        CatalogSnapshot catalog = catalogService.snapshot();
+        LessonNode lesson = catalog.findLesson(lessonId)
                 .orElseThrow(() -> new EntityNotFoundException("Lesson not found: " + lessonId));
+        JourneyNode journey = catalog.journey(lesson.journey());
 
-        if (!accessControlService.canAccessLesson(lesson, userId)) {
+        if (!accessControlService.isAccessible(lesson.accessType(), userId, journey.id())) {
             throw new AccessDeniedException("請購買此課程以解鎖完整內容");
         }
 
-        Chapter chapter = lesson.getChapter();
-        Journey journey = chapter.getJourney();
-
         LessonProgress progress = lessonProgressRepository
                 .findByUserIdAndLessonId(userId, lessonId)
                 .orElse(null);
@@ -44,52 +47,38 @@ public class LessonService {
                 .completedAt(progress != null ? progress.getCompletedAt() : null)
                 .build();
 
-        List<Lesson> allLessons = lessonRepository.findByJourneyIdOrdered(journey.getId());
-        LessonNavResponse previousLesson = null;
-        LessonNavResponse nextLesson = null;
-        
-        for (int i = 0; i < allLessons.size(); i++) {
-            if (allLessons.get(i).getId().equals(lessonId)) {
-                if (i > 0) {
-                    Lesson prev = allLessons.get(i - 1);
-                    previousLesson = new LessonNavResponse(prev.getId(), prev.getTitle());
-                }
-                if (i < allLessons.size() - 1) {
-                    Lesson next = allLessons.get(i + 1);
-                    nextLesson = new LessonNavResponse(next.getId(), next.getTitle());
-                }
-                break;
-            }
-        }
+        JourneyLessonIndex lessonIndex = journey.lessonIndex();
+        LessonNavResponse previousLesson = lessonIndex.previous(lessonId);
+        LessonNavResponse nextLesson = lessonIndex.next(lessonId);
 
         InstructorResponse instructor = null;
-        if (lesson.getInstructor() != null) {
+        if (lesson.instructor() != null) {
             instructor = InstructorResponse.builder()
-                    .id(lesson.getInstructor().getId())
-                    .name(lesson.getInstructor().getName())
-                    .pictureUrl(lesson.getInstructor().getPictureUrl())
+                    .id(lesson.instructor().id())
+                    .name(lesson.instructor().name())
+                    .pictureUrl(lesson.instructor().pictureUrl())
                     .build();
         }
 
         String videoStreamUrl = null;
-        if (lesson.getVideo() != null) {
-            videoStreamUrl = videoService.generateStreamUrl(lesson.getVideo().getId());
+        if (lesson.videoId() != null) {
+            videoStreamUrl = videoService.generateStreamUrl(lesson.videoId());
         }
 
         return LessonDetailResponse.builder()
-                .id(lesson.getId())
-                .title(lesson.getTitle())
-                .description(lesson.getDescription())
-                .lessonType(lesson.getLessonType())
-                .contentUrl(lesson.getContentUrl())
+                .id(lesson.id())
+                .title(lesson.title())
+                .description(lesson.description())
+                .lessonType(lesson.lessonType())
+                .contentUrl(lesson.contentUrl())
                 .videoStreamUrl(videoStreamUrl)
-                .durationSeconds(lesson.getDurationSeconds())
+                .durationSeconds(lesson.durationSeconds())
                 .instructor(instructor)
                 .progress(progressResponse)
                 .previousLesson(previousLesson)
                 .nextLesson(nextLesson)
-                .journeyId(journey.getId())
-                .journeyTitle(journey.getTitle())
+                .journeyId(journey.id())
+                .journeyTitle(journey.title())
                 .build();
     }
 }
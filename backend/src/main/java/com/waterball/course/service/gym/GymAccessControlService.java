@@ -2,6 +2,12 @@ package com.waterball.course.service.gym;
 
 import com.waterball.course.entity.*;
 import com.waterball.course.repository.*;
+import com.waterball.course.service.EntitlementCache;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot;
+import com.waterball.course.service.catalog.CatalogSnapshot.PrerequisiteRef;
+import com.waterball.course.service.catalog.CatalogSnapshot.ProblemNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.StageNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,67 +21,44 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class GymAccessControlService {
-    private final UserPurchaseRepository userPurchaseRepository;
+    private final EntitlementCache entitlementCache;
     private final LessonProgressRepository lessonProgressRepository;
     private final SubmissionRepository submissionRepository;
-    private final StagePrerequisiteRepository stagePrerequisiteRepository;
-    private final ProblemPrerequisiteRepository problemPrerequisiteRepository;
+    private final CatalogService catalogService;
 
     public boolean hasPurchasedJourney(UUID userId, UUID journeyId) {
-        if (userId == null) {
-            return false;
-        }
-        return userPurchaseRepository.existsByUserIdAndJourneyId(userId, journeyId);
+        return entitlementCache.hasPurchased(userId, journeyId);
     }
 
-    public boolean isStageUnlocked(UUID userId, Stage stage) {
+    public boolean isStageUnlocked(UUID userId, StageNode stage) {
         if (userId == null) {
             return false;
         }
         
-        List<StagePrerequisite> prerequisites = stagePrerequisiteRepository.findByStageId(stage.getId());
-        if (prerequisites.isEmpty()) {
-            return true;
-        }
-        
-        return prerequisites.stream().allMatch(prereq -> isPrerequisiteCompleted(userId, prereq));
+        return arePrerequisitesCompleted(userId, stage.prerequisites());
     }
 
-    public boolean isProblemUnlocked(UUID userId, Problem problem) {
+    public boolean isProblemUnlocked(UUID userId, ProblemNode problem) {
         if (userId == null) {
             return false;
         }
         
-        if (!isStageUnlocked(userId, problem.getStage())) {
+        CatalogSnapshot catalog = catalogService.snapshot();
+        StageNode stage = catalog.findProblem(problem.id())
+                .map(catalog::stageOf)
+                .orElse(null);
+        if (stage == null || !isStageUnlocked(userId, stage)) {
             return false;
         }
         
-        List<ProblemPrerequisite> prerequisites = problemPrerequisiteRepository.findByProblemId(problem.getId());
-        if (prerequisites.isEmpty()) {
-            return true;
-        }
-        
-        return prerequisites.stream().allMatch(prereq -> isPrerequisiteCompleted(userId, prereq));
+        return arePrerequisitesCompleted(userId, problem.prerequisites());
     }
 
-    private boolean isPrerequisiteCompleted(UUID userId, StagePrerequisite prereq) {
-        if (prereq.getPrerequisiteLesson() != null) {
-            return isLessonCompleted(userId, prereq.getPrerequisiteLesson().getId());
-        }
-        if (prereq.getPrerequisiteProblem() != null) {
-            return isProblemCompleted(userId, prereq.getPrerequisiteProblem().getId());
-        }
-        return false;
-    }
-
-    private boolean isPrerequisiteCompleted(UUID userId, ProblemPrerequisite prereq) {
-        if (prereq.getPrerequisiteLesson() != null) {
-            return isLessonCompleted(userId, prereq.getPrerequisiteLesson().getId());
-        }
-        if (prereq.getPrerequisiteProblem() != null) {
-            return isProblemCompleted(userId, prereq.getPrerequisiteProblem().getId());
-        }
-        return false;
+    private boolean arePrerequisitesCompleted(UUID userId, List<PrerequisiteRef> prerequisites) {
+        return prerequisites.stream().allMatch(prereq -> prereq.isSatisfiable() && switch (prereq.type()) {
+            case LESSON -> isLessonCompleted(userId, prereq.id());
+            case PROBLEM -> isProblemCompleted(userId, prereq.id());
+        });
     }
 
     public boolean isLessonCompleted(UUID userId, UUID lessonId) {
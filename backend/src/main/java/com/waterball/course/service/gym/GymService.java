@@ -1,13 +1,14 @@
 package com.waterball.course.service.gym;
 
-import com.waterball.course.entity.Gym;
+import com.waterball.course.config.TimedService;
 import com.waterball.course.entity.GymType;
-import com.waterball.course.entity.Stage;
 import com.waterball.course.exception.GymNotFoundException;
-import com.waterball.course.repository.GymRepository;
-import com.waterball.course.repository.ProblemRepository;
-import com.waterball.course.repository.StageRepository;
 import com.waterball.course.repository.SubmissionRepository;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot;
+import com.waterball.course.service.catalog.CatalogSnapshot.GymNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.JourneyNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.StageNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,48 +18,46 @@ import java.util.List;
 import java.util.UUID;
 
 @Service
+@TimedService
 @Slf4j
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class GymService {
-    private final GymRepository gymRepository;
-    private final StageRepository stageRepository;
-    private final ProblemRepository problemRepository;
     private final SubmissionRepository submissionRepository;
     private final GymAccessControlService gymAccessControlService;
+    private final CatalogService catalogService;
 
-    public List<Gym> getGyms(UUID journeyId, GymType type) {
-        if (journeyId != null && type != null) {
-            return gymRepository.findByJourneyIdAndGymTypeAndIsPublishedTrueOrderBySortOrder(journeyId, type);
-        }
-        if (journeyId != null) {
-            return gymRepository.findByJourneyIdAndIsPublishedTrueOrderBySortOrder(journeyId);
-        }
-        if (type != null) {
-            return gymRepository.findByGymTypeAndIsPublishedTrueOrderBySortOrder(type);
-        }
-        return gymRepository.findByIsPublishedTrueOrderBySortOrder();
+    public List<GymNode> getGyms(UUID journeyId, GymType type) {
+        CatalogSnapshot catalog = catalogService.snapshot();
+        return catalog.gyms().stream()
+                .filter(GymNode::published)
+                .filter(gym -> journeyId == null || catalog.journeyOf(gym).id().equals(journeyId))
+                .filter(gym -> type == null || gym.gymType() == type)
+                .toList();
     }
 
-    public Gym getGym(UUID gymId) {
-        return gymRepository.findByIdAndIsPublishedTrue(gymId)
+    public GymNode getGym(UUID gymId) {
+        return catalogService.snapshot().findGym(gymId)
+                .filter(GymNode::published)
                 .orElseThrow(() -> new GymNotFoundException("Gym not found: " + gymId));
     }
 
-    public List<Stage> getGymStages(UUID gymId) {
-        return stageRepository.findByGymIdOrderBySortOrder(gymId);
-    }
-
-    public List<Gym> getRelatedGyms(UUID journeyId, UUID gymId) {
-        return gymRepository.findRelatedGyms(journeyId, gymId);
+    public JourneyNode getJourney(GymNode gym) {
+        CatalogSnapshot catalog = catalogService.snapshot();
+        return catalog.findGym(gym.id())
+                .map(catalog::journeyOf)
+                .orElseThrow(() -> new GymNotFoundException("Gym not found: " + gym.id()));
     }
 
-    public int getStageCount(UUID gymId) {
-        return stageRepository.countByGymId(gymId);
+    public List<StageNode> getGymStages(UUID gymId) {
+        CatalogSnapshot catalog = catalogService.snapshot();
+        return catalog.findGym(gymId).map(catalog::stagesOf).orElse(List.of());
     }
 
-    public int getProblemCount(UUID gymId) {
-        return problemRepository.countByGymId(gymId);
+    public List<GymNode> getRelatedGyms(UUID journeyId, UUID gymId) {
+        return getGyms(journeyId, null).stream()
+                .filter(gym -> !gym.id().equals(gymId))
+                .toList();
     }
 
     public int getCompletedProblemCount(UUID userId, UUID gymId) {
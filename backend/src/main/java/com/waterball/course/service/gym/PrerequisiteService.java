@@ -1,7 +1,10 @@
 package com.waterball.course.service.gym;
 
+import com.waterball.course.config.TimedService;
 import com.waterball.course.entity.*;
 import com.waterball.course.repository.*;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot.PrerequisiteRef;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,6 +14,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Service
+@TimedService
 @Slf4j
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -18,6 +22,7 @@ public class PrerequisiteService {
     private final StagePrerequisiteRepository stagePrerequisiteRepository;
     private final ProblemPrerequisiteRepository problemPrerequisiteRepository;
     private final GymAccessControlService gymAccessControlService;
+    private final CatalogService catalogService;
 
     public List<StagePrerequisite> getStagePrerequisites(UUID stageId) {
         return stagePrerequisiteRepository.findByStageId(stageId);
@@ -35,58 +40,35 @@ public class PrerequisiteService {
     ) {}
 
     public List<PrerequisiteInfo> getStagePrerequisiteInfos(UUID stageId, UUID userId) {
-        return stagePrerequisiteRepository.findByStageId(stageId).stream()
-                .map(prereq -> toPrerequisiteInfo(prereq, userId))
-                .toList();
+        return catalogService.snapshot().findStage(stageId)
+                .map(stage -> toPrerequisiteInfos(stage.prerequisites(), userId))
+                .orElse(List.of());
     }
 
     public List<PrerequisiteInfo> getProblemPrerequisiteInfos(UUID problemId, UUID userId) {
-        return problemPrerequisiteRepository.findByProblemId(problemId).stream()
-                .map(prereq -> toPrerequisiteInfo(prereq, userId))
-                .toList();
+        return catalogService.snapshot().findProblem(problemId)
+                .map(problem -> toPrerequisiteInfos(problem.prerequisites(), userId))
+                .orElse(List.of());
     }
 
-    private PrerequisiteInfo toPrerequisiteInfo(StagePrerequisite prereq, UUID userId) {
-        if (prereq.getPrerequisiteLesson() != null) {
-            Lesson lesson = prereq.getPrerequisiteLesson();
-            return new PrerequisiteInfo(
-                    PrerequisiteType.LESSON,
-                    lesson.getId(),
-                    lesson.getTitle(),
-                    gymAccessControlService.isLessonCompleted(userId, lesson.getId())
-            );
-        }
-        if (prereq.getPrerequisiteProblem() != null) {
-            Problem problem = prereq.getPrerequisiteProblem();
-            return new PrerequisiteInfo(
-                    PrerequisiteType.PROBLEM,
-                    problem.getId(),
-                    problem.getTitle(),
-                    gymAccessControlService.isProblemCompleted(userId, problem.getId())
-            );
-        }
-        throw new IllegalStateException("Invalid prerequisite: no lesson or problem set");
+    private List<PrerequisiteInfo> toPrerequisiteInfos(List<PrerequisiteRef> prerequisites, UUID userId) {
+        return prerequisites.stream()
+                .map(prereq -> toPrerequisiteInfo(prereq, userId))
+                .toList();
     }
 
-    private PrerequisiteInfo toPrerequisiteInfo(ProblemPrerequisite prereq, UUID userId) {
-        if (prereq.getPrerequisiteLesson() != null) {
-            Lesson lesson = prereq.getPrerequisiteLesson();
-            return new PrerequisiteInfo(
-                    PrerequisiteType.LESSON,
-                    lesson.getId(),
-                    lesson.getTitle(),
-                    gymAccessControlService.isLessonCompleted(userId, lesson.getId())
-            );
-        }
-        if (prereq.getPrerequisiteProblem() != null) {
-            Problem problem = prereq.getPrerequisiteProblem();
-            return new PrerequisiteInfo(
-                    PrerequisiteType.PROBLEM,
-                    problem.getId(),
-                    problem.getTitle(),
-                    gymAccessControlService.isProblemCompleted(userId, problem.getId())
-            );
+    private PrerequisiteInfo toPrerequisiteInfo(PrerequisiteRef prereq, UUID userId) {
+        if (!prereq.isSatisfiable()) {
+            throw new IllegalStateException("Invalid prerequisite: no lesson or problem set");
         }
-        throw new IllegalStateException("Invalid prerequisite: no lesson or problem set");
+        return new PrerequisiteInfo(
+                prereq.type(),
+                prereq.id(),
+                prereq.title(),
+                switch (prereq.type()) {
+                    case LESSON -> gymAccessControlService.isLessonCompleted(userId, prereq.id());
+                    case PROBLEM -> gymAccessControlService.isProblemCompleted(userId, prereq.id());
+                }
+        );
     }
 }
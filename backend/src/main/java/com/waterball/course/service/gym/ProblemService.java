@@ -1,34 +1,46 @@
 package com.waterball.course.service.gym;
 
-import com.waterball.course.entity.Problem;
+import com.waterball.course.config.TimedService;
 import com.waterball.course.entity.Submission;
 import com.waterball.course.entity.SubmissionStatus;
 import com.waterball.course.exception.ProblemNotFoundException;
-import com.waterball.course.repository.ProblemRepository;
 import com.waterball.course.repository.SubmissionRepository;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot;
+import com.waterball.course.service.catalog.CatalogSnapshot.ProblemNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.StageNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
+@TimedService
 @Slf4j
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ProblemService {
-    private final ProblemRepository problemRepository;
     private final SubmissionRepository submissionRepository;
     private final GymAccessControlService gymAccessControlService;
+    private final CatalogService catalogService;
 
-    public Problem getProblem(UUID problemId) {
-        return problemRepository.findById(problemId)
+    public ProblemNode getProblem(UUID problemId) {
+        return catalogService.snapshot().findProblem(problemId)
                 .orElseThrow(() -> new ProblemNotFoundException("Problem not found: " + problemId));
     }
 
-    public boolean isProblemUnlocked(UUID userId, Problem problem) {
+    public StageNode getStage(ProblemNode problem) {
+        CatalogSnapshot catalog = catalogService.snapshot();
+        return catalog.findProblem(problem.id())
+                .map(catalog::stageOf)
+                .orElseThrow(() -> new ProblemNotFoundException("Problem not found: " + problem.id()));
+    }
+
+    public boolean isProblemUnlocked(UUID userId, ProblemNode problem) {
         return gymAccessControlService.isProblemUnlocked(userId, problem);
     }
 
@@ -47,11 +59,26 @@ public class ProblemService {
         return getLatestSubmission(userId, problemId).map(Submission::getStatus);
     }
 
-    public Optional<Problem> getPreviousProblem(UUID stageId, int sortOrder) {
-        return problemRepository.findPreviousProblem(stageId, sortOrder);
+    public Optional<ProblemNode> getPreviousProblem(ProblemNode problem) {
+        return getSibling(problem, -1);
+    }
+
+    public Optional<ProblemNode> getNextProblem(ProblemNode problem) {
+        return getSibling(problem, 1);
     }
 
-    public Optional<Problem> getNextProblem(UUID stageId, int sortOrder) {
-        return problemRepository.findNextProblem(stageId, sortOrder);
+    private Optional<ProblemNode> getSibling(ProblemNode problem, int offset) {
+        CatalogSnapshot catalog = catalogService.snapshot();
+        return catalog.findProblem(problem.id()).flatMap(current -> {
+            List<Integer> siblings = catalog.stageOf(current).problems();
+            int position = siblings.indexOf(current.index());
+            if (position < 0) {
+                return Optional.empty();
+            }
+            int target = position + offset;
+            return target >= 0 && target < siblings.size()
+                    ? Optional.of(catalog.problem(siblings.get(target)))
+                    : Optional.empty();
+        });
     }
 }
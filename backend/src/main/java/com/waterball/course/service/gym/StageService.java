@@ -1,11 +1,13 @@
 package com.waterball.course.service.gym;
 
-import com.waterball.course.entity.Problem;
-import com.waterball.course.entity.Stage;
+import com.waterball.course.config.TimedService;
 import com.waterball.course.exception.StageNotFoundException;
-import com.waterball.course.repository.ProblemRepository;
-import com.waterball.course.repository.StageRepository;
 import com.waterball.course.repository.SubmissionRepository;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot;
+import com.waterball.course.service.catalog.CatalogSnapshot.GymNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.ProblemNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.StageNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,31 +17,41 @@ import java.util.List;
 import java.util.UUID;
 
 @Service
+@TimedService
 @Slf4j
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class StageService {
-    private final StageRepository stageRepository;
-    private final ProblemRepository problemRepository;
     private final SubmissionRepository submissionRepository;
     private final GymAccessControlService gymAccessControlService;
+    private final CatalogService catalogService;
 
-    public Stage getStage(UUID stageId) {
-        return stageRepository.findById(stageId)
+    public StageNode getStage(UUID stageId) {
+        return catalogService.snapshot().findStage(stageId)
                 .orElseThrow(() -> new StageNotFoundException("Stage not found: " + stageId));
     }
 
-    public Stage getStageByGym(UUID gymId, UUID stageId) {
-        return stageRepository.findByIdAndGymId(stageId, gymId)
+    public StageNode getStageByGym(UUID gymId, UUID stageId) {
+        CatalogSnapshot catalog = catalogService.snapshot();
+        return catalog.findStage(stageId)
+                .filter(stage -> catalog.gymOf(stage).id().equals(gymId))
                 .orElseThrow(() -> new StageNotFoundException("Stage not found: " + stageId));
     }
 
-    public List<Problem> getStageProblems(UUID stageId) {
-        return problemRepository.findByStageIdOrderBySortOrder(stageId);
+    public GymNode getGym(StageNode stage) {
+        CatalogSnapshot catalog = catalogService.snapshot();
+        return catalog.findStage(stage.id())
+                .map(catalog::gymOf)
+                .orElseThrow(() -> new StageNotFoundException("Stage not found: " + stage.id()));
     }
 
-    public int getProblemCount(UUID stageId) {
-        return problemRepository.countByStageId(stageId);
+    public List<ProblemNode> getStageProblems(UUID stageId) {
+        CatalogSnapshot catalog = catalogService.snapshot();
+        return catalog.findStage(stageId).map(catalog::problemsOf).orElse(List.of());
+    }
+
+    public int getProblemCount(StageNode stage) {
+        return stage.problems().size();
     }
 
     public int getCompletedProblemCount(UUID userId, UUID stageId) {
@@ -49,7 +61,7 @@ public class StageService {
         return submissionRepository.countCompletedByUserIdAndStageId(userId, stageId);
     }
 
-    public boolean isStageUnlocked(UUID userId, Stage stage) {
+    public boolean isStageUnlocked(UUID userId, StageNode stage) {
         return gymAccessControlService.isStageUnlocked(userId, stage);
     }
 }
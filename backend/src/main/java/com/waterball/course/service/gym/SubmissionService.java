@@ -1,13 +1,18 @@
 package com.waterball.course.service.gym;
 
+import com.waterball.course.config.TimedService;
 import com.waterball.course.dto.gym.GymProgressResponse;
 import com.waterball.course.entity.*;
 import com.waterball.course.exception.*;
-import com.waterball.course.repository.GymRepository;
 import com.waterball.course.repository.ProblemRepository;
 import com.waterball.course.repository.ReviewRepository;
 import com.waterball.course.repository.SubmissionRepository;
 import com.waterball.course.service.StorageService;
+import com.waterball.course.service.UserStateCache;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot;
+import com.waterball.course.service.catalog.CatalogSnapshot.GymNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.ProblemNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -23,6 +28,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@TimedService
 @Slf4j
 @RequiredArgsConstructor
 public class SubmissionService {
@@ -33,11 +39,11 @@ public class SubmissionService {
 
     private final SubmissionRepository submissionRepository;
     private final ReviewRepository reviewRepository;
-    private final ProblemService problemService;
     private final GymAccessControlService gymAccessControlService;
     private final StorageService storageService;
-    private final GymRepository gymRepository;
     private final ProblemRepository problemRepository;
+    private final CatalogService catalogService;
+    private final UserStateCache userStateCache;
 
     @Transactional(readOnly = true)
     public Submission getSubmission(UUID submissionId) {
@@ -68,9 +74,11 @@ public class SubmissionService {
 
     @Transactional
     public Submission createSubmission(UUID userId, UUID problemId, MultipartFile file, boolean isPublic) {
-        Problem problem = problemService.getProblem(problemId);
+        CatalogSnapshot catalog = catalogService.snapshot();
+        ProblemNode problem = catalog.findProblem(problemId)
+                .orElseThrow(() -> new ProblemNotFoundException("Problem not found: " + problemId));
         
-        UUID journeyId = problem.getStage().getGym().getJourney().getId();
+        UUID journeyId = catalog.journeyOf(catalog.gymOf(catalog.stageOf(problem))).id();
         if (!gymAccessControlService.hasPurchasedJourney(userId, journeyId)) {
             throw new AccessDeniedException("Course not purchased");
         }
@@ -94,7 +102,7 @@ public class SubmissionService {
         
         Submission submission = new Submission();
         submission.setUser(user);
-        submission.setProblem(problem);
+        submission.setProblem(problemRepository.getReferenceById(problemId));
         submission.setFileUrl(fileUrl);
         submission.setFileType(fileType);
         submission.setFileName(file.getOriginalFilename());
@@ -102,6 +110,7 @@ public class SubmissionService {
         submission.setStatus(SubmissionStatus.PENDING);
         submission.setIsPublic(isPublic);
         submission.setVersion(nextVersion);
+        userStateCache.evict(userId);
         
         return submissionRepository.save(submission);
     }
@@ -116,6 +125,7 @@ public class SubmissionService {
         
         submission.setIsPublic(isPublic);
         submission.setUpdatedAt(LocalDateTime.now());
+        userStateCache.evict(userId);
         
         return submissionRepository.save(submission);
     }
@@ -127,13 +137,13 @@ public class SubmissionService {
         return userId != null && submission.getUser().getId().equals(userId);
     }
 
-    private SubmissionType validateAndGetFileType(MultipartFile file, Problem problem) {
+    private SubmissionType validateAndGetFileType(MultipartFile file, ProblemNode problem) {
         String contentType = file.getContentType();
         String fileName = file.getOriginalFilename();
         
         SubmissionType detectedType = detectFileType(contentType, fileName);
         
-        List<SubmissionType> allowedTypes = problem.getSubmissionTypeList();
+        List<SubmissionType> allowedTypes = problem.submissionTypes();
         if (!allowedTypes.contains(detectedType)) {
             throw new InvalidFileTypeException("File type not allowed for this problem. Allowed: " + allowedTypes);
         }
@@ -199,7 +209,9 @@ public class SubmissionService {
 
     @Transactional(readOnly = true)
     public GymProgressResponse getUserProgress(UUID userId) {
-        List<Gym> gyms = gymRepository.findByIsPublishedTrueOrderBySortOrder();
+        List<GymNode> gyms = catalogService.snapshot().gyms().stream()
+                .filter(GymNode::published)
+                .toList();
         
         int totalGyms = gyms.size();
         int completedGyms = 0;
@@ -209,15 +221,15 @@ public class SubmissionService {
         
         List<GymProgressResponse.GymProgressItemResponse> gymItems = gyms.stream()
                 .map(gym -> {
-                    int problemCount = problemRepository.countByGymId(gym.getId());
-                    int completedCount = (int) submissionRepository.countCompletedByUserIdAndGymId(userId, gym.getId());
+                    int problemCount = gym.problemCount();
+                    int completedCount = (int) submissionRepository.countCompletedByUserIdAndGymId(userId, gym.id());
                     int pendingCount = 0;
                     int progressPercentage = problemCount > 0 ? (completedCount * 100) / problemCount : 0;
                     
                     return new GymProgressResponse.GymProgressItemResponse(
-                            gym.getId(),
-                            gym.getTitle(),
-                            gym.getGymType(),
+                            gym.id(),
+                            gym.title(),
+                            gym.gymType(),
                             problemCount,
                             completedCount,
                             pendingCount,
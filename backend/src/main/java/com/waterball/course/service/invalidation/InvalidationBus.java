@@ -0,0 +1,143 @@
+package com.waterball.course.service.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class InvalidationBus {
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.invalidation.channel:cache_invalidation}")
+    private String channel;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<InvalidationType, List<InvalidationHandler>> handlers = new ConcurrentHashMap<>();
+
+    public void register(InvalidationType type, InvalidationHandler handler) {
+        handlers.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    public void unregister(InvalidationType type, InvalidationHandler handler) {
+        List<InvalidationHandler> registered = handlers.get(type);
+        if (registered != null) {
+            registered.remove(handler);
+        }
+    }
+
+    public void publish(InvalidationType type, Object entityId, long version) {
+        InvalidationEvent event = new InvalidationEvent(
+                type, entityId != null ? entityId.toString() : null, version, nodeId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(event);
+            notifyPeers(event);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<InvalidationEvent> pending = (Set<InvalidationEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<InvalidationEvent> events = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    events.forEach(InvalidationBus.this::dispatch);
+                    events.forEach(InvalidationBus.this::notifyPeers);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationBus.this);
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    void onNotification(String payload) {
+        InvalidationEvent event;
+        try {
+            event = objectMapper.readValue(payload, InvalidationEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed invalidation payload: {}", payload);
+            return;
+        }
+        if (nodeId.equals(event.origin())) {
+            return;
+        }
+        dispatch(event);
+    }
+
+    void resyncAll() {
+        handlers.values().stream()
+                .flatMap(List::stream)
+                .distinct()
+                .forEach(handler -> {
+                    try {
+                        handler.onResync();
+                    } catch (RuntimeException e) {
+                        log.error("Invalidation handler failed to resync: handler={}", handler.getClass().getSimpleName(), e);
+                    }
+                });
+    }
+
+    private void dispatch(InvalidationEvent event) {
+        for (InvalidationHandler handler : handlers.getOrDefault(event.type(), List.of())) {
+            try {
+                handler.onInvalidation(event);
+            } catch (RuntimeException e) {
+                log.error("Invalidation handler failed: type={}, entityId={}", event.type(), event.entityId(), e);
+            }
+        }
+    }
+
+    // Runs on its own pooled connection: after commit the transaction's connection is
+    // still bound to the thread and a notify issued on it would never be committed.
+    private void notifyPeers(InvalidationEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            connection.setAutoCommit(true);
+            statement.setString(1, channel);
+            statement.setString(2, objectMapper.writeValueAsString(event));
+            statement.execute();
+        } catch (SQLException | JsonProcessingException e) {
+            log.warn("Failed to publish invalidation: type={}, entityId={}", event.type(), event.entityId(), e);
+        }
+    }
+}
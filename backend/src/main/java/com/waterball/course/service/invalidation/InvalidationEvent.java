@@ -0,0 +1,8 @@
+package com.waterball.course.service.invalidation;
+
+public record InvalidationEvent(
+        InvalidationType type,
+        String entityId,
+        long version,
+        String origin
+) {}
@@ -0,0 +1,11 @@
+package com.waterball.course.service.invalidation;
+
+public interface InvalidationHandler {
+    void onInvalidation(InvalidationEvent event);
+
+    /**
+     * Called after the listener (re)connects, since notifications sent while it was
+     * disconnected are lost. Handlers should drop or revalidate everything they hold.
+     */
+    void onResync();
+}
@@ -0,0 +1,128 @@
+package com.waterball.course.service.invalidation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Holds one dedicated (non-pooled) connection that LISTENs on the invalidation channel.
+ * On every (re)connect all handlers are resynced, because Postgres does not replay
+ * notifications sent while the session was gone.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class InvalidationListener implements SmartLifecycle {
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final InvalidationBus invalidationBus;
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${app.invalidation.poll-timeout-ms:10000}")
+    private int pollTimeoutMs;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "invalidation-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly();
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long backoffMs = 1_000;
+        while (running) {
+            try {
+                connect();
+                invalidationBus.resyncAll();
+                backoffMs = 1_000;
+                listen();
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Invalidation listener disconnected, retrying in {}ms: {}", backoffMs, e.getMessage());
+                closeQuietly();
+                sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void connect() throws SQLException {
+        connection = DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + invalidationBus.getChannel());
+        }
+        log.info("Invalidation listener connected: channel={}", invalidationBus.getChannel());
+    }
+
+    private void listen() throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+            if (notifications == null || notifications.length == 0) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                invalidationBus.onNotification(notification.getParameter());
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.waterball.course.service.invalidation;
+
+public enum InvalidationType {
+    CATALOG,
+    USER,
+    ACCESS_TOKEN_REVOKED,
+    ENTITLEMENT,
+    USER_STATE
+}
@@ -0,0 +1,101 @@
+package com.waterball.course.service.payment;
+
+import com.waterball.course.repository.CheckoutSessionRepository;
+import com.waterball.course.repository.PurchaseOrderRepository;
+import com.waterball.course.service.purchase.PurchaseFunnelRecorder;
+import com.waterball.course.service.purchase.PurchaseFunnelStage;
+import com.waterball.course.util.LoggingConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Expires overdue PENDING checkout sessions and purchase orders in bounded batches. Each
+ * batch locks its rows with {@code FOR UPDATE SKIP LOCKED}, so several nodes can sweep
+ * concurrently without blocking each other or touching the same rows twice.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CheckoutExpirySweeper {
+    private final CheckoutSessionRepository checkoutSessionRepository;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final PurchaseFunnelRecorder funnelRecorder;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.payment.expiry-sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.payment.expiry-sweeper.max-batches:20}")
+    private int maxBatches;
+
+    @Scheduled(initialDelayString = "${app.payment.expiry-sweeper.initial-delay-ms:30000}",
+            fixedDelayString = "${app.payment.expiry-sweeper.interval-ms:60000}")
+    public void run() {
+        sweep(Instant.now());
+    }
+
+    public SweepResult sweep(Instant now) {
+        int sessions = 0;
+        int orders = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            BatchResult result = transactionTemplate.execute(status -> sweepSessionBatch(now));
+            sessions += result.sessions();
+            orders += result.orders();
+            if (result.locked() < batchSize) {
+                break;
+            }
+        }
+        for (int batch = 0; batch < maxBatches; batch++) {
+            BatchResult result = transactionTemplate.execute(status -> sweepOrderBatch(now));
+            sessions += result.sessions();
+            orders += result.orders();
+            if (result.locked() < batchSize) {
+                break;
+            }
+        }
+
+        funnelRecorder.record(PurchaseFunnelStage.ORDER_EXPIRED, orders);
+        if (sessions > 0 || orders > 0) {
+            log.info("Expired checkout sessions and purchase orders",
+                kv("event", LoggingConstants.CHECKOUT_SESSION_EXPIRED),
+                kv("sessions", sessions),
+                kv("orders", orders));
+        }
+        return new SweepResult(sessions, orders);
+    }
+
+    private BatchResult sweepSessionBatch(Instant now) {
+        List<String> sessionIds = checkoutSessionRepository.lockExpiredPendingIds(now, batchSize);
+        if (sessionIds.isEmpty()) {
+            return new BatchResult(0, 0, 0);
+        }
+        int sessions = checkoutSessionRepository.markExpired(sessionIds);
+        List<UUID> orderIds = checkoutSessionRepository.findPurchaseOrderIdsByIdIn(sessionIds);
+        int orders = orderIds.isEmpty() ? 0 : purchaseOrderRepository.markExpired(orderIds, now);
+        return new BatchResult(sessionIds.size(), sessions, orders);
+    }
+
+    private BatchResult sweepOrderBatch(Instant now) {
+        List<UUID> orderIds = purchaseOrderRepository.lockExpiredPendingIds(now, batchSize);
+        if (orderIds.isEmpty()) {
+            return new BatchResult(0, 0, 0);
+        }
+        int orders = purchaseOrderRepository.markExpired(orderIds, now);
+        int sessions = checkoutSessionRepository.markExpiredByPurchaseOrderIdIn(orderIds);
+        return new BatchResult(orderIds.size(), sessions, orders);
+    }
+
+    private record BatchResult(int locked, int sessions, int orders) {}
+
+    public record SweepResult(int sessions, int orders) {}
+}
@@ -0,0 +1,60 @@
+package com.waterball.course.service.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waterball.course.dto.request.PaymentWebhookRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Posts payment results to a webhook endpoint, the way a real gateway would call us.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.payment.outbox.delivery", havingValue = "http")
+public class HttpPaymentResultSender implements PaymentResultSender {
+    private final ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    @Value("${app.payment.outbox.webhook-url}")
+    private String webhookUrl;
+
+    @Value("${app.payment.webhook-secret:mock-webhook-secret-12345}")
+    private String webhookSecret;
+
+    @Value("${app.payment.outbox.request-timeout-ms:5000}")
+    private long requestTimeoutMs;
+
+    @Override
+    public void send(String sessionId, PaymentResult result) throws IOException, InterruptedException {
+        PaymentWebhookRequest body = new PaymentWebhookRequest(
+                sessionId,
+                result.success() ? "SUCCESS" : "FAILED",
+                result.failureReason(),
+                Instant.now());
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(webhookUrl))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Content-Type", "application/json")
+                .header("X-Webhook-Secret", webhookSecret)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            throw new IOException("Webhook endpoint returned " + response.statusCode());
+        }
+    }
+}
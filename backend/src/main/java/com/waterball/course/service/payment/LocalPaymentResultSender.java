@@ -0,0 +1,17 @@
+package com.waterball.course.service.payment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.payment.outbox.delivery", havingValue = "local", matchIfMissing = true)
+public class LocalPaymentResultSender implements PaymentResultSender {
+    private final PaymentWebhookService webhookService;
+
+    @Override
+    public void send(String sessionId, PaymentResult result) {
+        webhookService.handlePaymentResult(sessionId, result);
+    }
+}
@@ -1,18 +1,22 @@
 package com.waterball.course.service.payment;
 
+import com.waterball.course.config.TimedService;
 import com.waterball.course.dto.request.CreateCheckoutRequest;
 import com.waterball.course.entity.CheckoutSession;
 import com.waterball.course.entity.CheckoutSessionStatus;
 import com.waterball.course.entity.PaymentMethod;
 import com.waterball.course.exception.CheckoutSessionNotFoundException;
+import com.waterball.course.exception.PaymentGatewayTimeoutException;
 import com.waterball.course.exception.SessionExpiredException;
 import com.waterball.course.repository.CheckoutSessionRepository;
+import com.waterball.course.service.purchase.PurchaseFunnelRecorder;
+import com.waterball.course.service.purchase.PurchaseFunnelStage;
 import com.waterball.course.util.LoggingConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -22,11 +26,15 @@ import java.util.UUID;
 import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @Service
+@TimedService
 @Slf4j
 @RequiredArgsConstructor
 public class MockPaymentGatewayService {
     private final CheckoutSessionRepository checkoutSessionRepository;
-    private final PaymentWebhookService webhookService;
+    private final PaymentOutboxService paymentOutboxService;
+    private final PaymentGatewaySimulator simulator;
+    private final PurchaseFunnelRecorder funnelRecorder;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.payment.checkout-expiration-minutes:60}")
     private int checkoutExpirationMinutes;
@@ -56,6 +64,7 @@ public class MockPaymentGatewayService {
             kv("orderId", request.getPurchaseOrderId()),
             kv("amount", request.getAmount()),
             kv("paymentMethod", request.getPaymentMethod()));
+        funnelRecorder.record(PurchaseFunnelStage.CHECKOUT_SESSION_CREATED, null);
 
         return saved;
     }
@@ -68,12 +77,22 @@ public class MockPaymentGatewayService {
         return checkoutSessionRepository.findById(sessionId);
     }
 
-    @Transactional
     public PaymentResult processPayment(String sessionId, PaymentDetails details) {
         log.info("Payment processing started",
             kv("event", LoggingConstants.PAYMENT_PROCESSING_STARTED),
             kv("sessionId", sessionId));
 
+        PaymentGatewaySimulator.Outcome outcome;
+        try {
+            outcome = simulator.call(sessionId);
+        } catch (PaymentGatewayTimeoutException e) {
+            funnelRecorder.record(PurchaseFunnelStage.PAYMENT_TIMED_OUT, null);
+            throw e;
+        }
+        return transactionTemplate.execute(status -> settle(sessionId, details, outcome));
+    }
+
+    private PaymentResult settle(String sessionId, PaymentDetails details, PaymentGatewaySimulator.Outcome outcome) {
         CheckoutSession session = checkoutSessionRepository.findById(sessionId)
             .orElseThrow(() -> new CheckoutSessionNotFoundException("Session not found"));
 
@@ -87,7 +106,9 @@ public class MockPaymentGatewayService {
             throw new SessionExpiredException("Session expired");
         }
 
-        PaymentResult result = simulatePayment(session.getPaymentMethod(), details);
+        PaymentResult result = outcome.declined()
+            ? PaymentResult.failed("Declined by gateway")
+            : simulatePayment(session.getPaymentMethod(), details);
 
         session.setStatus(result.success() ?
             CheckoutSessionStatus.SUCCESS : CheckoutSessionStatus.FAILED);
@@ -100,15 +121,19 @@ public class MockPaymentGatewayService {
                 kv("sessionId", sessionId),
                 kv("orderId", session.getPurchaseOrderId()),
                 kv("amount", session.getAmount()));
+            funnelRecorder.record(PurchaseFunnelStage.PAYMENT_SUCCEEDED, null, session.getCreatedAt());
         } else {
             log.warn("Payment failed",
                 kv("event", LoggingConstants.PAYMENT_FAILED),
                 kv("sessionId", sessionId),
                 kv("orderId", session.getPurchaseOrderId()),
                 kv("reason", result.failureReason()));
+            funnelRecorder.record(PurchaseFunnelStage.PAYMENT_FAILED, null, session.getCreatedAt());
         }
 
-        webhookService.sendPaymentNotification(session, result);
+        for (int i = 0; i < outcome.webhookCopies(); i++) {
+            paymentOutboxService.enqueue(session.getId(), result, outcome.webhookDelay());
+        }
 
         return result;
     }
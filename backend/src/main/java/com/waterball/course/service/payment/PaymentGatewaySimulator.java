@@ -0,0 +1,120 @@
+package com.waterball.course.service.payment;
+
+import com.waterball.course.exception.PaymentGatewayTimeoutException;
+import com.waterball.course.util.LoggingConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Makes the mock gateway behave like a real one under load: response latency drawn from a
+ * configurable distribution, random declines, timeouts, and webhooks that arrive late or more
+ * than once. Disabled unless {@code app.payment.mock-gateway.simulation.enabled} is set (see
+ * the {@code payment-sim} profile), in which case the gateway answers instantly as before.
+ */
+@Component
+@Slf4j
+public class PaymentGatewaySimulator {
+
+    public enum LatencyDistribution {
+        FIXED,
+        NORMAL,
+        /** Log-normal around the mean, so a few calls take many times longer than the median. */
+        LONG_TAIL
+    }
+
+    @Value("${app.payment.mock-gateway.simulation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.payment.mock-gateway.simulation.latency.distribution:FIXED}")
+    private LatencyDistribution distribution;
+
+    @Value("${app.payment.mock-gateway.simulation.latency.mean-ms:0}")
+    private long meanMs;
+
+    @Value("${app.payment.mock-gateway.simulation.latency.stddev-ms:0}")
+    private long stddevMs;
+
+    @Value("${app.payment.mock-gateway.simulation.latency.tail-sigma:1.0}")
+    private double tailSigma;
+
+    @Value("${app.payment.mock-gateway.simulation.timeout-ms:0}")
+    private long timeoutMs;
+
+    @Value("${app.payment.mock-gateway.simulation.failure-rate:0}")
+    private double failureRate;
+
+    @Value("${app.payment.mock-gateway.simulation.duplicate-webhook-rate:0}")
+    private double duplicateWebhookRate;
+
+    @Value("${app.payment.mock-gateway.simulation.webhook-delay.min-ms:0}")
+    private long webhookDelayMinMs;
+
+    @Value("${app.payment.mock-gateway.simulation.webhook-delay.max-ms:0}")
+    private long webhookDelayMaxMs;
+
+    /**
+     * Waits for the simulated gateway response and decides its outcome. Must be called outside
+     * a database transaction so a slow gateway does not hold a connection.
+     *
+     * @throws PaymentGatewayTimeoutException when the sampled latency exceeds the timeout
+     */
+    public Outcome call(String sessionId) {
+        if (!enabled) {
+            return Outcome.IMMEDIATE;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latencyMs = sampleLatencyMs(random);
+        if (timeoutMs > 0 && latencyMs >= timeoutMs) {
+            sleep(timeoutMs);
+            log.warn("Simulated payment gateway timeout",
+                kv("event", LoggingConstants.PAYMENT_GATEWAY_TIMEOUT),
+                kv("sessionId", sessionId),
+                kv("timeoutMs", timeoutMs));
+            throw new PaymentGatewayTimeoutException("Payment gateway timed out");
+        }
+        sleep(latencyMs);
+
+        boolean declined = random.nextDouble() < failureRate;
+        int webhookCopies = random.nextDouble() < duplicateWebhookRate ? 2 : 1;
+        long delayMs = webhookDelayMaxMs > webhookDelayMinMs
+                ? random.nextLong(webhookDelayMinMs, webhookDelayMaxMs + 1)
+                : webhookDelayMinMs;
+        return new Outcome(declined, webhookCopies, Duration.ofMillis(delayMs));
+    }
+
+    private long sampleLatencyMs(ThreadLocalRandom random) {
+        double sample = switch (distribution) {
+            case FIXED -> meanMs;
+            case NORMAL -> meanMs + stddevMs * random.nextGaussian();
+            case LONG_TAIL -> meanMs * Math.exp(tailSigma * random.nextGaussian());
+        };
+        return Math.max(0, Math.round(sample));
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param declined      the gateway rejects the payment regardless of the card
+     * @param webhookCopies how many times the result is delivered
+     * @param webhookDelay  how long delivery is held back after the payment commits
+     */
+    public record Outcome(boolean declined, int webhookCopies, Duration webhookDelay) {
+        static final Outcome IMMEDIATE = new Outcome(false, 1, Duration.ZERO);
+    }
+}
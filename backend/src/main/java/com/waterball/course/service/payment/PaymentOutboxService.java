@@ -0,0 +1,181 @@
+package com.waterball.course.service.payment;
+
+import com.waterball.course.entity.OutboxStatus;
+import com.waterball.course.entity.PaymentOutboxEvent;
+import com.waterball.course.repository.PaymentOutboxRepository;
+import com.waterball.course.util.LoggingConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Transactional outbox for payment results. {@link #enqueue} joins the caller's transaction,
+ * so a result is recorded if and only if the checkout session update commits. Events are
+ * claimed with {@code FOR UPDATE SKIP LOCKED} and leased: a claimed event becomes due again
+ * after the lease unless its delivery is recorded first, which makes delivery at-least-once
+ * even if a node dies mid-delivery.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentOutboxService {
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final PaymentResultSender paymentResultSender;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.payment.outbox.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${app.payment.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.payment.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${app.payment.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${app.payment.outbox.retention:P7D}")
+    private Duration retention;
+
+    private final Semaphore workSignal = new Semaphore(0);
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String sessionId, PaymentResult result) {
+        enqueue(sessionId, result, Duration.ZERO);
+    }
+
+    /** Records a result that becomes due only after {@code delay}. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String sessionId, PaymentResult result, Duration delay) {
+        PaymentOutboxEvent event = new PaymentOutboxEvent();
+        event.setSessionId(sessionId);
+        event.setSuccess(result.success());
+        event.setFailureReason(result.failureReason());
+        if (!delay.isZero()) {
+            event.setNextAttemptAt(Instant.now().plus(delay));
+        }
+        paymentOutboxRepository.save(event);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                signalWork();
+            }
+        });
+    }
+
+    /**
+     * Locks and leases up to {@code limit} due events in a transaction of its own, so the lease
+     * is committed before delivery starts whether the worker or {@link #processDue} calls it.
+     */
+    public List<ClaimedEvent> claimDue(int limit) {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<ClaimedEvent> claimed = new ArrayList<>();
+            for (PaymentOutboxEvent event : paymentOutboxRepository.lockDue(now, limit)) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptAt(now.plusMillis(leaseMs));
+                claimed.add(new ClaimedEvent(
+                        event.getId(),
+                        event.getSessionId(),
+                        new PaymentResult(event.isSuccess(), event.getFailureReason()),
+                        event.getAttempts()));
+            }
+            return claimed;
+        });
+    }
+
+    public void deliver(ClaimedEvent event) {
+        try {
+            paymentResultSender.send(event.sessionId(), event.result());
+            paymentOutboxRepository.markDelivered(event.id(), Instant.now());
+        } catch (Exception e) {
+            recordFailure(event, e);
+        }
+    }
+
+    /**
+     * Claims and delivers due events on the calling thread until none are left.
+     */
+    public int processDue(int batchSize) {
+        int delivered = 0;
+        List<ClaimedEvent> claimed;
+        do {
+            claimed = claimDue(batchSize);
+            claimed.forEach(this::deliver);
+            delivered += claimed.size();
+        } while (claimed.size() == batchSize);
+        return delivered;
+    }
+
+    public void signalWork() {
+        workSignal.release();
+    }
+
+    public void awaitWork(long timeoutMs) throws InterruptedException {
+        if (workSignal.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+            workSignal.drainPermits();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment.outbox.purge-interval-ms:3600000}")
+    public void purgeDelivered() {
+        paymentOutboxRepository.deleteDeliveredBefore(Instant.now().minus(retention));
+    }
+
+    private void recordFailure(ClaimedEvent event, Exception e) {
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+        if (event.attempts() >= maxAttempts) {
+            paymentOutboxRepository.markDead(event.id(), error);
+            log.error("Payment result delivery gave up",
+                kv("event", LoggingConstants.PAYMENT_OUTBOX_DEAD),
+                kv("outboxId", event.id()),
+                kv("sessionId", event.sessionId()),
+                kv("attempts", event.attempts()),
+                kv("reason", error));
+            return;
+        }
+
+        long backoffMs = backoffMs(event.attempts());
+        paymentOutboxRepository.scheduleRetry(event.id(), Instant.now().plusMillis(backoffMs), error);
+        log.warn("Payment result delivery failed, retrying",
+            kv("event", LoggingConstants.PAYMENT_OUTBOX_RETRY_SCHEDULED),
+            kv("outboxId", event.id()),
+            kv("sessionId", event.sessionId()),
+            kv("attempts", event.attempts()),
+            kv("retryInMs", backoffMs),
+            kv("reason", error));
+    }
+
+    /** Exponential backoff with +/-20% jitter so retries from a burst do not line up. */
+    private long backoffMs(int attempts) {
+        long base = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return (long) (base * jitter);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    public record ClaimedEvent(UUID id, String sessionId, PaymentResult result, int attempts) {}
+}
@@ -0,0 +1,119 @@
+package com.waterball.course.service.payment;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One dispatcher thread claims due outbox events, never more than there are idle delivery
+ * threads, and hands them to a fixed pool. The dispatcher sleeps until a new event commits,
+ * a delivery finishes or the poll interval elapses, whichever comes first.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.payment.outbox.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentOutboxWorker implements SmartLifecycle {
+    private static final long MAX_ERROR_BACKOFF_MS = 30_000;
+
+    private final PaymentOutboxService paymentOutboxService;
+
+    @Value("${app.payment.outbox.worker.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.payment.outbox.worker.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    private volatile boolean running;
+    private Semaphore idleSlots;
+    private ExecutorService deliveryPool;
+    private Thread dispatcher;
+
+    @Override
+    public void start() {
+        running = true;
+        idleSlots = new Semaphore(poolSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        deliveryPool = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "payment-outbox-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = new Thread(this::run, "payment-outbox-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        if (deliveryPool != null) {
+            deliveryPool.shutdown();
+            try {
+                deliveryPool.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long errorBackoffMs = 1_000;
+        while (running) {
+            try {
+                int capacity = idleSlots.availablePermits();
+                List<PaymentOutboxService.ClaimedEvent> claimed =
+                        capacity > 0 ? paymentOutboxService.claimDue(capacity) : List.of();
+                for (PaymentOutboxService.ClaimedEvent event : claimed) {
+                    idleSlots.acquire();
+                    deliveryPool.execute(() -> {
+                        try {
+                            paymentOutboxService.deliver(event);
+                        } finally {
+                            idleSlots.release();
+                            paymentOutboxService.signalWork();
+                        }
+                    });
+                }
+                errorBackoffMs = 1_000;
+                if (claimed.size() < capacity || capacity == 0) {
+                    paymentOutboxService.awaitWork(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (DataAccessException e) {
+                log.warn("Payment outbox dispatcher failed, retrying in {}ms: {}", errorBackoffMs, e.getMessage());
+                sleep(errorBackoffMs);
+                errorBackoffMs = Math.min(errorBackoffMs * 2, MAX_ERROR_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.waterball.course.service.payment;
+
+/** What {@link PaymentWebhookService#handlePaymentResult} did with a payment result. */
+public enum PaymentResultOutcome {
+    /** The order moved to {@code COMPLETED} or {@code FAILED}. */
+    APPLIED,
+    /** The same session and outcome had already been handled. */
+    DUPLICATE,
+    /** A failure for an order that was already closed; nothing to undo. */
+    IGNORED,
+    /** A successful payment for a closed order, recorded in {@code unmatched_payments} for refund. */
+    UNMATCHED
+}
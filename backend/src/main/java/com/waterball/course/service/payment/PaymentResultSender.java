@@ -0,0 +1,10 @@
+package com.waterball.course.service.payment;
+
+/**
+ * Delivers a payment result from the outbox to whoever settles the order. Implementations
+ * must throw on failure so the event is retried. Selected by {@code app.payment.outbox.delivery}.
+ */
+public interface PaymentResultSender {
+
+    void send(String sessionId, PaymentResult result) throws Exception;
+}
@@ -1,43 +1,105 @@
 package com.waterball.course.service.payment;
 
-import com.waterball.course.entity.CheckoutSession;
+import com.waterball.course.config.TimedService;
 import com.waterball.course.entity.PurchaseOrder;
 import com.waterball.course.entity.PurchaseStatus;
-import com.waterball.course.entity.UserPurchase;
+import com.waterball.course.entity.UnmatchedPayment;
 import com.waterball.course.exception.PurchaseOrderNotFoundException;
+import com.waterball.course.repository.ProcessedWebhookEventRepository;
 import com.waterball.course.repository.PurchaseOrderRepository;
+import com.waterball.course.repository.UnmatchedPaymentRepository;
 import com.waterball.course.repository.UserPurchaseRepository;
+import com.waterball.course.service.EntitlementCache;
+import com.waterball.course.service.UserStateCache;
+import com.waterball.course.service.purchase.PurchaseFunnelRecorder;
+import com.waterball.course.service.purchase.PurchaseFunnelStage;
+import com.waterball.course.service.purchase.PurchaseOrderStateMachine;
 import com.waterball.course.util.LoggingConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static net.logstash.logback.argument.StructuredArguments.kv;
 
-import java.time.Instant;
-
+/**
+ * Applies payment results to orders exactly once per session and outcome. A small in-memory
+ * set of recently applied event keys answers retries without touching the database; the
+ * {@code processed_webhook_events} primary key is the source of truth across nodes. A successful
+ * payment for an order that was cancelled or expired meanwhile cannot be applied; it is kept in
+ * {@code unmatched_payments} so the charge can be refunded.
+ */
 @Service
+@TimedService
 @Slf4j
 @RequiredArgsConstructor
 public class PaymentWebhookService {
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final UserPurchaseRepository userPurchaseRepository;
+    private final UnmatchedPaymentRepository unmatchedPaymentRepository;
+    private final ProcessedWebhookEventRepository processedWebhookEventRepository;
+    private final EntitlementCache entitlementCache;
+    private final UserStateCache userStateCache;
+    private final PurchaseOrderStateMachine orderStateMachine;
+    private final PurchaseFunnelRecorder funnelRecorder;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.payment.webhook-secret:mock-webhook-secret-12345}")
     private String webhookSecret;
 
-    public void sendPaymentNotification(CheckoutSession session, PaymentResult result) {
-        handlePaymentResult(session.getId(), result);
+    @Value("${app.payment.webhook.recent-keys:10000}")
+    private int recentKeysCapacity;
+
+    @Value("${app.payment.webhook.dedup-retention:P30D}")
+    private Duration dedupRetention;
+
+    private final Map<String, Boolean> recentKeys = new LinkedHashMap<>(16, 0.75f, true);
+
+    public PaymentResultOutcome handlePaymentResult(String sessionId, PaymentResult result) {
+        log.debug("Handling payment result: sessionId={}, success={}", sessionId, result.success());
+
+        String eventKey = eventKey(sessionId, result);
+        if (isRecentlyProcessed(eventKey)) {
+            logDuplicate(sessionId, eventKey, "cache");
+            return PaymentResultOutcome.DUPLICATE;
+        }
+
+        PaymentResultOutcome outcome = transactionTemplate.execute(status -> apply(sessionId, eventKey, result));
+        if (outcome == PaymentResultOutcome.DUPLICATE) {
+            logDuplicate(sessionId, eventKey, "database");
+        }
+        rememberProcessed(eventKey);
+        return outcome;
     }
 
-    @Transactional
-    public void handlePaymentResult(String sessionId, PaymentResult result) {
-        log.info("Handling payment result: sessionId={}, success={}", sessionId, result.success());
-        
+    public boolean validateWebhookSecret(String secret) {
+        boolean valid = webhookSecret.equals(secret);
+        if (!valid) {
+            log.error("Webhook validation failed",
+                kv("event", LoggingConstants.WEBHOOK_VALIDATION_FAILED),
+                kv("reason", "Invalid secret"));
+        }
+        return valid;
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment.webhook.purge-interval-ms:3600000}")
+    public void purgeProcessedEvents() {
+        processedWebhookEventRepository.deleteProcessedBefore(Instant.now().minus(dedupRetention));
+    }
+
+    private PaymentResultOutcome apply(String sessionId, String eventKey, PaymentResult result) {
+        if (processedWebhookEventRepository.insertIfAbsent(eventKey, sessionId, Instant.now()) == 0) {
+            return PaymentResultOutcome.DUPLICATE;
+        }
+
         PurchaseOrder order;
         try {
             order = purchaseOrderRepository.findByCheckoutSessionId(sessionId)
@@ -50,19 +112,18 @@ public class PaymentWebhookService {
             throw e;
         }
 
-        log.debug("Found order: orderId={}, userId={}, journeyId={}", 
+        log.debug("Found order: orderId={}, userId={}, journeyId={}",
                 order.getId(), order.getUser().getId(), order.getJourney().getId());
 
         if (result.success()) {
-            order.setStatus(PurchaseStatus.COMPLETED);
-            order.setCompletedAt(Instant.now());
-            purchaseOrderRepository.save(order);
-
-            UserPurchase userPurchase = new UserPurchase();
-            userPurchase.setUser(order.getUser());
-            userPurchase.setJourney(order.getJourney());
-            userPurchaseRepository.save(userPurchase);
-            
+            if (!orderStateMachine.complete(order.getId())) {
+                return recordUnmatched(sessionId, order);
+            }
+            userPurchaseRepository.insertIfAbsent(
+                    order.getUser().getId(), order.getJourney().getId(), LocalDateTime.now());
+            entitlementCache.evict(order.getUser().getId());
+            userStateCache.evict(order.getUser().getId());
+
             log.info("Webhook processed successfully",
                 kv("event", LoggingConstants.WEBHOOK_PROCESSED),
                 kv("sessionId", sessionId),
@@ -70,27 +131,75 @@ public class PaymentWebhookService {
                 kv("userId", order.getUser().getId()),
                 kv("journeyId", order.getJourney().getId()),
                 kv("status", "COMPLETED"));
+            funnelRecorder.record(PurchaseFunnelStage.ORDER_COMPLETED, order.getJourney().getId(), order.getCreatedAt());
         } else {
-            order.setStatus(PurchaseStatus.FAILED);
-            order.setFailureReason(result.failureReason());
-            purchaseOrderRepository.save(order);
-            
+            if (!orderStateMachine.fail(order.getId(), result.failureReason())) {
+                return PaymentResultOutcome.IGNORED;
+            }
+
             log.info("Webhook processed - payment failed",
                 kv("event", LoggingConstants.WEBHOOK_PROCESSED),
                 kv("sessionId", sessionId),
                 kv("orderId", order.getId()),
                 kv("status", "FAILED"),
                 kv("reason", result.failureReason()));
+            funnelRecorder.record(PurchaseFunnelStage.ORDER_FAILED, order.getJourney().getId(), order.getCreatedAt());
         }
+        return PaymentResultOutcome.APPLIED;
     }
 
-    public boolean validateWebhookSecret(String secret) {
-        boolean valid = webhookSecret.equals(secret);
-        if (!valid) {
-            log.error("Webhook validation failed",
-                kv("event", LoggingConstants.WEBHOOK_VALIDATION_FAILED),
-                kv("reason", "Invalid secret"));
+    /** The customer was charged for an order that can no longer be completed. */
+    private PaymentResultOutcome recordUnmatched(String sessionId, PurchaseOrder order) {
+        PurchaseStatus status = purchaseOrderRepository.findStatusById(order.getId()).orElse(null);
+        if (status == PurchaseStatus.COMPLETED) {
+            return PaymentResultOutcome.IGNORED;
         }
-        return valid;
+
+        UnmatchedPayment payment = new UnmatchedPayment();
+        payment.setPurchaseOrderId(order.getId());
+        payment.setSessionId(sessionId);
+        payment.setOrderStatus(status);
+        payment.setAmount(order.getAmount());
+        unmatchedPaymentRepository.save(payment);
+
+        log.error("Payment received for a closed order, refund required",
+            kv("event", LoggingConstants.PAYMENT_UNMATCHED),
+            kv("sessionId", sessionId),
+            kv("orderId", order.getId()),
+            kv("userId", order.getUser().getId()),
+            kv("journeyId", order.getJourney().getId()),
+            kv("orderStatus", status),
+            kv("amount", order.getAmount()));
+        return PaymentResultOutcome.UNMATCHED;
+    }
+
+    private boolean isRecentlyProcessed(String eventKey) {
+        synchronized (recentKeys) {
+            return recentKeys.get(eventKey) != null;
+        }
+    }
+
+    private void rememberProcessed(String eventKey) {
+        if (recentKeysCapacity <= 0) {
+            return;
+        }
+        synchronized (recentKeys) {
+            recentKeys.put(eventKey, Boolean.TRUE);
+            if (recentKeys.size() > recentKeysCapacity) {
+                recentKeys.remove(recentKeys.keySet().iterator().next());
+            }
+        }
+    }
+
+    private void logDuplicate(String sessionId, String eventKey, String source) {
+        log.info("Duplicate webhook ignored",
+            kv("event", LoggingConstants.WEBHOOK_DUPLICATE_IGNORED),
+            kv("sessionId", sessionId),
+            kv("eventKey", eventKey),
+            kv("source", source));
+    }
+
+    private static String eventKey(String sessionId, PaymentResult result) {
+        return sessionId + ":" + (result.success() ? "SUCCESS" : "FAILED");
     }
 }
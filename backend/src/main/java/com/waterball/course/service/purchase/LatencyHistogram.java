@@ -0,0 +1,73 @@
+package com.waterball.course.service.purchase;
+
+import com.waterball.course.dto.response.PurchaseFunnelResponse;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram over fixed bucket bounds from 100ms to 1h, enough resolution for funnel
+ * stages that take from seconds (gateway call) to minutes (user filling in the checkout page).
+ * Percentiles report the upper bound of the bucket they fall into, capped at the observed max.
+ */
+final class LatencyHistogram {
+    private static final long[] BOUNDS_MS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000,
+            60_000, 120_000, 300_000, 600_000, 1_800_000, 3_600_000
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMs = new LongAdder();
+    private final LongAccumulator maxMs = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long elapsedMs) {
+        long ms = Math.max(0, elapsedMs);
+        int bucket = 0;
+        while (bucket < BOUNDS_MS.length && ms > BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        sumMs.add(ms);
+        maxMs.accumulate(ms);
+    }
+
+    PurchaseFunnelResponse.Latency snapshot() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        long max = maxMs.get();
+        return new PurchaseFunnelResponse.Latency(
+                total,
+                total == 0 ? 0 : sumMs.sum() / total,
+                percentile(counts, total, 0.50, max),
+                percentile(counts, total, 0.90, max),
+                percentile(counts, total, 0.99, max),
+                max);
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < BOUNDS_MS.length ? Math.min(BOUNDS_MS[i], max) : max;
+            }
+        }
+        return max;
+    }
+}
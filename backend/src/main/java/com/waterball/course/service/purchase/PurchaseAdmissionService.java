@@ -0,0 +1,191 @@
+package com.waterball.course.service.purchase;
+
+import com.waterball.course.config.TimedService;
+import com.waterball.course.exception.JourneyNotFoundException;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot;
+import com.waterball.course.util.LoggingConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Per-journey admission control in front of order creation. Each journey has a token bucket
+ * ({@code rate-per-second}, {@code burst}); while tokens are available requests go straight
+ * through. Once a launch drains the bucket, callers join a FIFO virtual waiting room and get
+ * their position and an ETA back immediately, without touching the database. Tokens admit
+ * the head of the line as they refill; an admitted user proceeds on their next attempt.
+ *
+ * <p>State is per node, so the effective rate scales with the number of backend instances.
+ */
+@Service
+@TimedService
+@Slf4j
+@RequiredArgsConstructor
+public class PurchaseAdmissionService {
+    private final CatalogService catalogService;
+
+    @Value("${app.purchase.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.purchase.admission.rate-per-second:20}")
+    private double ratePerSecond;
+
+    @Value("${app.purchase.admission.burst:20}")
+    private int burst;
+
+    @Value("${app.purchase.admission.waiting-room-capacity:10000}")
+    private int capacity;
+
+    /** A waiting user who stops polling for this long loses their place. */
+    @Value("${app.purchase.admission.ticket-ttl-ms:30000}")
+    private long ticketTtlMs;
+
+    /** An admitted user has this long to come back and create the order. */
+    @Value("${app.purchase.admission.admitted-ttl-ms:60000}")
+    private long admittedTtlMs;
+
+    @Value("${app.purchase.admission.max-retry-after-seconds:5}")
+    private long maxRetryAfterSeconds;
+
+    private final Map<UUID, WaitingRoom> rooms = new ConcurrentHashMap<>();
+
+    public Decision admit(UUID userId, UUID journeyId) {
+        if (!enabled) {
+            return Decision.ADMITTED;
+        }
+        // Checked against the in-memory catalog so unknown ids cannot create rooms.
+        catalogService.snapshot().findJourney(journeyId)
+                .filter(CatalogSnapshot.JourneyNode::published)
+                .orElseThrow(() -> new JourneyNotFoundException("Journey not found"));
+
+        long now = System.currentTimeMillis();
+        WaitingRoom room = rooms.computeIfAbsent(journeyId, id -> new WaitingRoom(burst, now));
+        synchronized (room) {
+            room.refill(now, ratePerSecond, burst);
+            room.promote(now, ticketTtlMs);
+
+            if (room.admitted.remove(userId) != null) {
+                return Decision.ADMITTED;
+            }
+
+            Ticket ticket = room.waiting.get(userId);
+            if (ticket == null) {
+                if (room.waiting.isEmpty() && room.tokens >= 1) {
+                    room.tokens -= 1;
+                    return Decision.ADMITTED;
+                }
+                if (room.waiting.size() >= capacity) {
+                    log.warn("Purchase waiting room full",
+                        kv("event", LoggingConstants.PURCHASE_WAITING_ROOM_FULL),
+                        kv("journeyId", journeyId),
+                        kv("userId", userId),
+                        kv("waiting", room.waiting.size()));
+                    return new Decision(false, true, 0, 0, maxRetryAfterSeconds);
+                }
+                ticket = new Ticket(room.nextSeq++, now);
+                room.waiting.put(userId, ticket);
+                log.info("Purchase waiting room joined",
+                    kv("event", LoggingConstants.PURCHASE_WAITING_ROOM_JOINED),
+                    kv("journeyId", journeyId),
+                    kv("userId", userId),
+                    kv("position", ticket.seq - room.headSeq() + 1));
+            }
+            ticket.lastSeenAt = now;
+
+            long position = ticket.seq - room.headSeq() + 1;
+            long etaSeconds = (long) Math.ceil(Math.max(0, position - room.tokens) / ratePerSecond);
+            long retryAfter = Math.max(1, Math.min(etaSeconds, maxRetryAfterSeconds));
+            return new Decision(false, false, position, etaSeconds, retryAfter);
+        }
+    }
+
+    /** Drops abandoned tickets and unclaimed admissions, and forgets idle journeys. */
+    @Scheduled(fixedDelayString = "${app.purchase.admission.sweep-interval-ms:10000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        rooms.forEach((journeyId, room) -> {
+            synchronized (room) {
+                room.refill(now, ratePerSecond, burst);
+                room.waiting.values().removeIf(ticket -> ticket.lastSeenAt < now - ticketTtlMs);
+                room.admitted.values().removeIf(admittedAt -> admittedAt < now - admittedTtlMs);
+                if (room.waiting.isEmpty() && room.admitted.isEmpty() && room.tokens >= burst) {
+                    rooms.remove(journeyId, room);
+                }
+            }
+        });
+    }
+
+    /**
+     * @param admitted          the caller may create the order now
+     * @param full              the waiting room is at capacity; try again later
+     * @param position          1-based place in line while waiting
+     * @param etaSeconds        estimated wait until admission
+     * @param retryAfterSeconds when the client should ask again
+     */
+    public record Decision(boolean admitted, boolean full, long position, long etaSeconds, long retryAfterSeconds) {
+        static final Decision ADMITTED = new Decision(true, false, 0, 0, 0);
+    }
+
+    private static final class Ticket {
+        private final long seq;
+        private long lastSeenAt;
+
+        private Ticket(long seq, long lastSeenAt) {
+            this.seq = seq;
+            this.lastSeenAt = lastSeenAt;
+        }
+    }
+
+    private static final class WaitingRoom {
+        /** Insertion order is queue order. */
+        private final LinkedHashMap<UUID, Ticket> waiting = new LinkedHashMap<>();
+        private final Map<UUID, Long> admitted = new HashMap<>();
+        private double tokens;
+        private long refilledAt;
+        private long nextSeq;
+
+        private WaitingRoom(int burst, long now) {
+            this.tokens = burst;
+            this.refilledAt = now;
+        }
+
+        private void refill(long now, double ratePerSecond, int burst) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerSecond / 1000.0);
+            refilledAt = now;
+        }
+
+        /** Spends available tokens on the head of the line, skipping users who stopped polling. */
+        private void promote(long now, long ticketTtlMs) {
+            Iterator<Map.Entry<UUID, Ticket>> line = waiting.entrySet().iterator();
+            while (line.hasNext()) {
+                Map.Entry<UUID, Ticket> head = line.next();
+                if (head.getValue().lastSeenAt < now - ticketTtlMs) {
+                    line.remove();
+                    continue;
+                }
+                if (tokens < 1) {
+                    return;
+                }
+                tokens -= 1;
+                admitted.put(head.getKey(), now);
+                line.remove();
+            }
+        }
+
+        private long headSeq() {
+            return waiting.isEmpty() ? nextSeq : waiting.values().iterator().next().seq;
+        }
+    }
+}
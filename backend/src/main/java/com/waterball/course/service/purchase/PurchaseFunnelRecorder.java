@@ -0,0 +1,156 @@
+package com.waterball.course.service.purchase;
+
+import com.waterball.course.dto.response.PurchaseFunnelResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process purchase funnel counters, recorded next to the structured log events so the
+ * funnel can be read without parsing logs. Stage totals and latencies are global; stages that
+ * know their journey are also counted per journey (up to {@code max-journeys}) for conversion
+ * rates. Inside a transaction a stage is only counted once it commits, so a rolled-back
+ * transition never shows up. Counters live for the lifetime of the process; stage totals are
+ * also exported to Micrometer as {@code purchase.funnel.stage}.
+ */
+@Component
+public class PurchaseFunnelRecorder implements MeterBinder {
+    private final Map<PurchaseFunnelStage, LongAdder> totals = new EnumMap<>(PurchaseFunnelStage.class);
+    private final Map<PurchaseFunnelStage, LatencyHistogram> latencies = new EnumMap<>(PurchaseFunnelStage.class);
+    private final Map<UUID, JourneyFunnel> journeys = new ConcurrentHashMap<>();
+
+    @Value("${app.purchase.funnel.max-journeys:1000}")
+    private int maxJourneys;
+
+    public PurchaseFunnelRecorder() {
+        for (PurchaseFunnelStage stage : PurchaseFunnelStage.values()) {
+            totals.put(stage, new LongAdder());
+            latencies.put(stage, new LatencyHistogram());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        totals.forEach((stage, total) -> FunctionCounter.builder("purchase.funnel.stage", total, LongAdder::sum)
+                .tag("stage", stage.name())
+                .register(registry));
+    }
+
+    public void record(PurchaseFunnelStage stage, UUID journeyId) {
+        afterCommit(() -> count(stage, journeyId));
+    }
+
+    /** Records the stage and how long it took to reach it from {@code since}. */
+    public void record(PurchaseFunnelStage stage, UUID journeyId, Instant since) {
+        afterCommit(() -> {
+            count(stage, journeyId);
+            if (since == null) {
+                return;
+            }
+            long elapsedMs = Duration.between(since, Instant.now()).toMillis();
+            latencies.get(stage).record(elapsedMs);
+            JourneyFunnel journey = journey(journeyId);
+            if (journey != null && stage == PurchaseFunnelStage.ORDER_COMPLETED) {
+                journey.createdToPaid.record(elapsedMs);
+            }
+        });
+    }
+
+    /** Bulk transitions such as the expiry sweep, where journeys are not loaded. */
+    public void record(PurchaseFunnelStage stage, long count) {
+        if (count > 0) {
+            afterCommit(() -> totals.get(stage).add(count));
+        }
+    }
+
+    public PurchaseFunnelResponse snapshot() {
+        Map<String, Long> stageTotals = new LinkedHashMap<>();
+        Map<String, PurchaseFunnelResponse.Latency> stageLatencies = new LinkedHashMap<>();
+        for (PurchaseFunnelStage stage : PurchaseFunnelStage.values()) {
+            stageTotals.put(stage.name(), totals.get(stage).sum());
+            PurchaseFunnelResponse.Latency latency = latencies.get(stage).snapshot();
+            if (latency.getCount() > 0) {
+                stageLatencies.put(stage.name(), latency);
+            }
+        }
+
+        List<PurchaseFunnelResponse.JourneyFunnel> perJourney = new ArrayList<>();
+        journeys.forEach((journeyId, funnel) -> perJourney.add(funnel.snapshot(journeyId)));
+        perJourney.sort(Comparator.comparingLong(
+                (PurchaseFunnelResponse.JourneyFunnel funnel) -> funnel.getStages().get(PurchaseFunnelStage.ORDER_CREATED.name()))
+                .reversed());
+
+        return new PurchaseFunnelResponse(stageTotals, stageLatencies, perJourney);
+    }
+
+    private void count(PurchaseFunnelStage stage, UUID journeyId) {
+        totals.get(stage).increment();
+        JourneyFunnel journey = journey(journeyId);
+        if (journey != null) {
+            journey.counts.get(stage).increment();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private JourneyFunnel journey(UUID journeyId) {
+        if (journeyId == null) {
+            return null;
+        }
+        JourneyFunnel existing = journeys.get(journeyId);
+        if (existing != null || journeys.size() >= maxJourneys) {
+            return existing;
+        }
+        return journeys.computeIfAbsent(journeyId, id -> new JourneyFunnel());
+    }
+
+    private static final class JourneyFunnel {
+        private final Map<PurchaseFunnelStage, LongAdder> counts = new EnumMap<>(PurchaseFunnelStage.class);
+        private final LatencyHistogram createdToPaid = new LatencyHistogram();
+
+        private JourneyFunnel() {
+            for (PurchaseFunnelStage stage : PurchaseFunnelStage.values()) {
+                counts.put(stage, new LongAdder());
+            }
+        }
+
+        private PurchaseFunnelResponse.JourneyFunnel snapshot(UUID journeyId) {
+            Map<String, Long> stages = new LinkedHashMap<>();
+            counts.forEach((stage, count) -> stages.put(stage.name(), count.sum()));
+            long created = stages.get(PurchaseFunnelStage.ORDER_CREATED.name());
+            long completed = stages.get(PurchaseFunnelStage.ORDER_COMPLETED.name());
+            return new PurchaseFunnelResponse.JourneyFunnel(
+                    journeyId,
+                    stages,
+                    created == 0 ? 0.0 : (double) completed / created,
+                    createdToPaid.snapshot());
+        }
+    }
+}
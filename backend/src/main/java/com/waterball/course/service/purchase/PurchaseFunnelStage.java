@@ -0,0 +1,17 @@
+package com.waterball.course.service.purchase;
+
+/**
+ * Funnel stages counted by {@link PurchaseFunnelRecorder}. Each one is recorded where the
+ * matching {@code LoggingConstants} event is logged.
+ */
+public enum PurchaseFunnelStage {
+    ORDER_CREATED,
+    CHECKOUT_SESSION_CREATED,
+    PAYMENT_SUCCEEDED,
+    PAYMENT_FAILED,
+    PAYMENT_TIMED_OUT,
+    ORDER_COMPLETED,
+    ORDER_FAILED,
+    ORDER_CANCELLED,
+    ORDER_EXPIRED
+}
@@ -0,0 +1,64 @@
+package com.waterball.course.service.purchase;
+
+import com.waterball.course.entity.PurchaseStatus;
+import com.waterball.course.repository.PurchaseOrderRepository;
+import com.waterball.course.util.LoggingConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * The only way purchase order status changes after creation. Each transition is a single
+ * conditional UPDATE guarded by {@link PurchaseStatus#allowedSources()}, so concurrent cancel,
+ * webhook and expiry attempts cannot overwrite each other: exactly one wins and the others
+ * see {@code false} without taking row locks up front.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PurchaseOrderStateMachine {
+    private final PurchaseOrderRepository purchaseOrderRepository;
+
+    @Transactional
+    public boolean complete(UUID orderId) {
+        Instant now = Instant.now();
+        return transition(orderId, PurchaseStatus.COMPLETED, now, now, null);
+    }
+
+    @Transactional
+    public boolean fail(UUID orderId, String failureReason) {
+        return transition(orderId, PurchaseStatus.FAILED, Instant.now(), null, failureReason);
+    }
+
+    @Transactional
+    public boolean cancel(UUID orderId) {
+        return transition(orderId, PurchaseStatus.CANCELLED, Instant.now(), null, null);
+    }
+
+    @Transactional
+    public boolean expire(UUID orderId) {
+        return transition(orderId, PurchaseStatus.EXPIRED, Instant.now(), null, null);
+    }
+
+    private boolean transition(UUID orderId, PurchaseStatus target, Instant now,
+                               Instant completedAt, String failureReason) {
+        int updated = purchaseOrderRepository.transition(
+                orderId, target.allowedSources(), target, now, completedAt, failureReason);
+        if (updated == 1) {
+            return true;
+        }
+
+        log.info("Purchase order transition rejected",
+            kv("event", LoggingConstants.PURCHASE_ORDER_TRANSITION_REJECTED),
+            kv("orderId", orderId),
+            kv("targetStatus", target),
+            kv("currentStatus", purchaseOrderRepository.findStatusById(orderId).orElse(null)));
+        return false;
+    }
+}
@@ -1,7 +1,9 @@
 package com.waterball.course.service.purchase;
 
+import com.waterball.course.config.TimedService;
 import com.waterball.course.dto.request.CreateCheckoutRequest;
 import com.waterball.course.dto.request.CreatePurchaseRequest;
+import com.waterball.course.dto.response.PurchaseHistoryResponse;
 import com.waterball.course.dto.response.PurchaseOrderDetailResponse;
 import com.waterball.course.dto.response.PurchaseOrderResponse;
 import com.waterball.course.entity.*;
@@ -12,8 +14,9 @@ import com.waterball.course.exception.JourneyNotFoundException;
 import com.waterball.course.exception.PurchaseOrderNotFoundException;
 import com.waterball.course.repository.JourneyRepository;
 import com.waterball.course.repository.PurchaseOrderRepository;
-import com.waterball.course.repository.UserPurchaseRepository;
 import com.waterball.course.repository.UserRepository;
+import com.waterball.course.repository.projection.PurchaseOrderSummaryProjection;
+import com.waterball.course.service.EntitlementCache;
 import com.waterball.course.service.payment.MockPaymentGatewayService;
 import com.waterball.course.util.LoggingConstants;
 import lombok.RequiredArgsConstructor;
@@ -35,15 +38,18 @@ import java.util.stream.Collectors;
 import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @Service
+@TimedService
 @Slf4j
 @RequiredArgsConstructor
 @Transactional
 public class PurchaseService {
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final JourneyRepository journeyRepository;
-    private final UserPurchaseRepository userPurchaseRepository;
+    private final EntitlementCache entitlementCache;
     private final UserRepository userRepository;
     private final MockPaymentGatewayService mockPaymentGatewayService;
+    private final PurchaseOrderStateMachine orderStateMachine;
+    private final PurchaseFunnelRecorder funnelRecorder;
 
     @Value("${app.payment.checkout-expiration-minutes:60}")
     private int checkoutExpirationMinutes;
@@ -51,11 +57,26 @@ public class PurchaseService {
     @Value("${app.frontend.base-url:http://localhost:3000}")
     private String frontendBaseUrl;
 
+    /**
+     * Answers a repeated purchase attempt without taking an admission slot: throws when the
+     * journey is already owned and returns the live pending order's checkout, if there is one.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PurchaseOrderResponse> findResumableOrder(UUID userId, UUID journeyId) {
+        if (entitlementCache.hasPurchased(userId, journeyId)) {
+            throw new AlreadyPurchasedException("You have already purchased this course");
+        }
+        return purchaseOrderRepository.findPendingByUserIdAndJourneyId(userId, journeyId)
+                .filter(PurchaseService::isLive)
+                .map(existing -> toResponseWithCheckoutUrl(existing,
+                        mockPaymentGatewayService.getCheckoutUrl(existing.getCheckoutSessionId()), true));
+    }
+
     public PurchaseOrderResponse createPurchaseOrder(UUID userId, CreatePurchaseRequest request) {
         Journey journey = journeyRepository.findByIdAndIsPublishedTrue(request.getJourneyId())
                 .orElseThrow(() -> new JourneyNotFoundException("Journey not found"));
 
-        if (userPurchaseRepository.existsByUserIdAndJourneyId(userId, journey.getId())) {
+        if (entitlementCache.hasPurchased(userId, journey.getId())) {
             throw new AlreadyPurchasedException("You have already purchased this course");
         }
 
@@ -64,19 +85,24 @@ public class PurchaseService {
 
         if (existingPending.isPresent()) {
             PurchaseOrder existing = existingPending.get();
-            if (existing.getExpiresAt() != null && existing.getExpiresAt().isAfter(Instant.now())) {
+            if (isLive(existing)) {
                 String checkoutUrl = mockPaymentGatewayService.getCheckoutUrl(existing.getCheckoutSessionId());
                 return toResponseWithCheckoutUrl(existing, checkoutUrl, true);
             }
-            existing.setStatus(PurchaseStatus.EXPIRED);
-            purchaseOrderRepository.save(existing);
-            log.warn("Purchase order expired",
-                kv("event", LoggingConstants.PURCHASE_ORDER_STATUS_CHANGED),
-                kv("orderId", existing.getId()),
-                kv("userId", userId),
-                kv("journeyId", journey.getId()),
-                kv("oldStatus", PurchaseStatus.PENDING),
-                kv("newStatus", PurchaseStatus.EXPIRED));
+            if (orderStateMachine.expire(existing.getId())) {
+                funnelRecorder.record(PurchaseFunnelStage.ORDER_EXPIRED, journey.getId(), existing.getCreatedAt());
+                log.warn("Purchase order expired",
+                    kv("event", LoggingConstants.PURCHASE_ORDER_STATUS_CHANGED),
+                    kv("orderId", existing.getId()),
+                    kv("userId", userId),
+                    kv("journeyId", journey.getId()),
+                    kv("oldStatus", PurchaseStatus.PENDING),
+                    kv("newStatus", PurchaseStatus.EXPIRED));
+            } else if (purchaseOrderRepository.findStatusById(existing.getId())
+                    .filter(PurchaseStatus.COMPLETED::equals).isPresent()) {
+                // The payment landed between the pending lookup and the expiry.
+                throw new AlreadyPurchasedException("You have already purchased this course");
+            }
         }
 
         User user = userRepository.findById(userId)
@@ -115,11 +141,16 @@ public class PurchaseService {
             kv("journeyId", journey.getId()),
             kv("amount", journey.getPrice()),
             kv("paymentMethod", request.getPaymentMethod()));
+        funnelRecorder.record(PurchaseFunnelStage.ORDER_CREATED, journey.getId());
 
         String checkoutUrl = mockPaymentGatewayService.getCheckoutUrl(session.getId());
         return toResponseWithCheckoutUrl(order, checkoutUrl);
     }
 
+    private static boolean isLive(PurchaseOrder order) {
+        return order.getExpiresAt() != null && order.getExpiresAt().isAfter(Instant.now());
+    }
+
     public void cancelPurchase(UUID userId, UUID purchaseId) {
         PurchaseOrder order = purchaseOrderRepository.findById(purchaseId)
                 .orElseThrow(() -> new PurchaseOrderNotFoundException("Purchase order not found"));
@@ -128,18 +159,16 @@ public class PurchaseService {
             throw new AccessDeniedException("Access denied");
         }
 
-        if (order.getStatus() != PurchaseStatus.PENDING) {
+        if (order.getStatus() != PurchaseStatus.PENDING || !orderStateMachine.cancel(order.getId())) {
             throw new InvalidOrderStatusException("Only pending orders can be cancelled");
         }
 
-        order.setStatus(PurchaseStatus.CANCELLED);
-        purchaseOrderRepository.save(order);
-
         log.info("Purchase order cancelled",
             kv("event", LoggingConstants.PURCHASE_ORDER_CANCELLED),
             kv("orderId", purchaseId),
             kv("userId", userId),
             kv("journeyId", order.getJourney().getId()));
+        funnelRecorder.record(PurchaseFunnelStage.ORDER_CANCELLED, order.getJourney().getId(), order.getCreatedAt());
     }
 
     @Transactional(readOnly = true)
@@ -161,22 +190,58 @@ public class PurchaseService {
 
     @Transactional(readOnly = true)
     public Page<PurchaseOrderResponse> getPurchaseHistory(UUID userId, PurchaseStatus status, Pageable pageable) {
-        Page<PurchaseOrder> orders = status != null
-                ? purchaseOrderRepository.findByUserIdAndStatus(userId, status, pageable)
-                : purchaseOrderRepository.findByUserId(userId, pageable);
+        Page<PurchaseOrderSummaryProjection> summaries = status != null
+                ? purchaseOrderRepository.findSummariesByStatus(userId, status, pageable)
+                : purchaseOrderRepository.findSummaries(userId, pageable);
+        return summaries.map(summary -> toResponse(summary, null));
+    }
 
-        return orders.map(this::toResponse);
+    /**
+     * Keyset-paginated history, newest first. Unlike {@link #getPurchaseHistory} it needs no
+     * count query and its cost does not grow with the page number.
+     */
+    @Transactional(readOnly = true)
+    public PurchaseHistoryResponse getPurchaseHistoryPage(UUID userId, PurchaseStatus status, String cursor, int size) {
+        PurchaseHistoryCursor after = cursor != null ? PurchaseHistoryCursor.decode(cursor) : null;
+        List<UUID> ids = findHistoryIds(userId, status, after, size + 1);
+        List<PurchaseOrderSummaryProjection> rows = ids.isEmpty()
+                ? List.of()
+                : purchaseOrderRepository.findSummariesByIds(ids);
+
+        boolean hasMore = rows.size() > size;
+        List<PurchaseOrderSummaryProjection> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            PurchaseOrderSummaryProjection last = page.get(page.size() - 1);
+            nextCursor = new PurchaseHistoryCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new PurchaseHistoryResponse(
+                page.stream().map(summary -> toResponse(summary, null)).collect(Collectors.toList()),
+                nextCursor);
+    }
+
+    private List<UUID> findHistoryIds(UUID userId, PurchaseStatus status, PurchaseHistoryCursor after, int limit) {
+        if (status == null) {
+            return after == null
+                    ? purchaseOrderRepository.findHistoryIds(userId, limit)
+                    : purchaseOrderRepository.findHistoryIdsAfter(userId, after.createdAt(), after.id(), limit);
+        }
+        return after == null
+                ? purchaseOrderRepository.findHistoryIdsByStatus(userId, status.name(), limit)
+                : purchaseOrderRepository.findHistoryIdsByStatusAfter(
+                        userId, status.name(), after.createdAt(), after.id(), limit);
     }
 
     @Transactional(readOnly = true)
     public List<PurchaseOrderResponse> getPendingPurchases(UUID userId) {
-        return purchaseOrderRepository.findPendingByUserId(userId).stream()
-                .map(order -> {
+        return purchaseOrderRepository.findPendingSummaries(userId).stream()
+                .map(summary -> {
                     String checkoutUrl = null;
-                    if (order.getCheckoutSessionId() != null) {
-                        checkoutUrl = mockPaymentGatewayService.getCheckoutUrl(order.getCheckoutSessionId());
+                    if (summary.getCheckoutSessionId() != null) {
+                        checkoutUrl = mockPaymentGatewayService.getCheckoutUrl(summary.getCheckoutSessionId());
                     }
-                    return toResponseWithCheckoutUrl(order, checkoutUrl);
+                    return toResponse(summary, checkoutUrl);
                 })
                 .collect(Collectors.toList());
     }
@@ -193,8 +258,22 @@ public class PurchaseService {
         return toResponseWithCheckoutUrl(order, checkoutUrl);
     }
 
-    private PurchaseOrderResponse toResponse(PurchaseOrder order) {
-        return toResponseWithCheckoutUrl(order, null);
+    private PurchaseOrderResponse toResponse(PurchaseOrderSummaryProjection summary, String checkoutUrl) {
+        return PurchaseOrderResponse.builder()
+                .id(summary.getId())
+                .journeyId(summary.getJourneyId())
+                .journeyTitle(summary.getJourneyTitle())
+                .journeyThumbnailUrl(summary.getJourneyThumbnailUrl())
+                .amount(summary.getAmount())
+                .currency("TWD")
+                .paymentMethod(summary.getPaymentMethod())
+                .status(summary.getStatus())
+                .checkoutUrl(checkoutUrl)
+                .failureReason(summary.getFailureReason())
+                .expiresAt(summary.getExpiresAt())
+                .createdAt(summary.getCreatedAt())
+                .completedAt(summary.getCompletedAt())
+                .build();
     }
 
     private PurchaseOrderResponse toResponseWithCheckoutUrl(PurchaseOrder order, String checkoutUrl) {
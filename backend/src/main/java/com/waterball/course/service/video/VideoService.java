@@ -1,5 +1,6 @@
 package com.waterball.course.service.video;
 
+import com.waterball.course.config.TimedService;
 import com.waterball.course.dto.response.VideoStreamResponse;
 import com.waterball.course.entity.Lesson;
 import com.waterball.course.entity.Video;
@@ -17,6 +18,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Service
+@TimedService
 @RequiredArgsConstructor
 public class VideoService {
     private final VideoRepository videoRepository;
@@ -6,6 +6,9 @@ public final class LoggingConstants {
     public static final String PURCHASE_ORDER_CREATED = "PURCHASE_ORDER_CREATED";
     public static final String PURCHASE_ORDER_STATUS_CHANGED = "PURCHASE_ORDER_STATUS_CHANGED";
     public static final String PURCHASE_ORDER_CANCELLED = "PURCHASE_ORDER_CANCELLED";
+    public static final String PURCHASE_ORDER_TRANSITION_REJECTED = "PURCHASE_ORDER_TRANSITION_REJECTED";
+    public static final String PURCHASE_WAITING_ROOM_JOINED = "PURCHASE_WAITING_ROOM_JOINED";
+    public static final String PURCHASE_WAITING_ROOM_FULL = "PURCHASE_WAITING_ROOM_FULL";
     
     public static final String CHECKOUT_SESSION_CREATED = "CHECKOUT_SESSION_CREATED";
     public static final String CHECKOUT_SESSION_EXPIRED = "CHECKOUT_SESSION_EXPIRED";
@@ -13,13 +16,28 @@ public final class LoggingConstants {
     public static final String PAYMENT_PROCESSING_STARTED = "PAYMENT_PROCESSING_STARTED";
     public static final String PAYMENT_SUCCESS = "PAYMENT_SUCCESS";
     public static final String PAYMENT_FAILED = "PAYMENT_FAILED";
+    public static final String PAYMENT_GATEWAY_TIMEOUT = "PAYMENT_GATEWAY_TIMEOUT";
+    public static final String PAYMENT_UNMATCHED = "PAYMENT_UNMATCHED";
     
     public static final String WEBHOOK_RECEIVED = "WEBHOOK_RECEIVED";
     public static final String WEBHOOK_VALIDATION_FAILED = "WEBHOOK_VALIDATION_FAILED";
     public static final String WEBHOOK_PROCESSED = "WEBHOOK_PROCESSED";
     public static final String WEBHOOK_PROCESSING_FAILED = "WEBHOOK_PROCESSING_FAILED";
+    public static final String WEBHOOK_DUPLICATE_IGNORED = "WEBHOOK_DUPLICATE_IGNORED";
+    
+    public static final String PAYMENT_OUTBOX_RETRY_SCHEDULED = "PAYMENT_OUTBOX_RETRY_SCHEDULED";
+    public static final String PAYMENT_OUTBOX_DEAD = "PAYMENT_OUTBOX_DEAD";
+    
+    public static final String GOOGLE_ID_TOKEN_VERIFIED = "GOOGLE_ID_TOKEN_VERIFIED";
+    public static final String GOOGLE_ID_TOKEN_REJECTED = "GOOGLE_ID_TOKEN_REJECTED";
+    public static final String GOOGLE_KEYS_REFRESHED = "GOOGLE_KEYS_REFRESHED";
+    public static final String USER_LOGGED_IN = "USER_LOGGED_IN";
+    public static final String REFRESH_TOKENS_PURGED = "REFRESH_TOKENS_PURGED";
     
     public static final String EXTERNAL_SERVICE_ERROR = "EXTERNAL_SERVICE_ERROR";
     public static final String OPERATION_TIMEOUT = "OPERATION_TIMEOUT";
     public static final String DATA_INCONSISTENCY = "DATA_INCONSISTENCY";
+    
+    public static final String HTTP_REQUEST_COMPLETED = "HTTP_REQUEST_COMPLETED";
+    public static final String SLOW_QUERY = "SLOW_QUERY";
 }
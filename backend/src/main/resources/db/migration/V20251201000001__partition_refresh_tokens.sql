@@ -0,0 +1,68 @@
+-- Partition refresh_tokens by month on expires_at so expired tokens can be dropped as whole partitions.
+-- Partition keys must be part of every unique constraint, hence (id, expires_at) / (token_hash, expires_at).
+
+ALTER TABLE refresh_tokens RENAME TO refresh_tokens_legacy;
+
+CREATE TABLE refresh_tokens (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    token_hash VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, expires_at),
+    UNIQUE (token_hash, expires_at)
+) PARTITION BY RANGE (expires_at);
+
+-- Catches rows outside the pre-created months; should stay empty while maintenance runs.
+CREATE TABLE refresh_tokens_default PARTITION OF refresh_tokens DEFAULT;
+
+-- Creates monthly partitions up to months_ahead and drops partitions whose range has fully expired.
+-- Returns the number of dropped partitions. Serialized across nodes with an advisory lock.
+CREATE OR REPLACE FUNCTION maintain_refresh_token_partitions(months_ahead INT)
+RETURNS INT AS $$
+DECLARE
+    month_start DATE;
+    expired RECORD;
+    dropped INT := 0;
+BEGIN
+    IF NOT pg_try_advisory_xact_lock(hashtext('maintain_refresh_token_partitions')) THEN
+        RETURN 0;
+    END IF;
+
+    FOR i IN 0..months_ahead LOOP
+        month_start := (date_trunc('month', now()) + make_interval(months => i))::DATE;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF refresh_tokens FOR VALUES FROM (%L) TO (%L)',
+            'refresh_tokens_p' || to_char(month_start, 'YYYYMM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::DATE);
+    END LOOP;
+
+    FOR expired IN
+        SELECT c.relname
+        FROM pg_inherits inh
+        JOIN pg_class c ON c.oid = inh.inhrelid
+        WHERE inh.inhparent = 'refresh_tokens'::regclass
+          AND c.relname ~ '^refresh_tokens_p[0-9]{6}$'
+          AND to_date(substring(c.relname FROM '[0-9]{6}$'), 'YYYYMM') + INTERVAL '1 month' <= now()
+    LOOP
+        EXECUTE format('DROP TABLE %I', expired.relname);
+        dropped := dropped + 1;
+    END LOOP;
+
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT maintain_refresh_token_partitions(3);
+
+INSERT INTO refresh_tokens (id, user_id, token_hash, expires_at, created_at)
+SELECT id, user_id, token_hash, expires_at, created_at
+FROM refresh_tokens_legacy
+WHERE expires_at > CURRENT_TIMESTAMP;
+
+DROP TABLE refresh_tokens_legacy;
+
+CREATE INDEX idx_refresh_tokens_user_id ON refresh_tokens(user_id);
+CREATE INDEX idx_refresh_tokens_token_hash ON refresh_tokens(token_hash);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
@@ -0,0 +1,10 @@
+-- Access tokens revoked before their natural expiry (logout). Read only on startup / resync;
+-- per-request checks use the in-memory deny-list in AccessTokenRevocationService.
+CREATE TABLE revoked_access_tokens (
+    token_id UUID PRIMARY KEY,
+    user_id UUID,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_revoked_access_tokens_expires_at ON revoked_access_tokens(expires_at);
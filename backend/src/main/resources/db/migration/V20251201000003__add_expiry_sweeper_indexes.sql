@@ -0,0 +1,7 @@
+-- Partial indexes for CheckoutExpirySweeper: only PENDING rows are ever swept, so the
+-- index stays small no matter how many completed sessions / orders accumulate.
+CREATE INDEX idx_checkout_sessions_pending_expires_at
+    ON checkout_sessions(status, expires_at) WHERE status = 'PENDING';
+
+CREATE INDEX idx_purchase_orders_pending_expires_at
+    ON purchase_orders(status, expires_at) WHERE status = 'PENDING';
@@ -0,0 +1,18 @@
+-- Payment results written in the same transaction as the checkout session update and
+-- delivered asynchronously by PaymentOutboxWorker (at-least-once, retried with backoff).
+CREATE TABLE payment_outbox (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    session_id VARCHAR(255) NOT NULL,
+    success BOOLEAN NOT NULL,
+    failure_reason VARCHAR(500),
+    status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    delivered_at TIMESTAMP
+);
+
+CREATE INDEX idx_payment_outbox_pending_next_attempt
+    ON payment_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_payment_outbox_session_id ON payment_outbox(session_id);
@@ -0,0 +1,9 @@
+-- One row per applied payment webhook (session id + outcome). The primary key makes
+-- redelivered or duplicated webhooks a no-op via INSERT ... ON CONFLICT DO NOTHING.
+CREATE TABLE processed_webhook_events (
+    event_key VARCHAR(300) PRIMARY KEY,
+    session_id VARCHAR(255) NOT NULL,
+    processed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_processed_webhook_events_processed_at ON processed_webhook_events(processed_at);
@@ -0,0 +1,11 @@
+-- Purchase history is read newest first per user, optionally filtered by status, and paged
+-- by (created_at, id). These indexes serve both filters in index order, so a page is a range
+-- scan of at most `size + 1` entries instead of a sort of the user's whole history.
+CREATE INDEX idx_purchase_orders_user_status_created
+    ON purchase_orders(user_id, status, created_at DESC, id DESC);
+CREATE INDEX idx_purchase_orders_user_created
+    ON purchase_orders(user_id, created_at DESC, id DESC);
+
+-- Prefixes of the indexes above.
+DROP INDEX IF EXISTS idx_purchase_orders_user_id;
+DROP INDEX IF EXISTS idx_purchase_orders_user_status;
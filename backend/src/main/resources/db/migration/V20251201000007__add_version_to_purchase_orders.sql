@@ -0,0 +1,3 @@
+-- Optimistic-locking version for purchase orders; status transitions bump it with a
+-- conditional UPDATE ... WHERE status IN (...).
+ALTER TABLE purchase_orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,56 @@
+-- Rows that land in refresh_tokens_default (expiry beyond the pre-created months) made
+-- CREATE TABLE ... PARTITION OF fail once their month came up, because the new range would
+-- overlap rows already in the default partition. New monthly partitions are now created
+-- detached, filled with the matching rows moved out of the default partition, then attached.
+--
+-- token_hash is only unique per expires_at: PostgreSQL cannot enforce a unique constraint on a
+-- partitioned table without the partition key. Global uniqueness relies on every refresh token
+-- carrying a random jti (see JwtService), so two tokens never hash to the same value.
+
+CREATE OR REPLACE FUNCTION maintain_refresh_token_partitions(months_ahead INT)
+RETURNS INT AS $$
+DECLARE
+    month_start DATE;
+    month_end DATE;
+    partition_name TEXT;
+    expired RECORD;
+    dropped INT := 0;
+BEGIN
+    IF NOT pg_try_advisory_xact_lock(hashtext('maintain_refresh_token_partitions')) THEN
+        RETURN 0;
+    END IF;
+
+    FOR i IN 0..months_ahead LOOP
+        month_start := (date_trunc('month', now()) + make_interval(months => i))::DATE;
+        month_end := (month_start + INTERVAL '1 month')::DATE;
+        partition_name := 'refresh_tokens_p' || to_char(month_start, 'YYYYMM');
+
+        IF to_regclass(partition_name) IS NULL THEN
+            -- Keeps new rows for this month out of the default partition until it is attached.
+            LOCK TABLE refresh_tokens_default IN ACCESS EXCLUSIVE MODE;
+            EXECUTE format('CREATE TABLE %I (LIKE refresh_tokens INCLUDING DEFAULTS)', partition_name);
+            EXECUTE format(
+                'WITH moved AS (DELETE FROM refresh_tokens_default WHERE expires_at >= %L AND expires_at < %L RETURNING *) '
+                    || 'INSERT INTO %I SELECT * FROM moved',
+                month_start, month_end, partition_name);
+            EXECUTE format(
+                'ALTER TABLE refresh_tokens ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                partition_name, month_start, month_end);
+        END IF;
+    END LOOP;
+
+    FOR expired IN
+        SELECT c.relname
+        FROM pg_inherits inh
+        JOIN pg_class c ON c.oid = inh.inhrelid
+        WHERE inh.inhparent = 'refresh_tokens'::regclass
+          AND c.relname ~ '^refresh_tokens_p[0-9]{6}$'
+          AND to_date(substring(c.relname FROM '[0-9]{6}$'), 'YYYYMM') + INTERVAL '1 month' <= now()
+    LOOP
+        EXECUTE format('DROP TABLE %I', expired.relname);
+        dropped := dropped + 1;
+    END LOOP;
+
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,13 @@
+-- Successful payments that arrived after their order was cancelled or expired. The customer
+-- was charged but no course was granted, so every row needs a refund or a manual resolution.
+CREATE TABLE unmatched_payments (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    purchase_order_id UUID NOT NULL REFERENCES purchase_orders(id),
+    session_id VARCHAR(255) NOT NULL UNIQUE,
+    order_status VARCHAR(50) NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    received_at TIMESTAMP NOT NULL,
+    resolved_at TIMESTAMP
+);
+
+CREATE INDEX idx_unmatched_payments_unresolved ON unmatched_payments(received_at) WHERE resolved_at IS NULL;
@@ -0,0 +1,127 @@
+package com.waterball.course.benchmark;
+
+import com.waterball.course.entity.User;
+import com.waterball.course.entity.UserRole;
+import com.waterball.course.service.auth.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token verification as done by the authentication filter. The plain methods run on one
+ * thread, so they read as verifications per second per core; the {@code AllThreads} variants
+ * run one thread per available processor and show how the cache holds up when every request
+ * thread hits it at once. Divide their score by the processor count for a per-core figure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+    private static final String SECRET =
+            "d2F0ZXJiYWxsLWNvdXJzZS1wbGF0Zm9ybS1zZWNyZXQta2V5LWZvci1qd3Qtc2lnbmluZy0yMDI0";
+
+    /** Distinct tokens in rotation; models concurrently active sessions. */
+    @Param({"1000"})
+    private int activeTokens;
+
+    private JwtService cachedService;
+    private JwtService uncachedService;
+    private String[] tokens;
+    /** Previous verified-token cache: one lock around an access-ordered map. */
+    private Map<String, Claims> synchronizedCache;
+
+    @Setup
+    public void setUp() {
+        cachedService = newService(10_000);
+        uncachedService = newService(0);
+
+        tokens = new String[activeTokens];
+        for (int i = 0; i < activeTokens; i++) {
+            User user = new User();
+            user.setId(UUID.randomUUID());
+            user.setEmail("user" + i + "@example.com");
+            user.setRole(UserRole.STUDENT);
+            tokens[i] = cachedService.generateAccessToken(user);
+        }
+
+        synchronizedCache = new LinkedHashMap<>(16, 0.75f, true);
+        for (String token : tokens) {
+            synchronizedCache.put(cachedService.hashToken(token), cachedService.verify(token).orElseThrow());
+        }
+    }
+
+    /** Previous filter path: key and parser rebuilt per parse, token parsed twice. */
+    @Benchmark
+    public void rebuildParserAndParseTwice(Blackhole blackhole) {
+        String token = randomToken();
+        blackhole.consume(legacyParse(token));
+        blackhole.consume(UUID.fromString(legacyParse(token).getSubject()));
+    }
+
+    @Benchmark
+    public void prebuiltParserSingleParse(Blackhole blackhole) {
+        blackhole.consume(uncachedService.verify(randomToken()));
+    }
+
+    @Benchmark
+    public void verifiedTokenCache(Blackhole blackhole) {
+        blackhole.consume(cachedService.verify(randomToken()));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void synchronizedCacheAllThreads(Blackhole blackhole) {
+        String digest = cachedService.hashToken(randomToken());
+        synchronized (synchronizedCache) {
+            blackhole.consume(synchronizedCache.get(digest));
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void verifiedTokenCacheAllThreads(Blackhole blackhole) {
+        blackhole.consume(cachedService.verify(randomToken()));
+    }
+
+    private String randomToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    private static Claims legacyParse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static JwtService newService(int verifiedCacheMaxEntries) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(service, "accessExpiration", 1_800_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 2_592_000_000L);
+        ReflectionTestUtils.setField(service, "verifiedCacheMaxEntries", verifiedCacheMaxEntries);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
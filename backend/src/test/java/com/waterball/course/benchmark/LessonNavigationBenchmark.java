@@ -0,0 +1,162 @@
+package com.waterball.course.benchmark;
+
+import com.waterball.course.CoursePlatformApplication;
+import com.waterball.course.dto.response.LessonNavResponse;
+import com.waterball.course.entity.Lesson;
+import com.waterball.course.repository.LessonRepository;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot;
+import com.waterball.course.service.catalog.CatalogSnapshotLoader;
+import com.waterball.course.service.catalog.ContentVersionService;
+import com.waterball.course.service.course.JourneyLessonIndex;
+import com.waterball.course.service.course.LessonService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Previous/next lesson navigation against a real PostgreSQL (Testcontainers, via the {@code test}
+ * profile's {@code jdbc:tc:} URL) for a journey of {@code lessonCount} lessons.
+ * {@code legacyHydrateAndScan} is the previous {@code LessonService} path: hydrate every lesson of
+ * the journey, then scan for the current one. {@code snapshotIndex} is the current path through
+ * the catalog snapshot, {@code lessonDetail} the whole current service call, and
+ * {@code snapshotRebuild} the hydration the current path pays once per content change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LessonNavigationBenchmark {
+    private static final int LESSONS_PER_CHAPTER = 50;
+
+    @Param({"100", "1000", "5000"})
+    private int lessonCount;
+
+    private ConfigurableApplicationContext context;
+    private LessonRepository lessonRepository;
+    private LessonService lessonService;
+    private CatalogService catalogService;
+    private CatalogSnapshotLoader catalogSnapshotLoader;
+    private TransactionTemplate readOnlyTransaction;
+    private UUID journeyId;
+    private UUID userId;
+    private List<UUID> lessonIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(CoursePlatformApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "jwt.secret=" + Base64.getEncoder().encodeToString(
+                                "benchmark-secret-key-for-jwt-must-be-at-least-256-bits-long".getBytes()),
+                        "google.client-id=benchmark-google-client-id",
+                        "app.catalog.revalidate-interval-ms=5000",
+                        "logging.level.root=WARN")
+                .run();
+        lessonRepository = context.getBean(LessonRepository.class);
+        lessonService = context.getBean(LessonService.class);
+        catalogService = context.getBean(CatalogService.class);
+        catalogSnapshotLoader = context.getBean(CatalogSnapshotLoader.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        journeyId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        seedJourney();
+        context.getBean(ContentVersionService.class).revalidate();
+        lessonIds = lessonRepository.findByJourneyIdOrdered(journeyId).stream().map(Lesson::getId).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void legacyHydrateAndScan(Blackhole blackhole) {
+        UUID lessonId = randomLessonId();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            List<Lesson> allLessons = lessonRepository.findByJourneyIdOrdered(journeyId);
+            for (int i = 0; i < allLessons.size(); i++) {
+                if (allLessons.get(i).getId().equals(lessonId)) {
+                    if (i > 0) {
+                        Lesson prev = allLessons.get(i - 1);
+                        blackhole.consume(new LessonNavResponse(prev.getId(), prev.getTitle()));
+                    }
+                    if (i < allLessons.size() - 1) {
+                        Lesson next = allLessons.get(i + 1);
+                        blackhole.consume(new LessonNavResponse(next.getId(), next.getTitle()));
+                    }
+                    break;
+                }
+            }
+        });
+    }
+
+    @Benchmark
+    public void snapshotIndex(Blackhole blackhole) {
+        UUID lessonId = randomLessonId();
+        CatalogSnapshot catalog = catalogService.snapshot();
+        JourneyLessonIndex index = catalog.journey(catalog.findLesson(lessonId).orElseThrow().journey()).lessonIndex();
+        blackhole.consume(index.previous(lessonId));
+        blackhole.consume(index.next(lessonId));
+    }
+
+    @Benchmark
+    public void lessonDetail(Blackhole blackhole) {
+        blackhole.consume(lessonService.getLessonDetail(randomLessonId(), userId));
+    }
+
+    @Benchmark
+    public void snapshotRebuild(Blackhole blackhole) {
+        blackhole.consume(catalogSnapshotLoader.load(0));
+    }
+
+    private UUID randomLessonId() {
+        return lessonIds.get(ThreadLocalRandom.current().nextInt(lessonIds.size()));
+    }
+
+    private void seedJourney() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO journeys (id, title, description, is_published, price, created_at, updated_at)
+                VALUES (?, 'Benchmark Journey', 'Lesson navigation benchmark', true, 1999.00, NOW(), NOW())
+                """, journeyId);
+        jdbcTemplate.update("""
+                INSERT INTO chapters (id, journey_id, title, sort_order, access_type, created_at, updated_at)
+                SELECT gen_random_uuid(), ?, 'Chapter ' || n, n, 'PUBLIC', NOW(), NOW()
+                FROM generate_series(0, ? - 1) AS n
+                """, journeyId, (lessonCount + LESSONS_PER_CHAPTER - 1) / LESSONS_PER_CHAPTER);
+        jdbcTemplate.update("""
+                INSERT INTO lessons (id, chapter_id, title, description, lesson_type, content_url,
+                                     duration_seconds, sort_order, access_type, created_at, updated_at)
+                SELECT gen_random_uuid(), c.id, 'Lesson ' || (c.sort_order * ? + n), 'Benchmark lesson',
+                       'ARTICLE', 'https://example.com/article', 600, n, 'PUBLIC', NOW(), NOW()
+                FROM chapters c
+                CROSS JOIN generate_series(0, ? - 1) AS n
+                WHERE c.journey_id = ? AND c.sort_order * ? + n < ?
+                """, LESSONS_PER_CHAPTER, LESSONS_PER_CHAPTER, journeyId, LESSONS_PER_CHAPTER, lessonCount);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LessonNavigationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
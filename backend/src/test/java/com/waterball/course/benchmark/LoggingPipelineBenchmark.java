@@ -0,0 +1,154 @@
+package com.waterball.course.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.waterball.course.config.LogRateLimitFilter;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Request latency added by logging when every request writes its {@code LoggingFilter}
+ * "Request completed" line and one in {@code webhookEvery} requests is a payment webhook that
+ * writes the purchase audit line. Compares the previous synchronous console + file pipeline
+ * with the async appenders from {@code logback-spring.xml}, with and without the request-log
+ * rate limit. Under saturation the async JSON queue sheds INFO events by design, so its score
+ * is the cost a request thread pays, not the cost of writing every line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingPipelineBenchmark {
+    private static final String REQUEST_LOGGER = "com.waterball.course.config.LoggingFilter";
+    private static final String WEBHOOK_LOGGER = "com.waterball.course.service.payment.PaymentWebhookService";
+    private static final String PAYMENT_LOGGER = "com.waterball.course.service.payment";
+
+    public enum Pipeline { SYNC, ASYNC, ASYNC_RATE_LIMITED }
+
+    @Param({"SYNC", "ASYNC", "ASYNC_RATE_LIMITED"})
+    private Pipeline pipeline;
+
+    /** One request in this many is a payment webhook. */
+    @Param({"50"})
+    private int webhookEvery;
+
+    private LoggerContext context;
+    private Path directory;
+    private Logger requestLogger;
+    private Logger webhookLogger;
+    private UUID orderId;
+    private UUID journeyId;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("logging-benchmark");
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.start();
+
+        Appender<ILoggingEvent> console = fileAppender("console");
+        Appender<ILoggingEvent> file = fileAppender("purchase");
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+
+        if (pipeline == Pipeline.SYNC) {
+            root.addAppender(console);
+            root.addAppender(file);
+        } else {
+            root.addAppender(async("ASYNC_JSON", console, 8192, 1638, true));
+            context.getLogger(PAYMENT_LOGGER).addAppender(async("ASYNC_FILE", file, 2048, 0, false));
+        }
+        if (pipeline == Pipeline.ASYNC_RATE_LIMITED) {
+            LogRateLimitFilter filter = new LogRateLimitFilter();
+            filter.setContext(context);
+            filter.addLoggerName(REQUEST_LOGGER);
+            filter.setMaxPerSecond(100);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+
+        requestLogger = context.getLogger(REQUEST_LOGGER);
+        webhookLogger = context.getLogger(WEBHOOK_LOGGER);
+        orderId = UUID.randomUUID();
+        journeyId = UUID.randomUUID();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void request() {
+        long startedAt = System.nanoTime();
+        Blackhole.consumeCPU(2_000);
+        boolean webhook = ThreadLocalRandom.current().nextInt(webhookEvery) == 0;
+        if (webhook) {
+            webhookLogger.info("Webhook processed successfully",
+                    kv("event", "WEBHOOK_PROCESSED"),
+                    kv("orderId", orderId),
+                    kv("journeyId", journeyId),
+                    kv("status", "COMPLETED"));
+        }
+        requestLogger.info("Request completed",
+                kv("event", "HTTP_REQUEST_COMPLETED"),
+                kv("method", webhook ? "POST" : "GET"),
+                kv("path", webhook ? "/api/webhooks/payment" : "/api/journeys/" + journeyId),
+                kv("status", 200),
+                kv("durationMs", (System.nanoTime() - startedAt) / 1_000_000),
+                kv("sqlStatements", 3),
+                kv("sqlTimeMs", 1));
+    }
+
+    private Appender<ILoggingEvent> fileAppender(String name) {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setFile(directory.resolve(name + ".log").toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private Appender<ILoggingEvent> async(String name, Appender<ILoggingEvent> delegate, int queueSize,
+                                          int discardingThreshold, boolean neverBlock) {
+        AsyncAppender appender = new AsyncAppender();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setQueueSize(queueSize);
+        appender.setDiscardingThreshold(discardingThreshold);
+        appender.setNeverBlock(neverBlock);
+        appender.setIncludeCallerData(false);
+        appender.addAppender(delegate);
+        appender.start();
+        return appender;
+    }
+}
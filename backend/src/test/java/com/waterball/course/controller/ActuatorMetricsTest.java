@@ -0,0 +1,96 @@
+package com.waterball.course.controller;
+
+import com.waterball.course.entity.User;
+import com.waterball.course.entity.UserRole;
+import com.waterball.course.repository.UserRepository;
+import com.waterball.course.service.StorageService;
+import com.waterball.course.service.auth.JwtService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ActuatorMetricsTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("should expose request, service, pool, JVM and storage metrics to Prometheus")
+    void prometheus_shouldExposeApplicationMetrics() throws Exception {
+        mockMvc.perform(get("/api/journeys")).andExpect(status().isOk());
+        storageService.uploadFile("metrics/test.txt",
+                new MockMultipartFile("file", "test.txt", "text/plain", "data".getBytes()));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").with(remoteAddr("127.0.0.1")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket")
+                .contains("uri=\"/api/journeys\"")
+                .contains("quantile=\"0.99\"")
+                .contains("service_method_seconds_count")
+                .contains("method=\"uploadFile\"")
+                .doesNotContain("class=\"CatalogService\"")
+                .doesNotContain("class=\"ContentVersionService\"")
+                .contains("storage_upload_bytes_total")
+                .contains("hikaricp_connections")
+                .contains("jvm_memory_used_bytes")
+                .contains("purchase_funnel_stage_total")
+                .contains("google_idtoken_verify_seconds_count");
+    }
+
+    @Test
+    @DisplayName("should require an ADMIN login to scrape from outside the allowed networks")
+    void prometheus_fromOutsideScrapeNetwork_shouldRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddr("203.0.113.7")))
+                .andExpect(status().isUnauthorized());
+
+        User admin = new User();
+        admin.setEmail("admin@example.com");
+        admin.setName("Admin");
+        admin.setRole(UserRole.ADMIN);
+        admin = userRepository.save(admin);
+
+        mockMvc.perform(get("/actuator/prometheus")
+                        .with(remoteAddr("203.0.113.7"))
+                        .cookie(new Cookie("access_token", jwtService.generateAccessToken(admin))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("should require authentication for other actuator endpoints")
+    void metricsEndpoint_withoutAuthentication_shouldReturn401() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
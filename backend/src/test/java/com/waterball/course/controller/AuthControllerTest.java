@@ -9,6 +9,7 @@ import com.waterball.course.repository.RefreshTokenRepository;
 import com.waterball.course.repository.UserAuthProviderRepository;
 import com.waterball.course.repository.UserRepository;
 import com.waterball.course.service.auth.JwtService;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,11 +17,20 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -96,6 +106,30 @@ class AuthControllerTest extends BaseIntegrationTest {
                             .cookie(new Cookie("access_token", "invalid-token")))
                     .andExpect(status().isUnauthorized());
         }
+
+        @Test
+        @DisplayName("should return 401 when a refresh token is presented as the access token")
+        void withRefreshTokenAsAccessToken_shouldReturn401() throws Exception {
+            String refreshToken = jwtService.generateRefreshToken(testUser);
+
+            mockMvc.perform(get("/api/auth/me")
+                            .cookie(new Cookie("access_token", refreshToken)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        @DisplayName("should return 401 when token user no longer exists")
+        void withTokenOfDeletedUser_shouldReturn401() throws Exception {
+            User ghost = new User();
+            ghost.setId(UUID.randomUUID());
+            ghost.setEmail("ghost@example.com");
+            ghost.setRole(UserRole.STUDENT);
+            String accessToken = jwtService.generateAccessToken(ghost);
+
+            mockMvc.perform(get("/api/auth/me")
+                            .cookie(new Cookie("access_token", accessToken)))
+                    .andExpect(status().isUnauthorized());
+        }
     }
 
     @Nested
@@ -133,6 +167,22 @@ class AuthControllerTest extends BaseIntegrationTest {
                     .andExpect(jsonPath("$.error").value("Unauthorized"));
         }
 
+        @Test
+        @DisplayName("should return 401 when an access token is presented as the refresh token")
+        void withAccessTokenAsRefreshToken_shouldReturn401() throws Exception {
+            String accessToken = jwtService.generateAccessToken(testUser);
+
+            com.waterball.course.entity.RefreshToken tokenEntity = new com.waterball.course.entity.RefreshToken();
+            tokenEntity.setUser(testUser);
+            tokenEntity.setTokenHash(jwtService.hashToken(accessToken));
+            tokenEntity.setExpiresAt(java.time.LocalDateTime.now().plusDays(30));
+            refreshTokenRepository.save(tokenEntity);
+
+            mockMvc.perform(post("/api/auth/refresh")
+                            .cookie(new Cookie("refresh_token", accessToken)))
+                    .andExpect(status().isUnauthorized());
+        }
+
         @Test
         @DisplayName("should return 401 when refresh token is invalid")
         void withInvalidRefreshToken_shouldReturn401() throws Exception {
@@ -175,6 +225,24 @@ class AuthControllerTest extends BaseIntegrationTest {
             assertThat(refreshTokenRepository.findByTokenHash(jwtService.hashToken(refreshToken))).isEmpty();
         }
 
+        @Test
+        @DisplayName("should revoke the access token immediately")
+        void withAccessToken_shouldRevokeItImmediately() throws Exception {
+            String accessToken = jwtService.generateAccessToken(testUser);
+
+            mockMvc.perform(get("/api/auth/me")
+                            .cookie(new Cookie("access_token", accessToken)))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(post("/api/auth/logout")
+                            .cookie(new Cookie("access_token", accessToken)))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/api/auth/me")
+                            .cookie(new Cookie("access_token", accessToken)))
+                    .andExpect(status().isUnauthorized());
+        }
+
         @Test
         @DisplayName("should succeed even without refresh token")
         void withoutRefreshToken_shouldSucceed() throws Exception {
@@ -205,5 +273,53 @@ class AuthControllerTest extends BaseIntegrationTest {
                             .content("{\"credential\": \"invalid-google-token\"}"))
                     .andExpect(status().isUnauthorized());
         }
+
+        @Test
+        @DisplayName("should create user and set cookies when credential is signed by a known Google key")
+        void withValidCredential_shouldCreateUserAndSetCookies() throws Exception {
+            String credential = googleIdToken("test-google-client-id", "google-456", "new@example.com");
+
+            MvcResult result = mockMvc.perform(post("/api/auth/google")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"credential\": \"" + credential + "\"}"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            assertThat(result.getResponse().getCookie("access_token")).isNotNull();
+            assertThat(result.getResponse().getCookie("refresh_token")).isNotNull();
+            assertThat(userRepository.findByEmail("new@example.com")).isPresent();
+        }
+
+        @Test
+        @DisplayName("should return 401 when credential is issued for another audience")
+        void withForeignAudience_shouldReturn401() throws Exception {
+            String credential = googleIdToken("another-client-id", "google-456", "new@example.com");
+
+            mockMvc.perform(post("/api/auth/google")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"credential\": \"" + credential + "\"}"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    private String googleIdToken(String audience, String subject, String email) throws Exception {
+        String pem = new ClassPathResource("google/test-signing-key.pem").getContentAsString(StandardCharsets.UTF_8)
+                .replaceAll("-----[A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        PrivateKey signingKey = KeyFactory.getInstance("RSA")
+                .generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(pem)));
+
+        Date now = new Date();
+        return Jwts.builder()
+                .header().keyId("test-key-1").and()
+                .issuer("https://accounts.google.com")
+                .audience().add(audience).and()
+                .subject(subject)
+                .claim("email", email)
+                .claim("name", "New User")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + 3_600_000))
+                .signWith(signingKey)
+                .compact();
     }
 }
@@ -3,7 +3,10 @@ package com.waterball.course.controller;
 import com.waterball.course.entity.User;
 import com.waterball.course.entity.UserRole;
 import com.waterball.course.repository.*;
+import com.waterball.course.service.UserStateCache;
 import com.waterball.course.service.auth.JwtService;
+import com.waterball.course.service.catalog.AnonymousResponseCache;
+import com.waterball.course.service.course.LessonProgressService;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,11 +14,17 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +37,7 @@ class JourneyControllerTest extends BaseIntegrationTest {
     private static final UUID PUBLISHED_JOURNEY_ID = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
     private static final UUID UNPUBLISHED_JOURNEY_ID = UUID.fromString("dddddddd-dddd-dddd-dddd-dddddddddddd");
     private static final UUID TEST_USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final UUID PUBLIC_LESSON_ID = UUID.fromString("11111111-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
     private static final UUID NON_EXISTENT_ID = UUID.fromString("99999999-9999-9999-9999-999999999999");
 
     @Autowired
@@ -39,6 +49,18 @@ class JourneyControllerTest extends BaseIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserStateCache userStateCache;
+
+    @Autowired
+    private LessonProgressService lessonProgressService;
+
+    @Autowired
+    private AnonymousResponseCache anonymousResponseCache;
+
     private String accessToken;
     private User testUser;
 
@@ -72,6 +94,24 @@ class JourneyControllerTest extends BaseIntegrationTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$[*].id", not(hasItem(UNPUBLISHED_JOURNEY_ID.toString()))));
         }
+
+        @Test
+        @DisplayName("should reflect content changes after catalog was cached")
+        void getJourneys_afterContentChange_shouldReturnUpdatedCounts() throws Exception {
+            mockMvc.perform(get("/api/journeys"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].lessonCount").value(4));
+
+            jdbcTemplate.update("INSERT INTO lessons (id, chapter_id, title, lesson_type, duration_seconds, " +
+                    "sort_order, access_type, created_at, updated_at) VALUES (?::uuid, ?::uuid, 'New Lesson', " +
+                    "'VIDEO', 100, 2, 'PURCHASED', NOW(), NOW())",
+                    "55555555-aaaa-aaaa-aaaa-aaaaaaaaaaaa", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+
+            mockMvc.perform(get("/api/journeys"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].lessonCount").value(5))
+                    .andExpect(jsonPath("$[0].totalDurationSeconds").value(1000));
+        }
     }
 
     @Nested
@@ -127,6 +167,233 @@ class JourneyControllerTest extends BaseIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Conditional GET")
+    class ConditionalGet {
+
+        @Test
+        @DisplayName("should return 304 when If-None-Match matches current ETag")
+        void getJourneys_withMatchingEtag_shouldReturn304() throws Exception {
+            String etag = mockMvc.perform(get("/api/journeys"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/journeys").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("should return 200 with new ETag after content change")
+        void getJourneyDetail_afterContentChange_shouldReturnNewEtag() throws Exception {
+            String etag = mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            jdbcTemplate.update("UPDATE journeys SET title = 'Renamed Journey', updated_at = NOW() + INTERVAL '1 second' " +
+                    "WHERE id = ?::uuid", PUBLISHED_JOURNEY_ID.toString());
+
+            mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID).header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", not(etag)))
+                    .andExpect(jsonPath("$.title").value("Renamed Journey"));
+        }
+
+        @Test
+        @DisplayName("should return different ETag for authenticated user after purchase")
+        void getJourneyDetail_afterPurchase_shouldReturnNewEtag() throws Exception {
+            String etag = mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID)
+                            .cookie(new Cookie("access_token", accessToken)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.isPurchased").value(false))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            jdbcTemplate.update("INSERT INTO user_purchases (id, user_id, journey_id, purchased_at) " +
+                    "VALUES (gen_random_uuid(), ?::uuid, ?::uuid, NOW())",
+                    TEST_USER_ID.toString(), PUBLISHED_JOURNEY_ID.toString());
+
+            mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID)
+                            .cookie(new Cookie("access_token", accessToken))
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.isPurchased").value(true));
+        }
+
+        @Test
+        @DisplayName("should serve the cached user state until the user's progress changes")
+        void getJourneyDetail_withUserStateCache_shouldChangeEtagAfterProgress() throws Exception {
+            ReflectionTestUtils.setField(userStateCache, "ttlMs", 60_000L);
+            try {
+                Cookie cookie = new Cookie("access_token", accessToken);
+                String etag = mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID).cookie(cookie))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getHeader("ETag");
+
+                mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID).cookie(cookie)
+                                .header("If-None-Match", etag))
+                        .andExpect(status().isNotModified());
+
+                lessonProgressService.completeLesson(PUBLIC_LESSON_ID, TEST_USER_ID);
+
+                mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID).cookie(cookie)
+                                .header("If-None-Match", etag))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", not(etag)));
+            } finally {
+                ReflectionTestUtils.setField(userStateCache, "ttlMs", 0L);
+                userStateCache.onResync();
+            }
+        }
+
+        @Test
+        @DisplayName("should keep the ETag across progress heartbeats that do not complete a lesson")
+        void getJourneyDetail_afterProgressHeartbeat_shouldKeepEtag() throws Exception {
+            ReflectionTestUtils.setField(userStateCache, "ttlMs", 60_000L);
+            try {
+                Cookie cookie = new Cookie("access_token", accessToken);
+                String etag = mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID).cookie(cookie))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getHeader("ETag");
+
+                lessonProgressService.updateProgress(PUBLIC_LESSON_ID, TEST_USER_ID, 120);
+                userStateCache.onResync();
+
+                mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID).cookie(cookie)
+                                .header("If-None-Match", etag))
+                        .andExpect(status().isNotModified());
+            } finally {
+                ReflectionTestUtils.setField(userStateCache, "ttlMs", 0L);
+                userStateCache.onResync();
+            }
+        }
+
+        @Test
+        @DisplayName("should return 304 for If-None-Match: * on an existing journey")
+        void getJourneyDetail_withWildcard_shouldReturn304() throws Exception {
+            Cookie cookie = new Cookie("access_token", accessToken);
+            mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID).cookie(cookie)
+                            .header("If-None-Match", "*"))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().exists("ETag"))
+                    .andExpect(content().string(""));
+
+            mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID).header("If-None-Match", "*"))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID).header("If-None-Match", "*"))
+                    .andExpect(status().isNotModified());
+        }
+
+        @Test
+        @DisplayName("should return 404 rather than 304 for If-None-Match: * on a missing journey")
+        void getJourneyDetail_notFoundWithWildcard_shouldReturn404() throws Exception {
+            mockMvc.perform(get("/api/journeys/{journeyId}", NON_EXISTENT_ID).header("If-None-Match", "*"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("should not attach ETag to 404 responses")
+        void getJourneyDetail_notFound_shouldNotReturnEtag() throws Exception {
+            mockMvc.perform(get("/api/journeys/{journeyId}", NON_EXISTENT_ID))
+                    .andExpect(status().isNotFound())
+                    .andExpect(header().doesNotExist("ETag"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Anonymous response cache")
+    class AnonymousCache {
+
+        @Test
+        @DisplayName("should serve gzipped cached body to anonymous clients")
+        void getJourneys_anonymousWithGzip_shouldServeCompressedBody() throws Exception {
+            mockMvc.perform(get("/api/journeys"))
+                    .andExpect(status().isOk());
+
+            byte[] body = mockMvc.perform(get("/api/journeys").header("Accept-Encoding", "gzip"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).contains("Published Journey");
+            }
+        }
+
+        @Test
+        @DisplayName("should vary on Accept-Encoding on both miss and hit, and honour gzip;q=0")
+        void getJourneys_anonymous_shouldVaryAndNegotiateEncoding() throws Exception {
+            mockMvc.perform(get("/api/journeys"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")));
+
+            mockMvc.perform(get("/api/journeys").header("Accept-Encoding", "gzip;q=0, identity"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(jsonPath("$[0].title").value("Published Journey"));
+        }
+
+        @Test
+        @DisplayName("should tag the gzip body separately from the identity body")
+        void getJourneys_anonymousWithGzip_shouldUseDistinctEtag() throws Exception {
+            String identityTag = mockMvc.perform(get("/api/journeys"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            String gzipTag = mockMvc.perform(get("/api/journeys").header("Accept-Encoding", "gzip"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andReturn().getResponse().getHeader("ETag");
+            assertThat(gzipTag).isNotEqualTo(identityTag).endsWith("-gzip\"");
+
+            mockMvc.perform(get("/api/journeys").header("Accept-Encoding", "gzip").header("If-None-Match", gzipTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", gzipTag));
+
+            mockMvc.perform(get("/api/journeys").header("If-None-Match", gzipTag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", identityTag))
+                    .andExpect(header().doesNotExist("Content-Encoding"));
+        }
+
+        @Test
+        @DisplayName("should evict the least recently used entry and ignore unknown query parameters")
+        void getCatalog_anonymous_shouldEvictLeastRecentlyUsed() throws Exception {
+            anonymousResponseCache.onResync();
+            ReflectionTestUtils.setField(anonymousResponseCache, "maxEntries", 2);
+            try {
+                mockMvc.perform(get("/api/journeys").param("utm_source", "newsletter")).andExpect(status().isOk());
+                mockMvc.perform(get("/api/gyms")).andExpect(status().isOk());
+                mockMvc.perform(get("/api/journeys")).andExpect(status().isOk());
+                mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID)).andExpect(status().isOk());
+
+                long version = anonymousResponseCache.currentVersion();
+                assertThat(anonymousResponseCache.get("/api/journeys", version)).isPresent();
+                assertThat(anonymousResponseCache.get("/api/journeys/" + PUBLISHED_JOURNEY_ID, version)).isPresent();
+                assertThat(anonymousResponseCache.get("/api/gyms", version)).isEmpty();
+            } finally {
+                ReflectionTestUtils.setField(anonymousResponseCache, "maxEntries", 512);
+                anonymousResponseCache.onResync();
+            }
+        }
+
+        @Test
+        @DisplayName("should not serve anonymous cached body to authenticated users")
+        @Sql(scripts = "/sql/test-purchase-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+        void getJourneyDetail_authenticatedAfterAnonymous_shouldReturnPersonalizedBody() throws Exception {
+            mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.isPurchased").value(false));
+
+            mockMvc.perform(get("/api/journeys/{journeyId}", PUBLISHED_JOURNEY_ID)
+                            .cookie(new Cookie("access_token", accessToken)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.isPurchased").value(true));
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/journeys/{journeyId}/progress")
     class GetJourneyProgress {
@@ -143,7 +410,12 @@ class JourneyControllerTest extends BaseIntegrationTest {
                     .andExpect(jsonPath("$.totalLessons").value(4))
                     .andExpect(jsonPath("$.completedLessons").value(1))
                     .andExpect(jsonPath("$.progressPercentage").value(25))
-                    .andExpect(jsonPath("$.chapters", hasSize(2)));
+                    .andExpect(jsonPath("$.chapters", hasSize(2)))
+                    .andExpect(jsonPath("$.chapters[0].title").value("Chapter 1"))
+                    .andExpect(jsonPath("$.chapters[0].totalLessons").value(2))
+                    .andExpect(jsonPath("$.chapters[0].completedLessons").value(1))
+                    .andExpect(jsonPath("$.chapters[1].totalLessons").value(2))
+                    .andExpect(jsonPath("$.chapters[1].completedLessons").value(0));
         }
 
         @Test
@@ -0,0 +1,151 @@
+package com.waterball.course.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waterball.course.dto.request.CreatePurchaseRequest;
+import com.waterball.course.dto.response.PurchaseOrderResponse;
+import com.waterball.course.entity.PaymentMethod;
+import com.waterball.course.entity.User;
+import com.waterball.course.entity.UserRole;
+import com.waterball.course.repository.PurchaseOrderRepository;
+import com.waterball.course.repository.UserRepository;
+import com.waterball.course.service.auth.JwtService;
+import com.waterball.course.service.payment.PaymentResult;
+import com.waterball.course.service.payment.PaymentWebhookService;
+import com.waterball.course.service.purchase.PurchaseService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class MetricsControllerTest extends BaseIntegrationTest {
+
+    private static final UUID PUBLISHED_JOURNEY_ID = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
+    private static final UUID TEST_USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("should return 403 for non-admin users")
+    void getPurchaseFunnel_asStudent_shouldReturn403() throws Exception {
+        User student = userRepository.findById(TEST_USER_ID).orElseThrow();
+
+        mockMvc.perform(get("/api/metrics/purchase-funnel")
+                        .cookie(new Cookie("access_token", jwtService.generateAccessToken(student))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("should count funnel stages and created-to-paid latency per journey")
+    void getPurchaseFunnel_afterPaidOrder_shouldReportJourneyFunnel() throws Exception {
+        Cookie adminCookie = new Cookie("access_token", jwtService.generateAccessToken(createAdmin()));
+        JsonNode before = fetchFunnel(adminCookie);
+
+        CreatePurchaseRequest request = new CreatePurchaseRequest();
+        request.setJourneyId(PUBLISHED_JOURNEY_ID);
+        request.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        PurchaseOrderResponse order = purchaseService.createPurchaseOrder(TEST_USER_ID, request);
+        String sessionId = purchaseOrderRepository.findById(order.getId()).orElseThrow().getCheckoutSessionId();
+        paymentWebhookService.handlePaymentResult(sessionId, PaymentResult.successful());
+
+        JsonNode after = fetchFunnel(adminCookie);
+
+        assertThat(stage(after.path("stages"), "ORDER_CREATED") - stage(before.path("stages"), "ORDER_CREATED"))
+                .isEqualTo(1);
+        assertThat(stage(after.path("stages"), "CHECKOUT_SESSION_CREATED") - stage(before.path("stages"), "CHECKOUT_SESSION_CREATED"))
+                .isEqualTo(1);
+        assertThat(stage(after.path("stages"), "ORDER_COMPLETED") - stage(before.path("stages"), "ORDER_COMPLETED"))
+                .isEqualTo(1);
+        assertThat(after.path("latencies").path("ORDER_COMPLETED").path("count").asLong()).isPositive();
+
+        JsonNode journey = journey(after, PUBLISHED_JOURNEY_ID);
+        assertThat(journey).isNotNull();
+        assertThat(journey.path("conversionRate").asDouble()).isPositive();
+        assertThat(journey.path("createdToPaid").path("count").asLong()).isPositive();
+    }
+
+    @Test
+    @DisplayName("should not count stages of a transaction that rolls back")
+    void getPurchaseFunnel_afterRolledBackOrder_shouldNotCountIt() throws Exception {
+        Cookie adminCookie = new Cookie("access_token", jwtService.generateAccessToken(createAdmin()));
+        JsonNode before = fetchFunnel(adminCookie);
+
+        CreatePurchaseRequest request = new CreatePurchaseRequest();
+        request.setJourneyId(PUBLISHED_JOURNEY_ID);
+        request.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        transactionTemplate.executeWithoutResult(status -> {
+            purchaseService.createPurchaseOrder(TEST_USER_ID, request);
+            status.setRollbackOnly();
+        });
+
+        JsonNode after = fetchFunnel(adminCookie);
+
+        assertThat(purchaseOrderRepository.count()).isZero();
+        assertThat(stage(after.path("stages"), "ORDER_CREATED")).isEqualTo(stage(before.path("stages"), "ORDER_CREATED"));
+        assertThat(stage(after.path("stages"), "CHECKOUT_SESSION_CREATED"))
+                .isEqualTo(stage(before.path("stages"), "CHECKOUT_SESSION_CREATED"));
+    }
+
+    private JsonNode fetchFunnel(Cookie cookie) throws Exception {
+        String body = mockMvc.perform(get("/api/metrics/purchase-funnel").cookie(cookie))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private User createAdmin() {
+        User admin = new User();
+        admin.setEmail("admin@example.com");
+        admin.setName("Admin");
+        admin.setRole(UserRole.ADMIN);
+        return userRepository.save(admin);
+    }
+
+    private static long stage(JsonNode stages, String name) {
+        return stages.path(name).asLong();
+    }
+
+    private static JsonNode journey(JsonNode funnel, UUID journeyId) {
+        for (JsonNode journey : funnel.path("journeys")) {
+            if (journeyId.toString().equals(journey.path("journeyId").asText())) {
+                return journey;
+            }
+        }
+        return null;
+    }
+}
@@ -1,26 +1,39 @@
 package com.waterball.course.controller;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.waterball.course.entity.User;
+import com.waterball.course.repository.ProcessedWebhookEventRepository;
+import com.waterball.course.repository.UserPurchaseRepository;
 import com.waterball.course.repository.UserRepository;
 import com.waterball.course.service.auth.JwtService;
+import com.waterball.course.service.payment.PaymentWebhookService;
+import com.waterball.course.service.purchase.PurchaseAdmissionService;
+import com.waterball.course.util.LoggingConstants;
 import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -48,6 +61,18 @@ class PurchaseControllerTest extends BaseIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserPurchaseRepository userPurchaseRepository;
+
+    @Autowired
+    private ProcessedWebhookEventRepository processedWebhookEventRepository;
+
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
+    @Autowired
+    private PurchaseAdmissionService purchaseAdmissionService;
+
     @Value("${app.payment.webhook-secret:mock-webhook-secret-12345}")
     private String webhookSecret;
 
@@ -174,6 +199,79 @@ class PurchaseControllerTest extends BaseIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/purchases while the waiting room is closed")
+    class CreatePurchaseWithAdmission {
+
+        @BeforeEach
+        void exhaustAdmission() {
+            ReflectionTestUtils.setField(purchaseAdmissionService, "enabled", true);
+            ReflectionTestUtils.setField(purchaseAdmissionService, "burst", 1);
+            ReflectionTestUtils.setField(purchaseAdmissionService, "ratePerSecond", 0.001);
+            purchaseAdmissionService.admit(OTHER_USER_ID, PUBLISHED_JOURNEY_ID);
+        }
+
+        @AfterEach
+        void restoreDefaults() {
+            ReflectionTestUtils.setField(purchaseAdmissionService, "enabled", false);
+            ReflectionTestUtils.setField(purchaseAdmissionService, "burst", 20);
+            ReflectionTestUtils.setField(purchaseAdmissionService, "ratePerSecond", 20.0);
+            ((Map<?, ?>) ReflectionTestUtils.getField(purchaseAdmissionService, "rooms")).clear();
+        }
+
+        @Test
+        @DisplayName("should resume a pending order without queueing")
+        void createPurchase_withPendingOrder_shouldSkipWaitingRoom() throws Exception {
+            ReflectionTestUtils.setField(purchaseAdmissionService, "enabled", false);
+            Map<String, Object> request = new HashMap<>();
+            request.put("journeyId", PUBLISHED_JOURNEY_ID.toString());
+            request.put("paymentMethod", "CREDIT_CARD");
+            mockMvc.perform(post("/api/purchases")
+                            .cookie(new Cookie("access_token", accessToken))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+            ReflectionTestUtils.setField(purchaseAdmissionService, "enabled", true);
+
+            mockMvc.perform(post("/api/purchases")
+                            .cookie(new Cookie("access_token", accessToken))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("PENDING"))
+                    .andExpect(jsonPath("$.checkoutUrl").isNotEmpty());
+        }
+
+        @Test
+        @DisplayName("should return 409 for an owned journey without queueing")
+        @Sql(scripts = "/sql/test-purchase-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+        void createPurchase_withAlreadyPurchased_shouldSkipWaitingRoom() throws Exception {
+            Map<String, Object> request = new HashMap<>();
+            request.put("journeyId", PUBLISHED_JOURNEY_ID.toString());
+            request.put("paymentMethod", "CREDIT_CARD");
+
+            mockMvc.perform(post("/api/purchases")
+                            .cookie(new Cookie("access_token", accessToken))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isConflict());
+        }
+
+        @Test
+        @DisplayName("should queue a first purchase attempt")
+        void createPurchase_withoutPendingOrder_shouldQueue() throws Exception {
+            Map<String, Object> request = new HashMap<>();
+            request.put("journeyId", PUBLISHED_JOURNEY_ID.toString());
+            request.put("paymentMethod", "CREDIT_CARD");
+
+            mockMvc.perform(post("/api/purchases")
+                            .cookie(new Cookie("access_token", accessToken))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isAccepted());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/purchases")
     class GetPurchaseHistory {
@@ -312,6 +410,55 @@ class PurchaseControllerTest extends BaseIntegrationTest {
                     .andExpect(jsonPath("$.status").value("FAILED"))
                     .andExpect(jsonPath("$.failureReason").value("Insufficient funds"));
         }
+
+        @Test
+        @DisplayName("should apply a redelivered success webhook only once")
+        void webhook_withDuplicateSuccess_shouldApplyOnce() throws Exception {
+            String purchaseId = createPurchaseOrder(PUBLISHED_JOURNEY_ID);
+
+            completePaymentViaWebhook(purchaseId);
+            completePaymentViaWebhook(purchaseId);
+            completePaymentViaWebhook(purchaseId);
+
+            mockMvc.perform(get("/api/purchases/{purchaseId}", purchaseId)
+                            .cookie(new Cookie("access_token", accessToken)))
+                    .andExpect(jsonPath("$.status").value("COMPLETED"));
+            assertThat(userPurchaseRepository.findByUserId(TEST_USER_ID))
+                    .filteredOn(purchase -> purchase.getJourney().getId().equals(PUBLISHED_JOURNEY_ID))
+                    .hasSize(1);
+            assertThat(processedWebhookEventRepository.count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should reject a redelivered webhook through the database when the in-memory keys are off")
+        void webhook_withDuplicateSuccessAndNoRecentKeys_shouldApplyOnce() throws Exception {
+            Object recentKeysCapacity = ReflectionTestUtils.getField(paymentWebhookService, "recentKeysCapacity");
+            Logger webhookLogger = (Logger) LoggerFactory.getLogger(PaymentWebhookService.class);
+            ListAppender<ILoggingEvent> appender = new ListAppender<>();
+            appender.start();
+            webhookLogger.addAppender(appender);
+            ReflectionTestUtils.setField(paymentWebhookService, "recentKeysCapacity", 0);
+            try {
+                String purchaseId = createPurchaseOrder(PUBLISHED_JOURNEY_ID);
+
+                completePaymentViaWebhook(purchaseId);
+                completePaymentViaWebhook(purchaseId);
+
+                assertThat(userPurchaseRepository.findByUserId(TEST_USER_ID))
+                        .filteredOn(purchase -> purchase.getJourney().getId().equals(PUBLISHED_JOURNEY_ID))
+                        .hasSize(1);
+                assertThat(processedWebhookEventRepository.count()).isEqualTo(1);
+                assertThat(appender.list)
+                        .filteredOn(event -> event.getArgumentArray() != null)
+                        .extracting(event -> Arrays.toString(event.getArgumentArray()))
+                        .anySatisfy(args -> assertThat(args)
+                                .contains(LoggingConstants.WEBHOOK_DUPLICATE_IGNORED)
+                                .contains("source=database"));
+            } finally {
+                ReflectionTestUtils.setField(paymentWebhookService, "recentKeysCapacity", recentKeysCapacity);
+                webhookLogger.detachAppender(appender);
+            }
+        }
     }
 
     @Nested
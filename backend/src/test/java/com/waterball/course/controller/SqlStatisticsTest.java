@@ -0,0 +1,141 @@
+package com.waterball.course.controller;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.waterball.course.config.LoggingFilter;
+import com.waterball.course.entity.User;
+import com.waterball.course.entity.UserRole;
+import com.waterball.course.repository.UserRepository;
+import com.waterball.course.service.auth.JwtService;
+import com.waterball.course.util.LoggingConstants;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class SqlStatisticsTest extends BaseIntegrationTest {
+
+    private static final UUID TEST_USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoggingFilter loggingFilter;
+
+    private Logger sqlLogger;
+    private ListAppender<ILoggingEvent> sqlAppender;
+
+    @BeforeEach
+    void setupLogCapture() {
+        sqlLogger = (Logger) LoggerFactory.getLogger("com.waterball.course.config.SqlStatisticsListener");
+        sqlAppender = new ListAppender<>();
+        sqlAppender.start();
+        sqlLogger.addAppender(sqlAppender);
+    }
+
+    @AfterEach
+    void teardownLogCapture() {
+        sqlLogger.detachAppender(sqlAppender);
+    }
+
+    @Test
+    @DisplayName("should report the request's statement count and database time in Server-Timing to admins")
+    void adminRequest_shouldExposeServerTiming() throws Exception {
+        mockMvc.perform(get("/api/purchases")
+                        .cookie(new Cookie("access_token", jwtService.generateAccessToken(createAdmin()))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing",
+                        matchesPattern("db;dur=\\d+\\.\\d;desc=\"[1-9]\\d* statements\", app;dur=\\d+\\.\\d")));
+    }
+
+    @Test
+    @DisplayName("should not send Server-Timing to other users while it is turned off")
+    void studentRequest_shouldNotExposeServerTiming() throws Exception {
+        User user = userRepository.findById(TEST_USER_ID).orElseThrow();
+
+        mockMvc.perform(get("/api/purchases")
+                        .cookie(new Cookie("access_token", jwtService.generateAccessToken(user))))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"));
+    }
+
+    @Test
+    @DisplayName("should log statements over the threshold with their parameters and origin")
+    void slowStatement_shouldBeLogged() {
+        jdbcTemplate.queryForObject("SELECT 1 FROM pg_sleep(?)", Integer.class, 0.25);
+
+        List<String> slowQueries = sqlAppender.list.stream()
+                .filter(event -> event.getArgumentArray() != null)
+                .map(event -> Arrays.toString(event.getArgumentArray()))
+                .filter(args -> args.contains(LoggingConstants.SLOW_QUERY))
+                .toList();
+
+        assertThat(slowQueries).singleElement().satisfies(args -> assertThat(args)
+                .contains("pg_sleep")
+                .contains("0.25")
+                .contains("origin=controller.SqlStatisticsTest.slowStatement_shouldBeLogged"));
+    }
+
+    @Test
+    @DisplayName("should log requests over the statement limit at WARN so the rate limit keeps them")
+    void statementHeavyRequest_shouldBeLoggedAtWarn() throws Exception {
+        User user = userRepository.findById(TEST_USER_ID).orElseThrow();
+        Logger requestLogger = (Logger) LoggerFactory.getLogger(LoggingFilter.class);
+        ListAppender<ILoggingEvent> requestAppender = new ListAppender<>();
+        requestAppender.start();
+        requestLogger.addAppender(requestAppender);
+        ReflectionTestUtils.setField(loggingFilter, "maxStatements", 1);
+        try {
+            mockMvc.perform(get("/api/purchases")
+                            .cookie(new Cookie("access_token", jwtService.generateAccessToken(user))))
+                    .andExpect(status().isOk());
+        } finally {
+            ReflectionTestUtils.setField(loggingFilter, "maxStatements", 30);
+            requestLogger.detachAppender(requestAppender);
+        }
+
+        assertThat(requestAppender.list).singleElement()
+                .satisfies(event -> assertThat(event.getLevel()).isEqualTo(Level.WARN));
+    }
+
+    private User createAdmin() {
+        User admin = new User();
+        admin.setEmail("admin@example.com");
+        admin.setName("Admin");
+        admin.setRole(UserRole.ADMIN);
+        return userRepository.save(admin);
+    }
+}
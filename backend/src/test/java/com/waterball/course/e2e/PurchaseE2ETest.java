@@ -21,9 +21,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -353,6 +356,43 @@ class PurchaseE2ETest extends BaseIntegrationTest {
                     .andExpect(jsonPath("$.totalElements").value(25))
                     .andExpect(jsonPath("$.number").value(2));
         }
+
+        @Test
+        @Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+        @Sql(scripts = "/sql/test-pagination-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+        void purchaseHistory_keysetPagination() throws Exception {
+            Set<String> seenIds = new HashSet<>();
+            String cursor = null;
+            int[] expectedPageSizes = {10, 10, 5};
+
+            for (int expectedSize : expectedPageSizes) {
+                var request = get("/api/purchases/history")
+                        .cookie(authCookie())
+                        .param("size", "10");
+                if (cursor != null) {
+                    request.param("cursor", cursor);
+                }
+                MvcResult result = mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.content", hasSize(expectedSize)))
+                        .andReturn();
+
+                var body = objectMapper.readTree(result.getResponse().getContentAsString());
+                body.get("content").forEach(order -> seenIds.add(order.get("id").asText()));
+                cursor = body.hasNonNull("nextCursor") ? body.get("nextCursor").asText() : null;
+            }
+
+            assertThat(cursor).isNull();
+            assertThat(seenIds).hasSize(25);
+        }
+
+        @Test
+        void purchaseHistory_withMalformedCursor_shouldReturn400() throws Exception {
+            mockMvc.perform(get("/api/purchases/history")
+                            .cookie(authCookie())
+                            .param("cursor", "not-a-cursor"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
@@ -0,0 +1,252 @@
+package com.waterball.course.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.entity.Journey;
+import com.waterball.course.entity.User;
+import com.waterball.course.entity.UserRole;
+import com.waterball.course.repository.JourneyRepository;
+import com.waterball.course.repository.UserPurchaseRepository;
+import com.waterball.course.repository.UserRepository;
+import com.waterball.course.service.auth.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end purchase load scenario against the {@code payment-sim} gateway profile: each
+ * virtual user creates an order through {@code PurchaseController} (waiting in the admission
+ * queue when told to), pays on the mock checkout page and polls until the outbox-delivered
+ * webhook settles the order. Prints throughput and per-stage latency percentiles.
+ *
+ * <p>Not part of the regular suite (the class name does not match Surefire's includes). Run with
+ * <pre>
+ * mvn test -Dtest=PurchaseLoadScenario -Dload.users=100 -Dload.journeys=3 -Dload.concurrency=32
+ * </pre>
+ */
+@ActiveProfiles("payment-sim")
+@TestPropertySource(properties = {
+        "app.payment.outbox.worker.enabled=true",
+        "app.purchase.admission.enabled=true"
+})
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class PurchaseLoadScenario extends BaseIntegrationTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 40);
+    private static final int JOURNEYS = Integer.getInteger("load.journeys", 3);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final long SETTLE_TIMEOUT_MS = Long.getLong("load.settle-timeout-ms", 15_000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JourneyRepository journeyRepository;
+
+    @Autowired
+    private UserPurchaseRepository userPurchaseRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<Outcome, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+
+    enum Outcome { COMPLETED, DECLINED, GATEWAY_TIMEOUT, NOT_SETTLED, ERROR }
+
+    @Test
+    void purchaseFlow_underSimulatedGateway() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setEmail("load-" + i + "@example.com");
+            user.setName("Load User " + i);
+            user.setRole(UserRole.STUDENT);
+            tokens.add(jwtService.generateAccessToken(userRepository.save(user)));
+        }
+        List<UUID> journeyIds = new ArrayList<>();
+        for (int i = 0; i < JOURNEYS; i++) {
+            Journey journey = new Journey();
+            journey.setTitle("Load Journey " + i);
+            journey.setIsPublished(true);
+            journey.setPrice(new BigDecimal("1990.00"));
+            journeyIds.add(journeyRepository.save(journey).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<?>> flows = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        for (String token : tokens) {
+            for (UUID journeyId : journeyIds) {
+                flows.add(pool.submit(() -> runFlow(token, journeyId)));
+            }
+        }
+        for (Future<?> flow : flows) {
+            flow.get();
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        pool.shutdown();
+
+        report(flows.size(), elapsedSeconds);
+
+        int completed = count(Outcome.COMPLETED);
+        assertThat(count(Outcome.ERROR)).isZero();
+        assertThat(count(Outcome.NOT_SETTLED)).isZero();
+        assertThat(userPurchaseRepository.count()).isEqualTo(completed);
+    }
+
+    private void runFlow(String token, UUID journeyId) {
+        try {
+            long flowStart = System.nanoTime();
+
+            long t;
+            HttpResponse<String> created;
+            while (true) {
+                t = System.nanoTime();
+                created = send(HttpRequest.newBuilder(uri("/api/purchases"))
+                        .header("Cookie", "access_token=" + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"journeyId\":\"" + journeyId + "\",\"paymentMethod\":\"CREDIT_CARD\"}")));
+                if (created.statusCode() != 202 && created.statusCode() != 503) {
+                    break;
+                }
+                record("queued", t);
+                long retryAfter = created.headers().firstValueAsLong("Retry-After").orElse(1);
+                Thread.sleep(retryAfter * 1000);
+            }
+            record("create", t);
+            record("admission", flowStart);
+            if (created.statusCode() != 201) {
+                outcome(Outcome.ERROR);
+                return;
+            }
+            JsonNode order = objectMapper.readTree(created.body());
+            String orderId = order.get("id").asText();
+            String checkoutUrl = order.get("checkoutUrl").asText();
+            String sessionId = checkoutUrl.substring(checkoutUrl.lastIndexOf('/') + 1);
+
+            t = System.nanoTime();
+            HttpResponse<String> paid = send(HttpRequest.newBuilder(uri("/mock-payment/checkout/" + sessionId + "/submit"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "cardNumber=4242424242424242&expiryMonth=12&expiryYear=2030&cvv=123&cardholderName=Load")));
+            record("pay", t);
+            String location = paid.headers().firstValue("Location").orElse("");
+            if (paid.statusCode() != 302) {
+                outcome(Outcome.ERROR);
+                return;
+            }
+            if (location.contains("error=gateway_timeout")) {
+                outcome(Outcome.GATEWAY_TIMEOUT);
+                return;
+            }
+            if (!location.contains("status=success")) {
+                outcome(Outcome.DECLINED);
+                return;
+            }
+
+            t = System.nanoTime();
+            long deadline = System.currentTimeMillis() + SETTLE_TIMEOUT_MS;
+            while (System.currentTimeMillis() < deadline) {
+                HttpResponse<String> polled = send(HttpRequest.newBuilder(uri("/api/purchases/" + orderId))
+                        .header("Cookie", "access_token=" + token)
+                        .GET());
+                if (polled.statusCode() == 200
+                        && "COMPLETED".equals(objectMapper.readTree(polled.body()).get("status").asText())) {
+                    record("settle", t);
+                    record("end-to-end", flowStart);
+                    outcome(Outcome.COMPLETED);
+                    return;
+                }
+                Thread.sleep(100);
+            }
+            outcome(Outcome.NOT_SETTLED);
+        } catch (Exception e) {
+            outcome(Outcome.ERROR);
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private void record(String stage, long startNanos) {
+        latencies.computeIfAbsent(stage, k -> new ConcurrentLinkedQueue<>())
+                .add((System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void outcome(Outcome outcome) {
+        outcomes.computeIfAbsent(outcome, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private int count(Outcome outcome) {
+        AtomicInteger counter = outcomes.get(outcome);
+        return counter != null ? counter.get() : 0;
+    }
+
+    private void report(int flows, double elapsedSeconds) {
+        System.out.printf("%nPurchase load scenario: %d flows (%d users x %d journeys), concurrency %d%n",
+                flows, USERS, JOURNEYS, CONCURRENCY);
+        System.out.printf("  elapsed %.1fs, throughput %.1f flows/s, %.1f completed orders/s%n",
+                elapsedSeconds, flows / elapsedSeconds, count(Outcome.COMPLETED) / elapsedSeconds);
+        for (Outcome outcome : Outcome.values()) {
+            System.out.printf("  %-16s %d%n", outcome, count(outcome));
+        }
+        System.out.printf("  %-12s %7s %7s %7s %7s %7s%n", "stage (ms)", "n", "p50", "p95", "p99", "max");
+        for (String stage : List.of("queued", "admission", "create", "pay", "settle", "end-to-end")) {
+            List<Long> samples = new ArrayList<>(latencies.getOrDefault(stage, new ConcurrentLinkedQueue<>()));
+            if (samples.isEmpty()) {
+                continue;
+            }
+            Collections.sort(samples);
+            System.out.printf("  %-12s %7d %7d %7d %7d %7d%n", stage, samples.size(),
+                    percentile(samples, 0.50), percentile(samples, 0.95), percentile(samples, 0.99),
+                    samples.get(samples.size() - 1));
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
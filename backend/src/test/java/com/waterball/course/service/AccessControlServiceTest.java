@@ -115,4 +115,30 @@ class AccessControlServiceTest extends BaseIntegrationTest {
             assertThat(result).isFalse();
         }
     }
+
+    @Nested
+    @DisplayName("isAccessible with precomputed entitlement")
+    class IsAccessibleWithEntitlement {
+
+        @Test
+        @DisplayName("should grant public lesson to anonymous user")
+        void isAccessible_withPublicLesson_whenAnonymous_shouldReturnTrue() {
+            assertThat(accessControlService.isAccessible(AccessType.PUBLIC, null, false)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should grant trial lesson only to authenticated user")
+        void isAccessible_withTrialLesson_shouldRequireAuthentication() {
+            assertThat(accessControlService.isAccessible(AccessType.TRIAL, null, false)).isFalse();
+            assertThat(accessControlService.isAccessible(AccessType.TRIAL, TEST_USER_ID, false)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should grant purchased lesson only when entitled")
+        void isAccessible_withPurchasedLesson_shouldFollowEntitlement() {
+            assertThat(accessControlService.isAccessible(AccessType.PURCHASED, TEST_USER_ID, false)).isFalse();
+            assertThat(accessControlService.isAccessible(AccessType.PURCHASED, TEST_USER_ID, true)).isTrue();
+            assertThat(accessControlService.isAccessible(AccessType.PURCHASED, null, true)).isFalse();
+        }
+    }
 }
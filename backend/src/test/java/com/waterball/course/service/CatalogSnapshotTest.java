@@ -0,0 +1,187 @@
+package com.waterball.course.service;
+
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.entity.PrerequisiteType;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot;
+import com.waterball.course.service.catalog.CatalogSnapshot.ChapterNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.GymNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.JourneyNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.LessonNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.PrerequisiteRef;
+import com.waterball.course.service.catalog.CatalogSnapshot.ProblemNode;
+import com.waterball.course.service.catalog.CatalogSnapshot.StageNode;
+import com.waterball.course.service.course.JourneyLessonIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The test profile revalidates the content version on every call, so each
+ * {@code snapshot()} reflects what the previous statements wrote.
+ */
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/gym-test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/prerequisite-test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class CatalogSnapshotTest extends BaseIntegrationTest {
+
+    private static final UUID JOURNEY_ID = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
+    private static final UUID UNPUBLISHED_JOURNEY_ID = UUID.fromString("dddddddd-dddd-dddd-dddd-dddddddddddd");
+    private static final UUID PUBLIC_LESSON_ID = UUID.fromString("11111111-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+    private static final UUID TRIAL_LESSON_ID = UUID.fromString("22222222-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+    private static final UUID PURCHASED_LESSON_ID = UUID.fromString("33333333-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+    private static final UUID FORM_LESSON_ID = UUID.fromString("44444444-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+    private static final UUID GYM_ID = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+    private static final UUID BASIC_STAGE_ID = UUID.fromString("11111111-aaaa-aaaa-aaaa-111111111111");
+    private static final UUID ADVANCED_STAGE_ID = UUID.fromString("22222222-aaaa-aaaa-aaaa-222222222222");
+    private static final UUID SINGLETON_PROBLEM_ID = UUID.fromString("aaaa1111-1111-1111-1111-111111111111");
+    private static final UUID DECORATOR_PROBLEM_ID = UUID.fromString("aaaa5555-5555-5555-5555-555555555555");
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Nested
+    @DisplayName("build")
+    class Build {
+
+        @Test
+        @DisplayName("should link journeys, chapters and lessons in sort order")
+        void snapshot_shouldLinkJourneyTree() {
+            CatalogSnapshot catalog = catalogService.snapshot();
+            JourneyNode journey = catalog.findJourney(JOURNEY_ID).orElseThrow();
+
+            assertThat(journey.published()).isTrue();
+            assertThat(journey.totalDurationSeconds()).isEqualTo(900);
+            assertThat(catalog.chaptersOf(journey)).extracting(ChapterNode::title)
+                    .containsExactly("Chapter 1", "Chapter 2");
+
+            ChapterNode firstChapter = catalog.chaptersOf(journey).get(0);
+            assertThat(catalog.lessonsOf(firstChapter)).extracting(LessonNode::id)
+                    .containsExactly(PUBLIC_LESSON_ID, TRIAL_LESSON_ID);
+
+            LessonNode lesson = catalog.findLesson(PUBLIC_LESSON_ID).orElseThrow();
+            assertThat(catalog.journey(lesson.journey())).isSameAs(journey);
+            assertThat(lesson.instructor().name()).isEqualTo("Instructor");
+            assertThat(catalog.findJourney(UNPUBLISHED_JOURNEY_ID).orElseThrow().published()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should link gyms, stages and problems and count problems per gym")
+        void snapshot_shouldLinkGymTree() {
+            CatalogSnapshot catalog = catalogService.snapshot();
+            GymNode gym = catalog.findGym(GYM_ID).orElseThrow();
+
+            assertThat(catalog.journeyOf(gym).id()).isEqualTo(JOURNEY_ID);
+            assertThat(catalog.stagesOf(gym)).extracting(StageNode::id)
+                    .containsExactly(BASIC_STAGE_ID, ADVANCED_STAGE_ID);
+            assertThat(gym.problemCount()).isEqualTo(5);
+
+            StageNode basic = catalog.findStage(BASIC_STAGE_ID).orElseThrow();
+            assertThat(catalog.gymOf(basic)).isSameAs(gym);
+            assertThat(catalog.problemsOf(basic)).extracting(ProblemNode::title)
+                    .containsExactly("Singleton Pattern", "Factory Pattern", "Decorator Pattern");
+            assertThat(catalog.stageOf(catalog.findProblem(SINGLETON_PROBLEM_ID).orElseThrow())).isSameAs(basic);
+        }
+
+        @Test
+        @DisplayName("should not let callers modify child references")
+        void childReferences_shouldBeUnmodifiable() {
+            CatalogSnapshot catalog = catalogService.snapshot();
+            JourneyNode journey = catalog.findJourney(JOURNEY_ID).orElseThrow();
+
+            assertThatThrownBy(() -> journey.chapters().add(0))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> catalog.chaptersOf(journey).clear())
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("index lookups")
+    class IndexLookups {
+
+        @Test
+        @DisplayName("should navigate lessons across chapters in journey order")
+        void lessonIndex_shouldNavigateAcrossChapters() {
+            JourneyLessonIndex index = catalogService.snapshot().findJourney(JOURNEY_ID).orElseThrow().lessonIndex();
+
+            assertThat(index.size()).isEqualTo(4);
+            assertThat(index.previous(PUBLIC_LESSON_ID)).isNull();
+            assertThat(index.next(TRIAL_LESSON_ID).getId()).isEqualTo(PURCHASED_LESSON_ID);
+            assertThat(index.previous(PURCHASED_LESSON_ID).getId()).isEqualTo(TRIAL_LESSON_ID);
+            assertThat(index.next(FORM_LESSON_ID)).isNull();
+        }
+
+        @Test
+        @DisplayName("should return empty for unknown ids")
+        void find_withUnknownId_shouldReturnEmpty() {
+            CatalogSnapshot catalog = catalogService.snapshot();
+            UUID unknown = UUID.randomUUID();
+
+            assertThat(catalog.findJourney(unknown)).isEmpty();
+            assertThat(catalog.findLesson(unknown)).isEmpty();
+            assertThat(catalog.findGym(unknown)).isEmpty();
+            assertThat(catalog.findStage(unknown)).isEmpty();
+            assertThat(catalog.findProblem(unknown)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("prerequisites")
+    class Prerequisites {
+
+        @Test
+        @DisplayName("should resolve lesson and problem prerequisites with their titles")
+        void prerequisites_shouldResolveTargets() {
+            CatalogSnapshot catalog = catalogService.snapshot();
+
+            assertThat(catalog.findStage(ADVANCED_STAGE_ID).orElseThrow().prerequisites())
+                    .containsExactly(new PrerequisiteRef(PrerequisiteType.PROBLEM, SINGLETON_PROBLEM_ID, "Singleton Pattern"));
+            assertThat(catalog.findProblem(DECORATOR_PROBLEM_ID).orElseThrow().prerequisites())
+                    .containsExactly(new PrerequisiteRef(PrerequisiteType.LESSON, PUBLIC_LESSON_ID, "Public Lesson"));
+        }
+
+        @Test
+        @DisplayName("should keep a prerequisite row without a target as unsatisfiable")
+        void prerequisiteWithoutTarget_shouldBeUnsatisfiable() {
+            jdbcTemplate.update("INSERT INTO stage_prerequisites (id, stage_id, created_at) VALUES (?, ?, NOW())",
+                    UUID.randomUUID(), BASIC_STAGE_ID);
+
+            assertThat(catalogService.snapshot().findStage(BASIC_STAGE_ID).orElseThrow().prerequisites())
+                    .singleElement()
+                    .satisfies(ref -> assertThat(ref.isSatisfiable()).isFalse());
+        }
+    }
+
+    @Nested
+    @DisplayName("rebuild")
+    class Rebuild {
+
+        @Test
+        @DisplayName("should rebuild when content changes and reuse the snapshot otherwise")
+        void snapshot_afterContentChange_shouldRebuild() {
+            CatalogSnapshot before = catalogService.snapshot();
+            assertThat(catalogService.snapshot()).isSameAs(before);
+
+            jdbcTemplate.update("UPDATE journeys SET title = 'Renamed Journey' WHERE id = ?", JOURNEY_ID);
+
+            CatalogSnapshot after = catalogService.snapshot();
+            assertThat(after).isNotSameAs(before);
+            assertThat(after.version()).isGreaterThan(before.version());
+            assertThat(after.findJourney(JOURNEY_ID).orElseThrow().title()).isEqualTo("Renamed Journey");
+            assertThat(before.findJourney(JOURNEY_ID).orElseThrow().title()).isEqualTo("Published Journey");
+        }
+    }
+}
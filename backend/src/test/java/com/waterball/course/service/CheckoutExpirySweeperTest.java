@@ -0,0 +1,89 @@
+package com.waterball.course.service;
+
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.dto.request.CreatePurchaseRequest;
+import com.waterball.course.dto.response.PurchaseOrderResponse;
+import com.waterball.course.entity.CheckoutSessionStatus;
+import com.waterball.course.entity.PaymentMethod;
+import com.waterball.course.entity.PurchaseOrder;
+import com.waterball.course.entity.PurchaseStatus;
+import com.waterball.course.repository.CheckoutSessionRepository;
+import com.waterball.course.repository.PurchaseOrderRepository;
+import com.waterball.course.service.payment.CheckoutExpirySweeper;
+import com.waterball.course.service.purchase.PurchaseService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class CheckoutExpirySweeperTest extends BaseIntegrationTest {
+
+    private static final UUID PUBLISHED_JOURNEY_ID = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
+    private static final UUID TEST_USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @Autowired
+    private CheckoutExpirySweeper checkoutExpirySweeper;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private CheckoutSessionRepository checkoutSessionRepository;
+
+    @Test
+    @DisplayName("should leave orders that are not yet due untouched")
+    void sweep_beforeExpiry_shouldNotExpire() {
+        PurchaseOrderResponse created = createOrder();
+
+        checkoutExpirySweeper.sweep(Instant.now());
+
+        assertThat(purchaseOrderRepository.findById(created.getId()).orElseThrow().getStatus())
+                .isEqualTo(PurchaseStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("should expire overdue order together with its checkout session")
+    void sweep_afterExpiry_shouldExpireOrderAndSession() {
+        PurchaseOrderResponse created = createOrder();
+
+        CheckoutExpirySweeper.SweepResult result = checkoutExpirySweeper.sweep(Instant.now().plus(Duration.ofHours(2)));
+
+        PurchaseOrder order = purchaseOrderRepository.findById(created.getId()).orElseThrow();
+        assertThat(order.getStatus()).isEqualTo(PurchaseStatus.EXPIRED);
+        assertThat(checkoutSessionRepository.findById(order.getCheckoutSessionId()).orElseThrow().getStatus())
+                .isEqualTo(CheckoutSessionStatus.EXPIRED);
+        assertThat(result.orders()).isEqualTo(1);
+        assertThat(result.sessions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should be a no-op when run again")
+    void sweep_twice_shouldNotExpireAgain() {
+        createOrder();
+        Instant later = Instant.now().plus(Duration.ofHours(2));
+        checkoutExpirySweeper.sweep(later);
+
+        CheckoutExpirySweeper.SweepResult second = checkoutExpirySweeper.sweep(later);
+
+        assertThat(second.orders()).isZero();
+        assertThat(second.sessions()).isZero();
+    }
+
+    private PurchaseOrderResponse createOrder() {
+        CreatePurchaseRequest request = new CreatePurchaseRequest();
+        request.setJourneyId(PUBLISHED_JOURNEY_ID);
+        request.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        return purchaseService.createPurchaseOrder(TEST_USER_ID, request);
+    }
+}
@@ -0,0 +1,58 @@
+package com.waterball.course.service;
+
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.service.catalog.ContentVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test profile revalidates on every call, so each read reflects the database fingerprint.
+ */
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ContentVersionServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long initialVersion;
+
+    @BeforeEach
+    void setUp() {
+        initialVersion = contentVersionService.currentVersion();
+    }
+
+    @Test
+    @DisplayName("should change version on a plain SQL edit that leaves updated_at alone")
+    void sqlEditWithoutUpdatedAt_shouldChangeVersion() {
+        jdbcTemplate.update("UPDATE lessons SET title = 'Renamed' WHERE id = '11111111-aaaa-aaaa-aaaa-aaaaaaaaaaaa'");
+
+        assertThat(contentVersionService.currentVersion()).isGreaterThan(initialVersion);
+    }
+
+    @Test
+    @DisplayName("should change version when a lesson's instructor is renamed")
+    void instructorRename_shouldChangeVersion() {
+        jdbcTemplate.update("UPDATE users SET name = 'Renamed Instructor' WHERE id = '22222222-2222-2222-2222-222222222222'");
+
+        assertThat(contentVersionService.currentVersion()).isGreaterThan(initialVersion);
+    }
+
+    @Test
+    @DisplayName("should keep version when a user who teaches nothing changes")
+    void unrelatedUserEdit_shouldKeepVersion() {
+        jdbcTemplate.update("UPDATE users SET name = 'Renamed Student', updated_at = NOW() "
+                + "WHERE id = '11111111-1111-1111-1111-111111111111'");
+
+        assertThat(contentVersionService.currentVersion()).isEqualTo(initialVersion);
+    }
+}
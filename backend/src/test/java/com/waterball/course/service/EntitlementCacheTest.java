@@ -0,0 +1,91 @@
+package com.waterball.course.service;
+
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.dto.request.CreatePurchaseRequest;
+import com.waterball.course.dto.response.PurchaseOrderResponse;
+import com.waterball.course.entity.PaymentMethod;
+import com.waterball.course.repository.PurchaseOrderRepository;
+import com.waterball.course.repository.UserPurchaseRepository;
+import com.waterball.course.service.payment.PaymentResult;
+import com.waterball.course.service.payment.PaymentWebhookService;
+import com.waterball.course.service.purchase.PurchaseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class EntitlementCacheTest extends BaseIntegrationTest {
+
+    private static final UUID PUBLISHED_JOURNEY_ID = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
+    private static final UUID TEST_USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @Autowired
+    private EntitlementCache entitlementCache;
+
+    @Autowired
+    private UserPurchaseRepository userPurchaseRepository;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
+    @BeforeEach
+    void enableCaching() {
+        ReflectionTestUtils.setField(entitlementCache, "ttlMs", 60_000L);
+        entitlementCache.onResync();
+    }
+
+    @AfterEach
+    void disableCaching() {
+        ReflectionTestUtils.setField(entitlementCache, "ttlMs", 0L);
+        entitlementCache.onResync();
+    }
+
+    @Test
+    @DisplayName("should answer repeated checks from memory")
+    void hasPurchased_afterFirstLoad_shouldNotHitDatabase() {
+        userPurchaseRepository.insertIfAbsent(TEST_USER_ID, PUBLISHED_JOURNEY_ID, LocalDateTime.now());
+        assertThat(entitlementCache.hasPurchased(TEST_USER_ID, PUBLISHED_JOURNEY_ID)).isTrue();
+
+        userPurchaseRepository.deleteAll();
+
+        assertThat(entitlementCache.hasPurchased(TEST_USER_ID, PUBLISHED_JOURNEY_ID)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should see a purchase as soon as its payment webhook is applied")
+    void hasPurchased_afterPaymentWebhook_shouldReflectNewPurchase() {
+        assertThat(entitlementCache.hasPurchased(TEST_USER_ID, PUBLISHED_JOURNEY_ID)).isFalse();
+
+        CreatePurchaseRequest request = new CreatePurchaseRequest();
+        request.setJourneyId(PUBLISHED_JOURNEY_ID);
+        request.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        PurchaseOrderResponse order = purchaseService.createPurchaseOrder(TEST_USER_ID, request);
+        String sessionId = purchaseOrderRepository.findById(order.getId()).orElseThrow().getCheckoutSessionId();
+
+        paymentWebhookService.handlePaymentResult(sessionId, PaymentResult.successful());
+
+        assertThat(entitlementCache.hasPurchased(TEST_USER_ID, PUBLISHED_JOURNEY_ID)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should treat anonymous users as having no purchases")
+    void hasPurchased_withoutUser_shouldReturnFalse() {
+        assertThat(entitlementCache.hasPurchased(null, PUBLISHED_JOURNEY_ID)).isFalse();
+    }
+}
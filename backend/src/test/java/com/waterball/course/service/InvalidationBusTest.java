@@ -0,0 +1,85 @@
+package com.waterball.course.service;
+
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.service.invalidation.InvalidationBus;
+import com.waterball.course.service.invalidation.InvalidationEvent;
+import com.waterball.course.service.invalidation.InvalidationHandler;
+import com.waterball.course.service.invalidation.InvalidationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvalidationBusTest extends BaseIntegrationTest {
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private RecordingHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new RecordingHandler();
+        invalidationBus.register(InvalidationType.CATALOG, handler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        invalidationBus.unregister(InvalidationType.CATALOG, handler);
+    }
+
+    @Test
+    @DisplayName("should dispatch immediately outside a transaction")
+    void publish_withoutTransaction_shouldDispatchImmediately() {
+        invalidationBus.publish(InvalidationType.CATALOG, "journey-1", 1L);
+
+        assertThat(handler.events).hasSize(1);
+        assertThat(handler.events.get(0).entityId()).isEqualTo("journey-1");
+    }
+
+    @Test
+    @DisplayName("should dispatch once after commit for repeated events in one transaction")
+    void publish_inTransaction_shouldDispatchOnceAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidationBus.publish(InvalidationType.CATALOG, null, 3L);
+            invalidationBus.publish(InvalidationType.CATALOG, null, 3L);
+            assertThat(handler.events).isEmpty();
+        });
+
+        assertThat(handler.events).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("should not dispatch when transaction rolls back")
+    void publish_inRolledBackTransaction_shouldNotDispatch() {
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidationBus.publish(InvalidationType.CATALOG, null, 4L);
+            status.setRollbackOnly();
+        });
+
+        assertThat(handler.events).isEmpty();
+    }
+
+    private static class RecordingHandler implements InvalidationHandler {
+        private final List<InvalidationEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onInvalidation(InvalidationEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onResync() {
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.waterball.course.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.service.invalidation.InvalidationBus;
+import com.waterball.course.service.invalidation.InvalidationEvent;
+import com.waterball.course.service.invalidation.InvalidationHandler;
+import com.waterball.course.service.invalidation.InvalidationListener;
+import com.waterball.course.service.invalidation.InvalidationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The listener is disabled in the test profile, so each test starts its own instance against
+ * the Testcontainers database and plays the peer node with {@code pg_notify}.
+ */
+class InvalidationListenerTest extends BaseIntegrationTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private RecordingHandler handler;
+    private InvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        handler = new RecordingHandler();
+        invalidationBus.register(InvalidationType.CATALOG, handler);
+        listener = new InvalidationListener(invalidationBus, dataSourceProperties);
+        ReflectionTestUtils.setField(listener, "pollTimeoutMs", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+        invalidationBus.unregister(InvalidationType.CATALOG, handler);
+    }
+
+    @Test
+    @DisplayName("should resync on connect and dispatch notifications from other nodes")
+    void listener_shouldResyncAndDispatchPeerNotifications() throws Exception {
+        listener.start();
+        awaitUntil(() -> handler.resyncs.get() == 1);
+
+        notifyAsPeer("journey-1");
+
+        awaitUntil(() -> handler.events.size() == 1);
+        assertThat(handler.events.get(0).entityId()).isEqualTo("journey-1");
+    }
+
+    @Test
+    @DisplayName("should reconnect, resync and keep listening after its session is terminated")
+    void listener_afterDisconnect_shouldReconnectAndResync() throws Exception {
+        listener.start();
+        awaitUntil(() -> handler.resyncs.get() == 1);
+
+        Connection connection = (Connection) ReflectionTestUtils.getField(listener, "connection");
+        int backendPid = connection.unwrap(PGConnection.class).getBackendPID();
+        jdbcTemplate.queryForObject("SELECT pg_terminate_backend(?)", Boolean.class, backendPid);
+
+        awaitUntil(() -> handler.resyncs.get() == 2);
+        notifyAsPeer("journey-2");
+
+        awaitUntil(() -> handler.events.size() == 1);
+        assertThat(handler.events.get(0).entityId()).isEqualTo("journey-2");
+    }
+
+    private void notifyAsPeer(String entityId) throws Exception {
+        InvalidationEvent event = new InvalidationEvent(
+                InvalidationType.CATALOG, entityId, 1L, UUID.randomUUID().toString());
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)::text", String.class,
+                invalidationBus.getChannel(), objectMapper.writeValueAsString(event));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static class RecordingHandler implements InvalidationHandler {
+        private final List<InvalidationEvent> events = new CopyOnWriteArrayList<>();
+        private final AtomicInteger resyncs = new AtomicInteger();
+
+        @Override
+        public void onInvalidation(InvalidationEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onResync() {
+            resyncs.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.waterball.course.service;
+
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.dto.request.CreatePurchaseRequest;
+import com.waterball.course.dto.response.PurchaseOrderResponse;
+import com.waterball.course.entity.OutboxStatus;
+import com.waterball.course.entity.PaymentMethod;
+import com.waterball.course.entity.PaymentOutboxEvent;
+import com.waterball.course.entity.PurchaseOrder;
+import com.waterball.course.entity.PurchaseStatus;
+import com.waterball.course.repository.PaymentOutboxRepository;
+import com.waterball.course.repository.PurchaseOrderRepository;
+import com.waterball.course.service.payment.CreditCardDetails;
+import com.waterball.course.service.payment.MockPaymentGatewayService;
+import com.waterball.course.service.payment.PaymentOutboxService;
+import com.waterball.course.service.payment.PaymentResult;
+import com.waterball.course.service.purchase.PurchaseService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class PaymentOutboxTest extends BaseIntegrationTest {
+
+    private static final UUID PUBLISHED_JOURNEY_ID = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
+    private static final UUID TEST_USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private MockPaymentGatewayService gatewayService;
+
+    @Autowired
+    private PaymentOutboxService paymentOutboxService;
+
+    @Autowired
+    private PaymentOutboxRepository paymentOutboxRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("should record the payment result in the outbox without settling the order inline")
+    void processPayment_shouldEnqueueResult() {
+        PurchaseOrder order = createOrder();
+
+        gatewayService.processPayment(order.getCheckoutSessionId(), validCard());
+
+        assertThat(paymentOutboxRepository.findAll())
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getSessionId()).isEqualTo(order.getCheckoutSessionId());
+                    assertThat(event.isSuccess()).isTrue();
+                    assertThat(event.getStatus()).isEqualTo(OutboxStatus.PENDING);
+                });
+        assertThat(purchaseOrderRepository.findById(order.getId()).orElseThrow().getStatus())
+                .isEqualTo(PurchaseStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("should complete the order when the outbox is processed")
+    void processDue_shouldDeliverAndCompleteOrder() {
+        PurchaseOrder order = createOrder();
+        gatewayService.processPayment(order.getCheckoutSessionId(), validCard());
+
+        int delivered = paymentOutboxService.processDue(10);
+
+        assertThat(delivered).isEqualTo(1);
+        assertThat(purchaseOrderRepository.findById(order.getId()).orElseThrow().getStatus())
+                .isEqualTo(PurchaseStatus.COMPLETED);
+        PaymentOutboxEvent event = paymentOutboxRepository.findAll().get(0);
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.DELIVERED);
+        assertThat(event.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should commit the lease when claiming outside a transaction")
+    void claimDue_outsideTransaction_shouldCommitLease() {
+        transactionTemplate.executeWithoutResult(status ->
+                paymentOutboxService.enqueue("cs_unknown", PaymentResult.successful()));
+
+        assertThat(paymentOutboxService.claimDue(10)).singleElement()
+                .satisfies(claimed -> assertThat(claimed.attempts()).isEqualTo(1));
+
+        PaymentOutboxEvent event = paymentOutboxRepository.findAll().get(0);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(paymentOutboxService.claimDue(10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should schedule a retry when delivery fails")
+    void processDue_withUnknownSession_shouldScheduleRetry() {
+        transactionTemplate.executeWithoutResult(status ->
+                paymentOutboxService.enqueue("cs_unknown", PaymentResult.successful()));
+
+        paymentOutboxService.processDue(10);
+
+        PaymentOutboxEvent event = paymentOutboxRepository.findAll().get(0);
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getLastError()).contains("Order not found");
+        assertThat(event.getNextAttemptAt()).isAfter(event.getCreatedAt());
+    }
+
+    private PurchaseOrder createOrder() {
+        CreatePurchaseRequest request = new CreatePurchaseRequest();
+        request.setJourneyId(PUBLISHED_JOURNEY_ID);
+        request.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        PurchaseOrderResponse response = purchaseService.createPurchaseOrder(TEST_USER_ID, request);
+        return purchaseOrderRepository.findById(response.getId()).orElseThrow();
+    }
+
+    private static CreditCardDetails validCard() {
+        return new CreditCardDetails("4242424242424242", "12", "2030", "123", "Test User");
+    }
+}
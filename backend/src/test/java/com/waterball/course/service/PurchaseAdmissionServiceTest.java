@@ -0,0 +1,108 @@
+package com.waterball.course.service;
+
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.exception.JourneyNotFoundException;
+import com.waterball.course.service.purchase.PurchaseAdmissionService;
+import com.waterball.course.service.purchase.PurchaseAdmissionService.Decision;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class PurchaseAdmissionServiceTest extends BaseIntegrationTest {
+
+    private static final UUID UNPUBLISHED_JOURNEY_ID = UUID.fromString("dddddddd-dddd-dddd-dddd-dddddddddddd");
+
+    @Autowired
+    private PurchaseAdmissionService admissionService;
+
+    private final UUID journeyId = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
+
+    @BeforeEach
+    void enableAdmission() {
+        ReflectionTestUtils.setField(admissionService, "enabled", true);
+        ReflectionTestUtils.setField(admissionService, "burst", 1);
+        ReflectionTestUtils.setField(admissionService, "ratePerSecond", 0.001);
+        ReflectionTestUtils.setField(admissionService, "capacity", 2);
+    }
+
+    @AfterEach
+    void restoreDefaults() {
+        ReflectionTestUtils.setField(admissionService, "enabled", false);
+        ReflectionTestUtils.setField(admissionService, "burst", 20);
+        ReflectionTestUtils.setField(admissionService, "ratePerSecond", 20.0);
+        ReflectionTestUtils.setField(admissionService, "capacity", 10000);
+        ((Map<?, ?>) ReflectionTestUtils.getField(admissionService, "rooms")).clear();
+    }
+
+    @Test
+    @DisplayName("should admit immediately while the journey has tokens")
+    void admit_withTokens_shouldAdmit() {
+        assertThat(admissionService.admit(UUID.randomUUID(), journeyId).admitted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should queue callers in arrival order once tokens run out")
+    void admit_withoutTokens_shouldReturnPositionInLine() {
+        admissionService.admit(UUID.randomUUID(), journeyId);
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        Decision secondDecision = admissionService.admit(second, journeyId);
+        Decision thirdDecision = admissionService.admit(third, journeyId);
+
+        assertThat(secondDecision.admitted()).isFalse();
+        assertThat(secondDecision.position()).isEqualTo(1);
+        assertThat(thirdDecision.position()).isEqualTo(2);
+        assertThat(thirdDecision.etaSeconds()).isGreaterThan(secondDecision.etaSeconds());
+        assertThat(thirdDecision.retryAfterSeconds()).isBetween(1L, 5L);
+        assertThat(admissionService.admit(second, journeyId).position()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should report a full waiting room when capacity is reached")
+    void admit_withFullWaitingRoom_shouldReturnFull() {
+        admissionService.admit(UUID.randomUUID(), journeyId);
+        admissionService.admit(UUID.randomUUID(), journeyId);
+        admissionService.admit(UUID.randomUUID(), journeyId);
+
+        Decision decision = admissionService.admit(UUID.randomUUID(), journeyId);
+
+        assertThat(decision.admitted()).isFalse();
+        assertThat(decision.full()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should admit the head of the line as tokens refill")
+    void admit_afterRefill_shouldAdmitWaitingUser() throws InterruptedException {
+        ReflectionTestUtils.setField(admissionService, "ratePerSecond", 50.0);
+        admissionService.admit(UUID.randomUUID(), journeyId);
+        UUID waiting = UUID.randomUUID();
+        assertThat(admissionService.admit(waiting, journeyId).admitted()).isFalse();
+
+        Thread.sleep(100);
+
+        assertThat(admissionService.admit(waiting, journeyId).admitted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should reject unknown and unpublished journeys without opening a waiting room")
+    void admit_withUnknownOrUnpublishedJourney_shouldThrow() {
+        assertThatThrownBy(() -> admissionService.admit(UUID.randomUUID(), UUID.randomUUID()))
+                .isInstanceOf(JourneyNotFoundException.class);
+        assertThatThrownBy(() -> admissionService.admit(UUID.randomUUID(), UNPUBLISHED_JOURNEY_ID))
+                .isInstanceOf(JourneyNotFoundException.class);
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(admissionService, "rooms")).isEmpty();
+    }
+}
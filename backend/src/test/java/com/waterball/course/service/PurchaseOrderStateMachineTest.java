@@ -0,0 +1,208 @@
+package com.waterball.course.service;
+
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.dto.request.CreatePurchaseRequest;
+import com.waterball.course.dto.response.PurchaseOrderResponse;
+import com.waterball.course.entity.PaymentMethod;
+import com.waterball.course.entity.PurchaseOrder;
+import com.waterball.course.entity.PurchaseStatus;
+import com.waterball.course.exception.InvalidOrderStatusException;
+import com.waterball.course.repository.PurchaseOrderRepository;
+import com.waterball.course.repository.UnmatchedPaymentRepository;
+import com.waterball.course.repository.UserPurchaseRepository;
+import com.waterball.course.service.payment.CheckoutExpirySweeper;
+import com.waterball.course.service.payment.PaymentResult;
+import com.waterball.course.service.payment.PaymentResultOutcome;
+import com.waterball.course.service.payment.PaymentWebhookService;
+import com.waterball.course.service.purchase.PurchaseOrderStateMachine;
+import com.waterball.course.service.purchase.PurchaseService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class PurchaseOrderStateMachineTest extends BaseIntegrationTest {
+
+    private static final UUID PUBLISHED_JOURNEY_ID = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
+    private static final UUID TEST_USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
+    @Autowired
+    private CheckoutExpirySweeper checkoutExpirySweeper;
+
+    @Autowired
+    private PurchaseOrderStateMachine orderStateMachine;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private UserPurchaseRepository userPurchaseRepository;
+
+    @Autowired
+    private UnmatchedPaymentRepository unmatchedPaymentRepository;
+
+    @Test
+    @DisplayName("should only allow transitions listed in the transition table")
+    void transitionTable_shouldAllowOnlyLegalTransitions() {
+        assertThat(PurchaseStatus.PENDING.canTransitionTo(PurchaseStatus.COMPLETED)).isTrue();
+        assertThat(PurchaseStatus.PENDING.canTransitionTo(PurchaseStatus.CANCELLED)).isTrue();
+        assertThat(PurchaseStatus.FAILED.canTransitionTo(PurchaseStatus.COMPLETED)).isTrue();
+        assertThat(PurchaseStatus.FAILED.canTransitionTo(PurchaseStatus.CANCELLED)).isFalse();
+        assertThat(PurchaseStatus.CANCELLED.canTransitionTo(PurchaseStatus.COMPLETED)).isFalse();
+        assertThat(PurchaseStatus.EXPIRED.canTransitionTo(PurchaseStatus.COMPLETED)).isFalse();
+        assertThat(PurchaseStatus.COMPLETED.canTransitionTo(PurchaseStatus.FAILED)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should bump the version on each transition and reject transitions out of a terminal status")
+    void transition_shouldBumpVersionAndRejectIllegalMoves() {
+        PurchaseOrder order = createOrder();
+        long version = order.getVersion();
+
+        assertThat(orderStateMachine.fail(order.getId(), "Card declined")).isTrue();
+        assertThat(orderStateMachine.complete(order.getId())).isTrue();
+        assertThat(orderStateMachine.cancel(order.getId())).isFalse();
+
+        PurchaseOrder reloaded = purchaseOrderRepository.findById(order.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(PurchaseStatus.COMPLETED);
+        assertThat(reloaded.getCompletedAt()).isNotNull();
+        assertThat(reloaded.getVersion()).isEqualTo(version + 2);
+    }
+
+    @Test
+    @DisplayName("should not grant the course when the success webhook arrives after cancellation")
+    void successWebhook_afterCancel_shouldNotComplete() {
+        PurchaseOrder order = createOrder();
+        purchaseService.cancelPurchase(TEST_USER_ID, order.getId());
+
+        PaymentResultOutcome outcome = paymentWebhookService.handlePaymentResult(
+                order.getCheckoutSessionId(), PaymentResult.successful());
+
+        assertThat(outcome).isEqualTo(PaymentResultOutcome.UNMATCHED);
+        assertThat(purchaseOrderRepository.findById(order.getId()).orElseThrow().getStatus())
+                .isEqualTo(PurchaseStatus.CANCELLED);
+        assertThat(userPurchaseRepository.existsByUserIdAndJourneyId(TEST_USER_ID, PUBLISHED_JOURNEY_ID)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should record a payment that arrives after expiry for refund")
+    void successWebhook_afterExpiry_shouldRecordUnmatchedPayment() {
+        PurchaseOrder order = createOrder();
+        checkoutExpirySweeper.sweep(Instant.now().plus(Duration.ofDays(1)));
+
+        PaymentResultOutcome outcome = paymentWebhookService.handlePaymentResult(
+                order.getCheckoutSessionId(), PaymentResult.successful());
+        PaymentResultOutcome redelivered = paymentWebhookService.handlePaymentResult(
+                order.getCheckoutSessionId(), PaymentResult.successful());
+
+        assertThat(outcome).isEqualTo(PaymentResultOutcome.UNMATCHED);
+        assertThat(redelivered).isEqualTo(PaymentResultOutcome.DUPLICATE);
+        assertThat(userPurchaseRepository.existsByUserIdAndJourneyId(TEST_USER_ID, PUBLISHED_JOURNEY_ID)).isFalse();
+        assertThat(unmatchedPaymentRepository.findAll())
+                .singleElement()
+                .satisfies(payment -> {
+                    assertThat(payment.getPurchaseOrderId()).isEqualTo(order.getId());
+                    assertThat(payment.getSessionId()).isEqualTo(order.getCheckoutSessionId());
+                    assertThat(payment.getOrderStatus()).isEqualTo(PurchaseStatus.EXPIRED);
+                    assertThat(payment.getAmount()).isEqualByComparingTo(order.getAmount());
+                    assertThat(payment.getResolvedAt()).isNull();
+                });
+    }
+
+    @Test
+    @DisplayName("should ignore a failed payment for an order that is already closed")
+    void failureWebhook_afterCancel_shouldBeIgnored() {
+        PurchaseOrder order = createOrder();
+        purchaseService.cancelPurchase(TEST_USER_ID, order.getId());
+
+        PaymentResultOutcome outcome = paymentWebhookService.handlePaymentResult(
+                order.getCheckoutSessionId(), PaymentResult.failed("Card declined"));
+
+        assertThat(outcome).isEqualTo(PaymentResultOutcome.IGNORED);
+        assertThat(unmatchedPaymentRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should settle on exactly one outcome when cancel, payment and expiry race")
+    void concurrentTransitions_shouldHaveExactlyOneWinner() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                PurchaseOrder order = createOrder();
+                CountDownLatch start = new CountDownLatch(1);
+
+                Future<Boolean> cancel = executor.submit(gated(start, () -> {
+                    try {
+                        purchaseService.cancelPurchase(TEST_USER_ID, order.getId());
+                        return true;
+                    } catch (InvalidOrderStatusException e) {
+                        return false;
+                    }
+                }));
+                Future<Boolean> webhook = executor.submit(gated(start, () -> {
+                    paymentWebhookService.handlePaymentResult(order.getCheckoutSessionId(), PaymentResult.successful());
+                    return true;
+                }));
+                Future<Boolean> sweep = executor.submit(gated(start, () ->
+                        checkoutExpirySweeper.sweep(Instant.now().plus(Duration.ofDays(1))).orders() > 0));
+
+                start.countDown();
+                boolean cancelled = cancel.get(30, TimeUnit.SECONDS);
+                webhook.get(30, TimeUnit.SECONDS);
+                boolean expired = sweep.get(30, TimeUnit.SECONDS);
+
+                PurchaseOrder settled = purchaseOrderRepository.findById(order.getId()).orElseThrow();
+                boolean completed = settled.getStatus() == PurchaseStatus.COMPLETED;
+                boolean granted = userPurchaseRepository.existsByUserIdAndJourneyId(TEST_USER_ID, PUBLISHED_JOURNEY_ID);
+
+                assertThat(List.of(cancelled, expired, completed)).as("round %d winners", round)
+                        .containsOnlyOnce(true);
+                assertThat(settled.getStatus()).isEqualTo(cancelled ? PurchaseStatus.CANCELLED
+                        : expired ? PurchaseStatus.EXPIRED : PurchaseStatus.COMPLETED);
+                assertThat(granted).as("round %d entitlement", round).isEqualTo(completed);
+                assertThat(settled.getVersion()).isEqualTo(order.getVersion() + 1);
+
+                userPurchaseRepository.deleteAll();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> Callable<T> gated(CountDownLatch start, Callable<T> task) {
+        return () -> {
+            start.await();
+            return task.call();
+        };
+    }
+
+    private PurchaseOrder createOrder() {
+        CreatePurchaseRequest request = new CreatePurchaseRequest();
+        request.setJourneyId(PUBLISHED_JOURNEY_ID);
+        request.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        PurchaseOrderResponse response = purchaseService.createPurchaseOrder(TEST_USER_ID, request);
+        return purchaseOrderRepository.findById(response.getId()).orElseThrow();
+    }
+}
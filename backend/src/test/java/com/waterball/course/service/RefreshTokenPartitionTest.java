@@ -0,0 +1,127 @@
+package com.waterball.course.service;
+
+import com.waterball.course.CoursePlatformApplication;
+import com.waterball.course.entity.RefreshToken;
+import com.waterball.course.entity.User;
+import com.waterball.course.repository.RefreshTokenRepository;
+import com.waterball.course.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the schema built by the Flyway migrations (validated by Hibernate) instead of
+ * the {@code create-drop} schema, so {@code refresh_tokens} is the real partitioned table. Uses
+ * its own container because the shared one already holds the Hibernate-generated tables.
+ */
+@SpringBootTest(classes = CoursePlatformApplication.class, properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        "app.auth.refresh-token-purge.partitioned=true"
+})
+@ActiveProfiles("test")
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class RefreshTokenPartitionTest {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    static PostgreSQLContainer<?> postgres;
+
+    static {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("flywaydb")
+            .withUsername("test")
+            .withPassword("test");
+        postgres.start();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("jwt.secret", () -> Base64.getEncoder()
+                .encodeToString("test-secret-key-for-jwt-must-be-at-least-256-bits-long-for-hs256".getBytes()));
+        registry.add("google.client-id", () -> "test-google-client-id");
+    }
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("partition@example.com");
+        user.setName("Partition User");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    @DisplayName("should move tokens out of the default partition when their month is created")
+    void maintainPartitions_shouldMoveDefaultRowsIntoNewPartition() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMonths(5);
+        saveToken("far-future", expiresAt);
+        assertThat(partitionOf("far-future")).isEqualTo("refresh_tokens_default");
+
+        refreshTokenRepository.maintainPartitions(6);
+
+        assertThat(partitionOf("far-future"))
+                .isEqualTo("refresh_tokens_p" + expiresAt.format(PARTITION_SUFFIX));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens_default", Integer.class))
+                .isZero();
+        assertThat(refreshTokenRepository.findByTokenHash("far-future")).isPresent();
+    }
+
+    @Test
+    @DisplayName("should drop partitions whose month has fully expired")
+    void maintainPartitions_shouldDropExpiredPartitions() {
+        jdbcTemplate.execute("CREATE TABLE refresh_tokens_p200001 PARTITION OF refresh_tokens "
+                + "FOR VALUES FROM ('2000-01-01') TO ('2000-02-01')");
+        saveToken("expired", LocalDateTime.of(2000, 1, 15, 0, 0));
+        saveToken("valid", LocalDateTime.now().plusDays(30));
+
+        int dropped = refreshTokenRepository.maintainPartitions(3);
+
+        assertThat(dropped).isGreaterThanOrEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('refresh_tokens_p200001')::text", String.class))
+                .isNull();
+        assertThat(refreshTokenRepository.findAll())
+                .extracting(RefreshToken::getTokenHash)
+                .containsExactly("valid");
+    }
+
+    private String partitionOf(String tokenHash) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM refresh_tokens WHERE token_hash = ?", String.class, tokenHash);
+    }
+
+    private void saveToken(String tokenHash, LocalDateTime expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(tokenHash);
+        token.setExpiresAt(expiresAt);
+        refreshTokenRepository.save(token);
+    }
+}
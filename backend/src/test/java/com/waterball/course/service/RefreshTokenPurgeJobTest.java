@@ -0,0 +1,66 @@
+package com.waterball.course.service;
+
+import com.waterball.course.controller.BaseIntegrationTest;
+import com.waterball.course.entity.RefreshToken;
+import com.waterball.course.entity.User;
+import com.waterball.course.repository.RefreshTokenRepository;
+import com.waterball.course.repository.UserRepository;
+import com.waterball.course.service.auth.RefreshTokenPurgeJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class RefreshTokenPurgeJobTest extends BaseIntegrationTest {
+
+    @Autowired
+    private RefreshTokenPurgeJob refreshTokenPurgeJob;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("purge@example.com");
+        user.setName("Purge User");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    @DisplayName("should delete expired tokens in batches and keep valid ones")
+    void run_shouldDeleteOnlyExpiredTokens() {
+        for (int i = 0; i < 5; i++) {
+            saveToken("expired-" + i, LocalDateTime.now().minusDays(1));
+        }
+        saveToken("valid", LocalDateTime.now().plusDays(30));
+
+        int deleted = refreshTokenRepository.deleteExpiredBatch(LocalDateTime.now(), 2);
+        assertThat(deleted).isEqualTo(2);
+
+        refreshTokenPurgeJob.run();
+
+        assertThat(refreshTokenRepository.findAll())
+                .extracting(RefreshToken::getTokenHash)
+                .containsExactly("valid");
+    }
+
+    private void saveToken(String tokenHash, LocalDateTime expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(tokenHash);
+        token.setExpiresAt(expiresAt);
+        refreshTokenRepository.save(token);
+    }
+}
@@ -3,17 +3,22 @@ package com.waterballsa.backend.gym.service;
 import com.waterball.course.controller.BaseIntegrationTest;
 import com.waterball.course.entity.ProblemPrerequisite;
 import com.waterball.course.entity.StagePrerequisite;
+import com.waterball.course.service.catalog.CatalogService;
+import com.waterball.course.service.catalog.CatalogSnapshot.StageNode;
+import com.waterball.course.service.gym.GymAccessControlService;
 import com.waterball.course.service.gym.PrerequisiteService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @Sql(scripts = "/sql/test-data-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 @Sql(scripts = "/sql/test-journey-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -35,6 +40,15 @@ class PrerequisiteServiceTest extends BaseIntegrationTest {
     @Autowired
     private PrerequisiteService prerequisiteService;
 
+    @Autowired
+    private GymAccessControlService gymAccessControlService;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Nested
     @DisplayName("getStagePrerequisites")
     class GetStagePrerequisites {
@@ -136,4 +150,25 @@ class PrerequisiteServiceTest extends BaseIntegrationTest {
             assertThat(infos.get(0).type()).isEqualTo(com.waterball.course.entity.PrerequisiteType.LESSON);
         }
     }
+
+    @Nested
+    @DisplayName("prerequisite without lesson or problem")
+    class UnsatisfiablePrerequisite {
+
+        @Test
+        @DisplayName("should keep the stage locked instead of dropping the prerequisite")
+        void isStageUnlocked_withEmptyPrerequisite_shouldReturnFalse() {
+            StageNode before = catalogService.snapshot().findStage(STAGE_WITHOUT_PREREQ).orElseThrow();
+            assertThat(gymAccessControlService.isStageUnlocked(TEST_USER_ID, before)).isTrue();
+
+            jdbcTemplate.update("INSERT INTO stage_prerequisites (id, stage_id, created_at) VALUES (?, ?, NOW())",
+                    UUID.randomUUID(), STAGE_WITHOUT_PREREQ);
+
+            StageNode after = catalogService.snapshot().findStage(STAGE_WITHOUT_PREREQ).orElseThrow();
+            assertThat(after.prerequisites()).hasSize(1);
+            assertThat(gymAccessControlService.isStageUnlocked(TEST_USER_ID, after)).isFalse();
+            assertThatThrownBy(() -> prerequisiteService.getStagePrerequisiteInfos(STAGE_WITHOUT_PREREQ, TEST_USER_ID))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
 }
@@ -6,6 +6,10 @@ DELETE FROM problems;
 DELETE FROM stages;
 DELETE FROM gyms;
 DELETE FROM lesson_progress;
+DELETE FROM processed_webhook_events;
+DELETE FROM payment_outbox;
+DELETE FROM checkout_sessions;
+DELETE FROM unmatched_payments;
 DELETE FROM purchase_orders;
 DELETE FROM user_purchases;
 DELETE FROM lessons;
@@ -13,5 +17,6 @@ DELETE FROM chapters;
 DELETE FROM journeys;
 DELETE FROM videos;
 DELETE FROM refresh_tokens;
+DELETE FROM revoked_access_tokens;
 DELETE FROM user_auth_providers;
 DELETE FROM users;
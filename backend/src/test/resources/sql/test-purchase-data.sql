@@ -1,3 +1,4 @@
+DELETE FROM unmatched_payments WHERE purchase_order_id IN (SELECT id FROM purchase_orders WHERE user_id = '11111111-1111-1111-1111-111111111111');
 DELETE FROM purchase_orders WHERE user_id = '11111111-1111-1111-1111-111111111111';
 DELETE FROM user_purchases WHERE user_id = '11111111-1111-1111-1111-111111111111';
 
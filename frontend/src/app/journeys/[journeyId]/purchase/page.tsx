@@ -23,7 +23,7 @@ export default function PurchasePage({
   const [error, setError] = useState<string | null>(null);
 
   const { journey, isLoading: isLoadingJourney, error: journeyError } = useJourney(journeyId);
-  const { createPurchase, cancelPurchase, isCreating, isCancelling } =
+  const { createPurchase, cancelPurchase, isCreating, isCancelling, waitingRoom } =
     usePurchase(journeyId);
   const { pendingPurchaseForJourney, isLoading: isLoadingPending, refetch } = usePendingPurchases(journeyId);
 
@@ -89,6 +89,7 @@ export default function PurchasePage({
         setError('無法取得付款連結');
       }
     } catch (err) {
+      if (err instanceof DOMException && err.name === 'AbortError') return;
       setError(err instanceof Error ? err.message : '建立訂單失敗');
     }
   };
@@ -122,6 +123,13 @@ export default function PurchasePage({
                 onSelect={setSelectedMethod}
                 disabled={isCreating || !!pendingPurchaseForJourney}
               />
+              {isCreating && waitingRoom && (
+                <div className="rounded-md bg-muted p-3 text-sm text-muted-foreground" data-testid="waiting-room-status">
+                  {waitingRoom.status === 'FULL'
+                    ? '目前購買人數眾多，稍後自動重試...'
+                    : `排隊中：第 ${waitingRoom.position} 位，預計等待 ${waitingRoom.etaSeconds} 秒`}
+                </div>
+              )}
               {error && (
                 <div className="rounded-md bg-destructive/10 p-3 text-sm text-destructive">
                   {error}
@@ -1,25 +1,42 @@
 'use client';
 
-import { useState, useCallback } from 'react';
+import { useState, useCallback, useEffect, useRef } from 'react';
 import {
   PaymentMethod,
   CreatePurchaseResponse,
+  WaitingRoomResponse,
 } from '@/types';
 import { purchaseService } from '@/services/purchase.service';
 
 export function usePurchase(journeyId: string) {
   const [isCreating, setIsCreating] = useState(false);
   const [isCancelling, setIsCancelling] = useState(false);
+  const [waitingRoom, setWaitingRoom] = useState<WaitingRoomResponse | null>(null);
   const [error, setError] = useState<Error | null>(null);
+  const abortRef = useRef<AbortController | null>(null);
+
+  // Stop polling the waiting room when the page goes away
+  useEffect(() => () => abortRef.current?.abort(), []);
 
   const createPurchase = useCallback(
     async (paymentMethod: PaymentMethod): Promise<CreatePurchaseResponse> => {
+      abortRef.current?.abort();
+      const controller = new AbortController();
+      abortRef.current = controller;
       setIsCreating(true);
+      setWaitingRoom(null);
       setError(null);
       try {
-        return await purchaseService.createPurchase({ journeyId, paymentMethod });
+        return await purchaseService.createPurchase(
+          { journeyId, paymentMethod },
+          { onWaiting: setWaitingRoom, signal: controller.signal }
+        );
       } finally {
-        setIsCreating(false);
+        if (abortRef.current === controller) {
+          abortRef.current = null;
+          setIsCreating(false);
+          setWaitingRoom(null);
+        }
       }
     },
     [journeyId]
@@ -40,6 +57,7 @@ export function usePurchase(journeyId: string) {
     cancelPurchase,
     isCreating,
     isCancelling,
+    waitingRoom,
     error,
   };
 }
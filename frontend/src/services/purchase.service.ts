@@ -4,20 +4,64 @@ import {
   Purchase,
   PendingPurchase,
   PurchaseStatus,
+  WaitingRoomResponse,
 } from '@/types';
 
 const API_URL = process.env.NEXT_PUBLIC_API_URL;
 
+// Retry-After is at most 5s, so this gives up after a few minutes in line
+const MAX_WAITING_ROOM_ATTEMPTS = 60;
+
+export interface CreatePurchaseOptions {
+  onWaiting?: (room: WaitingRoomResponse) => void;
+  signal?: AbortSignal;
+}
+
+function wait(ms: number, signal?: AbortSignal): Promise<void> {
+  return new Promise((resolve, reject) => {
+    if (signal?.aborted) {
+      reject(signal.reason);
+      return;
+    }
+    const timer = setTimeout(() => {
+      signal?.removeEventListener('abort', onAbort);
+      resolve();
+    }, ms);
+    const onAbort = () => {
+      clearTimeout(timer);
+      reject(signal?.reason);
+    };
+    signal?.addEventListener('abort', onAbort, { once: true });
+  });
+}
+
 export const purchaseService = {
-  async createPurchase(data: CreatePurchaseRequest): Promise<CreatePurchaseResponse> {
-    const response = await fetch(`${API_URL}/api/purchases`, {
-      method: 'POST',
-      headers: { 'Content-Type': 'application/json' },
-      credentials: 'include',
-      body: JSON.stringify(data),
-    });
-    if (!response.ok) throw new Error('Failed to create purchase');
-    return response.json();
+  async createPurchase(
+    data: CreatePurchaseRequest,
+    { onWaiting, signal }: CreatePurchaseOptions = {}
+  ): Promise<CreatePurchaseResponse> {
+    for (let attempt = 1; ; attempt++) {
+      const response = await fetch(`${API_URL}/api/purchases`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        credentials: 'include',
+        body: JSON.stringify(data),
+        signal,
+      });
+      // 202: waiting room, 503: waiting room full — retry when the server says to
+      if (response.status === 202 || response.status === 503) {
+        if (attempt >= MAX_WAITING_ROOM_ATTEMPTS) {
+          throw new Error('Purchase waiting room timed out');
+        }
+        const room: WaitingRoomResponse | null = await response.json().catch(() => null);
+        if (room) onWaiting?.(room);
+        const retryAfter = Number(response.headers.get('Retry-After') ?? '1');
+        await wait(Math.max(1, retryAfter) * 1000, signal);
+        continue;
+      }
+      if (!response.ok) throw new Error('Failed to create purchase');
+      return response.json();
+    }
   },
 
   async cancelPurchase(purchaseId: string): Promise<void> {
@@ -52,6 +52,14 @@ export interface CreatePurchaseResponse {
   createdAt: string;
 }
 
+/** Body of a 202 (waiting) or 503 (waiting room full) answer to a purchase request. */
+export interface WaitingRoomResponse {
+  status: 'WAITING' | 'FULL';
+  position: number;
+  etaSeconds: number;
+  retryAfterSeconds: number;
+}
+
 export interface PaymentMethodOption {
   value: PaymentMethod;
   label: string;